@@ -0,0 +1,20 @@
+package process.scheduler.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar: the JMH command line, with the GC profiler (allocation
+ * rate, GC count and time) on unless other profilers are asked for with -prof.
+ */
+public class BenchmarkMain {
+  public static void main(String[] args) throws Exception {
+    List<String> options = new ArrayList<>(Arrays.asList(args));
+    if (!options.contains("-prof")) {
+      options.add("-prof");
+      options.add("gc");
+    }
+    org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+  }
+}
@@ -0,0 +1,74 @@
+package process.scheduler.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import process.scheduler.ExperimentManager;
+
+/**
+ * A whole comparative study per operation: generation, every algorithm on every replication
+ * and the statistics, with the report discarded and no result file. The jobs counter counts
+ * generated jobs (numJobs per replication).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ExperimentManagerBenchmark {
+  @Param({ "100", "1000", "10000", "100000", "1000000" })
+  public int numJobs;
+
+  @Param({ "0.5", "0.9", "1.2" })
+  public double load;
+
+  @Param({ "5" })
+  public int quantum;
+
+  @Param({ "5" })
+  public int replications;
+
+  @Param({ "1" })
+  public int parallelism;
+
+  private PrintStream out;
+
+  @Setup
+  public void setUp() {
+    out = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+  }
+
+  @TearDown
+  public void tearDown() {
+    System.setOut(out);
+  }
+
+  @Benchmark
+  public int comparativeStudy(JobCounter counter) {
+    var parameters = new ExperimentManager.Parameters(numJobs, Workloads.meanInterArrival(load), Workloads.MEAN_BURST,
+        Workloads.STD_DEV_BURST, Workloads.MAX_PRIORITY, quantum, Workloads.CONTEXT_SWITCH_TIME, replications);
+    parameters.seed = Workloads.SEED;
+    parameters.parallelism = parallelism;
+    parameters.resultsFile = null;
+    var manager = new ExperimentManager(parameters);
+    manager.runComparativeStudy();
+    counter.jobs += (long) numJobs * replications;
+    return manager.getCompletedReplications();
+  }
+}
@@ -0,0 +1,97 @@
+package process.scheduler.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import process.scheduler.FcfsBatch;
+import process.scheduler.FirstComeFirstServed;
+import process.scheduler.Scheduler;
+import process.scheduler.Workload;
+
+/**
+ * FCFS over `replications` pre-generated workloads per operation: one FirstComeFirstServed
+ * per workload against FcfsBatch, with the scalar and the vector scan (the same as scalar
+ * when the JVM lacks jdk.incubator.vector).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector" })
+public class FcfsBatchBenchmark {
+  @Param({ "100", "1000", "10000", "100000" })
+  public int numJobs;
+
+  @Param({ "0.5", "0.9", "1.2" })
+  public double load;
+
+  @Param({ "64" })
+  public int replications;
+
+  private List<Workload> workloads;
+  private FcfsBatch scalar;
+  private FcfsBatch vector;
+
+  @Setup
+  public void setUp() {
+    workloads = new ArrayList<>();
+    for (int r = 0; r < replications; r++) {
+      Workload workload = Workloads.generate(numJobs, load, Workloads.SEED + r);
+      workload.arrivalOrder();
+      workloads.add(workload);
+    }
+    scalar = new FcfsBatch(replications, numJobs);
+    scalar.setVectorized(false);
+    vector = new FcfsBatch(replications, numJobs);
+    for (int r = 0; r < replications; r++) {
+      scalar.load(r, workloads.get(r));
+      vector.load(r, workloads.get(r));
+    }
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult[] perReplication(JobCounter counter) {
+    Scheduler.SimulationResult[] results = new Scheduler.SimulationResult[replications];
+    for (int r = 0; r < replications; r++) {
+      FirstComeFirstServed fcfs = new FirstComeFirstServed(workloads.get(r), Workloads.CONTEXT_SWITCH_TIME);
+      fcfs.setTraceMode(Scheduler.TraceMode.NONE);
+      fcfs.schedule();
+      results[r] = fcfs.CollectMetrics();
+    }
+    counter.jobs += (long) replications * numJobs;
+    return results;
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult[] batchScalar(JobCounter counter) {
+    counter.jobs += (long) replications * numJobs;
+    return scalar.evaluate(Workloads.CONTEXT_SWITCH_TIME);
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult[] batchVector(JobCounter counter) {
+    counter.jobs += (long) replications * numJobs;
+    return vector.evaluate(Workloads.CONTEXT_SWITCH_TIME);
+  }
+
+  /** Loading included: FcfsBatch.evaluate(List) as a study would call it */
+  @Benchmark
+  public Scheduler.SimulationResult[] loadAndBatch(JobCounter counter) {
+    counter.jobs += (long) replications * numJobs;
+    return FcfsBatch.evaluate(workloads, Workloads.CONTEXT_SWITCH_TIME);
+  }
+}
@@ -0,0 +1,59 @@
+package process.scheduler.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import process.scheduler.JobGenerator;
+import process.scheduler.PCB;
+import process.scheduler.Workload;
+
+/**
+ * Workload generation: the PCB list ExperimentManager used to work on, and the primitive
+ * columns it works on now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class GeneratorBenchmark {
+  @Param({ "100", "1000", "10000", "100000", "1000000", "10000000" })
+  public int numJobs;
+
+  @Param({ "0.5", "0.9", "1.2" })
+  public double load;
+
+  private JobGenerator generator;
+
+  @Setup
+  public void setUp() {
+    generator = new JobGenerator(Workloads.SEED);
+  }
+
+  @Benchmark
+  public List<PCB> generateWorkload(JobCounter counter) {
+    counter.jobs += numJobs;
+    return generator.generateWorkload(numJobs, Workloads.meanInterArrival(load), Workloads.MEAN_BURST,
+        Workloads.STD_DEV_BURST, Workloads.MAX_PRIORITY, 0);
+  }
+
+  @Benchmark
+  public Workload generate(JobCounter counter) {
+    counter.jobs += numJobs;
+    return generator.generate(numJobs, Workloads.meanInterArrival(load), Workloads.MEAN_BURST,
+        Workloads.STD_DEV_BURST, Workloads.MAX_PRIORITY, 0);
+  }
+}
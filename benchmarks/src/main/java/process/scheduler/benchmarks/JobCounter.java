@@ -0,0 +1,22 @@
+package process.scheduler.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Jobs processed, reported by JMH as a secondary "jobs" rate next to ops/s. Jobs per second
+ * stays flat for an O(n) step and falls with log n for an O(n log n) one, whatever numJobs.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class JobCounter {
+  public long jobs;
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    jobs = 0;
+  }
+}
@@ -0,0 +1,97 @@
+package process.scheduler.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import process.scheduler.FairShareScheduler;
+import process.scheduler.FirstComeFirstServed;
+import process.scheduler.PriorityScheduling;
+import process.scheduler.Scheduler;
+import process.scheduler.ShortestJobFirst;
+import process.scheduler.Workload;
+
+/**
+ * One schedule of a pre-generated workload per operation, for the policies without a time
+ * quantum (RoundRobinBenchmark has the others). Runs record metrics only
+ * (TraceMode.NONE), as in ExperimentManager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class PolicyBenchmark {
+  @Param({ "100", "1000", "10000", "100000", "1000000", "10000000" })
+  public int numJobs;
+
+  @Param({ "0.5", "0.9", "1.2" })
+  public double load;
+
+  private Workload workload;
+
+  @Setup
+  public void setUp() {
+    workload = Workloads.generate(numJobs, load);
+  }
+
+  private <S extends Scheduler> S untraced(S scheduler, JobCounter counter) {
+    scheduler.setTraceMode(Scheduler.TraceMode.NONE);
+    counter.jobs += numJobs;
+    return scheduler;
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult fcfs(JobCounter counter) {
+    var scheduler = untraced(new FirstComeFirstServed(workload, Workloads.CONTEXT_SWITCH_TIME), counter);
+    scheduler.schedule();
+    return scheduler.CollectMetrics();
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult sjf(JobCounter counter) {
+    var scheduler = untraced(new ShortestJobFirst(workload, Workloads.CONTEXT_SWITCH_TIME), counter);
+    scheduler.non_preemptive_schedule();
+    return scheduler.CollectMetrics();
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult srtf(JobCounter counter) {
+    var scheduler = untraced(new ShortestJobFirst(workload, Workloads.CONTEXT_SWITCH_TIME), counter);
+    scheduler.preemptive_schedule();
+    return scheduler.CollectMetrics();
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult priority(JobCounter counter) {
+    var scheduler = untraced(new PriorityScheduling(workload, Workloads.CONTEXT_SWITCH_TIME), counter);
+    scheduler.non_preemptive_schedule();
+    return scheduler.CollectMetrics();
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult priorityPreemptiveAging(JobCounter counter) {
+    var scheduler = untraced(new PriorityScheduling(workload, Workloads.CONTEXT_SWITCH_TIME), counter);
+    scheduler.setAging(20, 1);
+    scheduler.preemptive_schedule();
+    return scheduler.CollectMetrics();
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult cfs(JobCounter counter) {
+    var scheduler = untraced(new FairShareScheduler(workload, 24, 3, Workloads.CONTEXT_SWITCH_TIME), counter);
+    scheduler.schedule();
+    return scheduler.CollectMetrics();
+  }
+}
@@ -0,0 +1,67 @@
+package process.scheduler.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import process.scheduler.MultiLevelFeedbackQueue;
+import process.scheduler.RoundRobin;
+import process.scheduler.Scheduler;
+import process.scheduler.Workload;
+
+/**
+ * The time-sliced policies, whose work grows with burst / quantum: RoundRobin, and MLFQ
+ * with quanta q, 2q, 4q as ExperimentManager runs it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class RoundRobinBenchmark {
+  @Param({ "100", "1000", "10000", "100000", "1000000", "10000000" })
+  public int numJobs;
+
+  @Param({ "0.5", "0.9", "1.2" })
+  public double load;
+
+  @Param({ "1", "5", "20" })
+  public int quantum;
+
+  private Workload workload;
+
+  @Setup
+  public void setUp() {
+    workload = Workloads.generate(numJobs, load);
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult roundRobin(JobCounter counter) {
+    var scheduler = new RoundRobin(workload, quantum, Workloads.CONTEXT_SWITCH_TIME);
+    scheduler.setTraceMode(Scheduler.TraceMode.NONE);
+    scheduler.schedule();
+    counter.jobs += numJobs;
+    return scheduler.CollectMetrics();
+  }
+
+  @Benchmark
+  public Scheduler.SimulationResult mlfq(JobCounter counter) {
+    var scheduler = new MultiLevelFeedbackQueue(workload, new int[] { quantum, 2 * quantum, 4 * quantum }, 100,
+        Workloads.CONTEXT_SWITCH_TIME);
+    scheduler.setTraceMode(Scheduler.TraceMode.NONE);
+    scheduler.schedule();
+    counter.jobs += numJobs;
+    return scheduler.CollectMetrics();
+  }
+}
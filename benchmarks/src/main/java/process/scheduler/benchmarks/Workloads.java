@@ -0,0 +1,32 @@
+package process.scheduler.benchmarks;
+
+import process.scheduler.JobGenerator;
+import process.scheduler.Workload;
+
+/**
+ * Workload shape shared by the benchmarks: the scenarios' burst distribution, with the
+ * arrival rate set by the offered load (mean burst / mean inter-arrival time). A load of
+ * 1 or more saturates the CPU and the ready queue grows with numJobs.
+ */
+final class Workloads {
+  static final double MEAN_BURST = 8.0;
+  static final double STD_DEV_BURST = 2.0;
+  static final int MAX_PRIORITY = 10;
+  static final int CONTEXT_SWITCH_TIME = 1;
+  static final long SEED = 42L;
+
+  private Workloads() {
+  }
+
+  static double meanInterArrival(double load) {
+    return MEAN_BURST / load;
+  }
+
+  static Workload generate(int numJobs, double load) {
+    return generate(numJobs, load, SEED);
+  }
+
+  static Workload generate(int numJobs, double load, long seed) {
+    return new JobGenerator(seed).generate(numJobs, meanInterArrival(load), MEAN_BURST, STD_DEV_BURST, MAX_PRIORITY, 0);
+  }
+}
@@ -0,0 +1,23 @@
+package process.scheduler;
+
+/**
+ * A lazy sequence of jobs in arrival order (ties in job ID order).
+ *
+ * Cursor style, so walking it allocates nothing: {@link #advance()} moves to the next job,
+ * whose fields are then read through the getters.
+ */
+public interface ArrivalStream {
+  /**
+   * Moves to the next job.
+   * @return false once the stream is exhausted
+   */
+  boolean advance();
+
+  int getJobID();
+
+  long getArrivalTime();
+
+  int getBurstTime();
+
+  int getPriority();
+}
@@ -0,0 +1,253 @@
+package process.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Calendar queue (R. Brown, 1988): events hashed by time into a ring of "day" buckets, each
+ * a time-ordered list linked through int arrays. Scheduling appends to (or scans back from
+ * the end of) one bucket, polling walks the days of the current "year", so both are O(1)
+ * amortized as long as the bucket width fits the spacing of the event times. The number of
+ * buckets follows the number of events (doubling / halving with a rebuild), and the width is
+ * re-estimated from the event times on every rebuild.
+ *
+ * Fallback: the cost of every operation (list steps, empty days walked) is tracked; when a
+ * window of operations averages more than DEGENERATE_COST even right after a rebuild, e.g.
+ * for heavily skewed event times, the set turns into the binary heap of HeapEventSet for
+ * good.
+ */
+public class CalendarEventSet extends HeapEventSet {
+  private static final int MIN_BUCKETS = 16;
+  private static final int DEGENERATE_COST = 32;
+  private static final int SAMPLES = 257;
+
+  private int[] head = new int[MIN_BUCKETS];
+  private int[] tail = new int[MIN_BUCKETS];
+  private int[] prev = new int[64];
+  private int[] next = new int[64];
+  private int[] bucket = new int[64];
+  private long width = 1L;
+  private int lastBucket = 0;
+  private long bucketTop = 1L; // end of the day lastBucket stands for
+  private boolean heapMode = false;
+
+  // Cost accounting for the fallback
+  private long operations = 0L;
+  private long cost = 0L;
+  private boolean rebuiltLastWindow = false;
+
+  public CalendarEventSet() {
+    Arrays.fill(head, -1);
+    Arrays.fill(tail, -1);
+  }
+
+  /** Whether the calendar gave up and works as a binary heap */
+  public boolean isHeapMode() {
+    return heapMode;
+  }
+
+  public int getBuckets() {
+    return head.length;
+  }
+
+  public long getBucketWidth() {
+    return width;
+  }
+
+  @Override
+  protected void growHandles(int capacity) {
+    super.growHandles(capacity);
+    prev = Arrays.copyOf(prev, capacity);
+    next = Arrays.copyOf(next, capacity);
+    bucket = Arrays.copyOf(bucket, capacity);
+  }
+
+  @Override
+  protected void insert(int handle) {
+    if (heapMode) {
+      super.insert(handle);
+      return;
+    }
+    if (size + 1 > 2 * head.length)
+      rebuild(head.length << 1);
+    link(handle);
+    // An event before the current day moves the calendar back to it
+    if (time[handle] < bucketTop - width) {
+      lastBucket = bucket[handle];
+      bucketTop = (Math.floorDiv(time[handle], width) + 1) * width;
+    }
+    account();
+  }
+
+  @Override
+  protected void remove(int handle) {
+    if (heapMode) {
+      super.remove(handle);
+      return;
+    }
+    unlink(handle);
+  }
+
+  @Override
+  protected int removeFirst() {
+    if (heapMode)
+      return super.removeFirst();
+
+    int first = -1;
+    int day = lastBucket;
+    long top = bucketTop;
+    for (int days = 0; days < head.length; days++) {
+      int h = head[day];
+      if (h != -1 && time[h] < top) {
+        first = h;
+        break;
+      }
+      day = (day + 1) & (head.length - 1);
+      top += width;
+      cost++;
+    }
+    if (first == -1) {
+      // Nothing within a year: jump straight to the earliest event
+      for (int b = 0; b < head.length; b++)
+        if (head[b] != -1 && (first == -1 || compare(head[b], first) < 0))
+          first = head[b];
+      cost += head.length;
+      day = bucket[first];
+      top = (Math.floorDiv(time[first], width) + 1) * width;
+    }
+    lastBucket = day;
+    bucketTop = top;
+    unlink(first);
+
+    if (size - 1 < head.length / 2 && head.length > MIN_BUCKETS)
+      rebuild(head.length >> 1);
+    account();
+    return first;
+  }
+
+  @Override
+  protected void reset() {
+    head = new int[MIN_BUCKETS];
+    tail = new int[MIN_BUCKETS];
+    Arrays.fill(head, -1);
+    Arrays.fill(tail, -1);
+    width = 1L;
+    lastBucket = 0;
+    bucketTop = 1L;
+    heapMode = false;
+    operations = cost = 0L;
+    rebuiltLastWindow = false;
+  }
+
+  // Adds the handle to its day, keeping the day's list ordered (scanning back from its end)
+  private void link(int handle) {
+    int b = (int) (Math.floorDiv(time[handle], width) & (head.length - 1));
+    bucket[handle] = b;
+    int after = tail[b];
+    while (after != -1 && compare(after, handle) > 0) {
+      after = prev[after];
+      cost++;
+    }
+    prev[handle] = after;
+    if (after == -1) {
+      next[handle] = head[b];
+      head[b] = handle;
+    } else {
+      next[handle] = next[after];
+      next[after] = handle;
+    }
+    if (next[handle] == -1)
+      tail[b] = handle;
+    else
+      prev[next[handle]] = handle;
+  }
+
+  private void unlink(int handle) {
+    int b = bucket[handle];
+    if (prev[handle] == -1)
+      head[b] = next[handle];
+    else
+      next[prev[handle]] = next[handle];
+    if (next[handle] == -1)
+      tail[b] = prev[handle];
+    else
+      prev[next[handle]] = prev[handle];
+  }
+
+  // Every operation counts; a costly window triggers a rebuild, a second one the heap
+  private void account() {
+    long window = Math.max(1024, 4L * head.length);
+    if (++operations < window)
+      return;
+    boolean degenerate = cost > DEGENERATE_COST * operations;
+    operations = cost = 0L;
+    if (!degenerate) {
+      rebuiltLastWindow = false;
+    } else if (rebuiltLastWindow) {
+      toHeap();
+    } else {
+      rebuild(head.length);
+      rebuiltLastWindow = true;
+    }
+  }
+
+  // Handles in the buckets (one more than size while an insert is under way)
+  private int[] liveHandles() {
+    int[] handles = new int[size + 1];
+    int count = 0;
+    for (int b = 0; b < head.length; b++)
+      for (int h = head[b]; h != -1; h = next[h])
+        handles[count++] = h;
+    return Arrays.copyOf(handles, count);
+  }
+
+  // New bucket count, and a width of about 3 typical gaps between the pending event times
+  private void rebuild(int buckets) {
+    int[] handles = liveHandles();
+    long min = Long.MAX_VALUE;
+    for (int h : handles)
+      min = Math.min(min, time[h]);
+    if (handles.length > 1)
+      width = Math.max(1L, 3 * typicalGap(handles));
+
+    head = new int[buckets];
+    tail = new int[buckets];
+    Arrays.fill(head, -1);
+    Arrays.fill(tail, -1);
+    for (int h : handles)
+      link(h);
+    if (handles.length > 0) {
+      lastBucket = (int) (Math.floorDiv(min, width) & (buckets - 1));
+      bucketTop = (Math.floorDiv(min, width) + 1) * width;
+    }
+  }
+
+  /*
+   * Gap between consecutive event times where they are densest: the median gap of an evenly
+   * spread sample, sorted, scaled back to the whole set. Unlike (max - min) / size it is not
+   * thrown off by a long tail of far-away events.
+   */
+  private long typicalGap(int[] handles) {
+    int samples = Math.min(handles.length, SAMPLES);
+    long[] sample = new long[samples];
+    for (int s = 0; s < samples; s++)
+      sample[s] = time[handles[(int) ((long) s * handles.length / samples)]];
+    Arrays.sort(sample);
+    long[] gaps = new long[samples - 1];
+    for (int s = 1; s < samples; s++)
+      gaps[s - 1] = sample[s] - sample[s - 1];
+    Arrays.sort(gaps);
+    return gaps[gaps.length / 2] * (samples - 1) / handles.length;
+  }
+
+  private void toHeap() {
+    int[] handles = liveHandles();
+    heapMode = true;
+    int pending = size;
+    size = 0;
+    for (int h : handles) {
+      super.insert(h);
+      size++;
+    }
+    size = pending;
+  }
+}
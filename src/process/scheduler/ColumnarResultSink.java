@@ -0,0 +1,98 @@
+package process.scheduler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact columnar results file, written as a sequence of blocks (big endian):
+ *
+ *   header         MAGIC (int), VERSION (int)
+ *   'A' block      new algorithm: code (byte), name (modified UTF-8)
+ *   'M' block      new metric: code (byte), name (modified UTF-8)
+ *   'R' block      row group: rows (int), then the columns
+ *                  replication int[rows], algorithm byte[rows], metric byte[rows], value double[rows]
+ *
+ * Algorithms and metrics are dictionary-encoded; a dictionary block always precedes the
+ * first row group using it. One row group is written and flushed per replication, so a crash
+ * loses at most the replication in flight (a truncated last block is simply ignored).
+ */
+public class ColumnarResultSink implements ResultSink {
+  public static final int MAGIC = 0x534D5243; // "SMRC"
+  public static final int VERSION = 1;
+
+  private final DataOutputStream out;
+  private final Map<String, Integer> algorithmCodes = new HashMap<>();
+  private final Map<String, Integer> metricCodes = new HashMap<>();
+  private int rows = 0;
+  private int[] replications = new int[64];
+  private byte[] algorithms = new byte[64];
+  private byte[] metrics = new byte[64];
+  private double[] values = new double[64];
+
+  public ColumnarResultSink(Path file) throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+  }
+
+  @Override
+  public void accept(int replication, String algorithm, String metric, double value) throws IOException {
+    if (rows == values.length) {
+      replications = Arrays.copyOf(replications, rows << 1);
+      algorithms = Arrays.copyOf(algorithms, rows << 1);
+      metrics = Arrays.copyOf(metrics, rows << 1);
+      values = Arrays.copyOf(values, rows << 1);
+    }
+    replications[rows] = replication;
+    algorithms[rows] = code(algorithmCodes, 'A', algorithm);
+    metrics[rows] = code(metricCodes, 'M', metric);
+    values[rows] = value;
+    rows++;
+  }
+
+  @Override
+  public void endReplication(int replication) throws IOException {
+    if (rows == 0)
+      return;
+    out.writeByte('R');
+    out.writeInt(rows);
+    for (int row = 0; row < rows; row++)
+      out.writeInt(replications[row]);
+    out.write(algorithms, 0, rows);
+    out.write(metrics, 0, rows);
+    for (int row = 0; row < rows; row++)
+      out.writeDouble(values[row]);
+    out.flush();
+    rows = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      endReplication(-1);
+    } finally {
+      out.close();
+    }
+  }
+
+  // Dictionary code of a name, writing its dictionary block the first time it shows up
+  private byte code(Map<String, Integer> dictionary, char tag, String name) throws IOException {
+    Integer code = dictionary.get(name);
+    if (code == null) {
+      code = dictionary.size();
+      if (code > 255)
+        throw new IllegalStateException("More than 256 distinct values in the '" + tag + "' dictionary");
+      dictionary.put(name, code);
+      out.writeByte(tag);
+      out.writeByte(code);
+      out.writeUTF(name);
+    }
+    return (byte) (int) code;
+  }
+}
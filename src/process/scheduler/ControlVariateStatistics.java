@@ -0,0 +1,151 @@
+package process.scheduler;
+
+/**
+ * Constant-memory control variate estimate of a mean. Every observation of the response y
+ * comes with controls of known mean, passed centred (control minus its known mean). The
+ * estimate is the intercept of the least squares regression of y on the controls: the
+ * sample mean of y minus beta . (sample mean of the controls), which removes the part of
+ * the variance of y that the controls explain. Without controls it is the sample mean.
+ *
+ * The co-moments are updated online (multivariate Welford), so the coefficients and the
+ * Student-t confidence interval (N - 1 - controls degrees of freedom, with the variance of
+ * the fitted coefficients included) are available at any count.
+ */
+public class ControlVariateStatistics {
+  private final int controls;
+  private long count = 0;
+  private final double[] mean;       // y, then the controls
+  private final double[][] comoment; // sums of products of deviations from the means
+
+  public ControlVariateStatistics(int controls) {
+    if (controls < 0)
+      throw new IllegalArgumentException("Negative number of controls");
+    this.controls = controls;
+    this.mean = new double[controls + 1];
+    this.comoment = new double[controls + 1][controls + 1];
+  }
+
+  /**
+   * @param controls the observation's controls minus their known means, one per control
+   */
+  public void add(double y, double... controls) {
+    if (controls.length != this.controls)
+      throw new IllegalArgumentException(controls.length + " controls, expected " + this.controls);
+    count++;
+    double[] delta = new double[mean.length];
+    delta[0] = y - mean[0];
+    for (int j = 0; j < this.controls; j++)
+      delta[j + 1] = controls[j] - mean[j + 1];
+    for (int j = 0; j < mean.length; j++)
+      mean[j] += delta[j] / count;
+    for (int j = 0; j < mean.length; j++) {
+      double after = (j == 0 ? y : controls[j - 1]) - mean[j];
+      for (int k = 0; k < mean.length; k++)
+        comoment[k][j] += delta[k] * after;
+    }
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public int getControls() {
+    return controls;
+  }
+
+  /** Mean of y, not adjusted */
+  public double getSampleMean() {
+    return mean[0];
+  }
+
+  /** Fitted coefficients, 0 for a control that did not vary */
+  public double[] getCoefficients() {
+    return new Fit().beta;
+  }
+
+  /** The controlled estimate of the mean of y */
+  public double getMean() {
+    double[] beta = getCoefficients();
+    double estimate = mean[0];
+    for (int j = 0; j < controls; j++)
+      estimate -= beta[j] * mean[j + 1];
+    return estimate;
+  }
+
+  /** Estimated variance of getMean(); infinite while there are not enough observations */
+  public double getEstimatorVariance() {
+    Fit fit = new Fit();
+    long degreesOfFreedom = count - 1 - fit.active;
+    if (degreesOfFreedom < 1)
+      return Double.POSITIVE_INFINITY;
+    double residual = comoment[0][0];
+    for (int j = 0; j < controls; j++)
+      residual -= fit.beta[j] * comoment[j + 1][0];
+    return Math.max(residual, 0D) / degreesOfFreedom * (1D / count + fit.meanLeverage);
+  }
+
+  /**
+   * Half-width of the two-sided confidence interval of the controlled mean.
+   * @param confidence confidence level, e.g. 0.95
+   */
+  public double getHalfWidth(double confidence) {
+    double variance = getEstimatorVariance();
+    if (variance == Double.POSITIVE_INFINITY)
+      return Double.POSITIVE_INFINITY;
+    return OnlineStatistics.tQuantile(0.5 + confidence / 2, count - 1 - new Fit().active) * Math.sqrt(variance);
+  }
+
+  /**
+   * Half-width relative to the mean; 0 when both are 0.
+   */
+  public double getRelativeHalfWidth(double confidence) {
+    double halfWidth = getHalfWidth(confidence);
+    if (halfWidth == 0D)
+      return 0D;
+    return halfWidth / Math.abs(getMean());
+  }
+
+  // Least squares fit: S_cc beta = S_cy and S_cc x = (control means), by elimination without
+  // pivoting (S_cc is positive semi-definite); a control whose pivot vanishes is left out
+  private final class Fit {
+    final double[] beta = new double[controls];
+    double meanLeverage = 0D; // control means . x
+    int active = 0;
+
+    Fit() {
+      double[][] a = new double[controls][controls + 2];
+      for (int j = 0; j < controls; j++) {
+        for (int k = 0; k < controls; k++)
+          a[j][k] = comoment[j + 1][k + 1];
+        a[j][controls] = comoment[j + 1][0];
+        a[j][controls + 1] = mean[j + 1];
+      }
+      boolean[] used = new boolean[controls];
+      for (int p = 0; p < controls; p++) {
+        used[p] = a[p][p] > 1e-10 * comoment[p + 1][p + 1] && comoment[p + 1][p + 1] > 0D;
+        if (!used[p])
+          continue;
+        active++;
+        for (int r = p + 1; r < controls; r++) {
+          double factor = a[r][p] / a[p][p];
+          for (int c = p; c < controls + 2; c++)
+            a[r][c] -= factor * a[p][c];
+        }
+      }
+      double[] x = new double[controls];
+      for (int p = controls - 1; p >= 0; p--) {
+        if (!used[p])
+          continue;
+        double b = a[p][controls], m = a[p][controls + 1];
+        for (int c = p + 1; c < controls; c++) {
+          b -= a[p][c] * beta[c];
+          m -= a[p][c] * x[c];
+        }
+        beta[p] = b / a[p][p];
+        x[p] = m / a[p][p];
+      }
+      for (int j = 0; j < controls; j++)
+        meanLeverage += mean[j + 1] * x[j];
+    }
+  }
+}
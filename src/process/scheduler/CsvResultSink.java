@@ -0,0 +1,33 @@
+package process.scheduler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Long format CSV: Replication,Algorithm,Metric,Value (values with 2 decimals).
+ */
+public class CsvResultSink implements ResultSink {
+  private final BufferedWriter writer;
+
+  public CsvResultSink(Path file) throws IOException {
+    this.writer = Files.newBufferedWriter(file);
+    writer.write("Replication,Algorithm,Metric,Value\n");
+  }
+
+  @Override
+  public void accept(int replication, String algorithm, String metric, double value) throws IOException {
+    writer.write(String.format("%d,%s,%s,%.2f\n", replication, algorithm, metric, value));
+  }
+
+  @Override
+  public void endReplication(int replication) throws IOException {
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
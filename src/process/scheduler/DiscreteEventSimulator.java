@@ -1,7 +1,25 @@
 package process.scheduler;
 
 public class DiscreteEventSimulator {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws java.io.IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("sweep")) {
+            runSweep();
+            return;
+        }
+        if (args.length > 1 && args[0].equals("trace")) {
+            runTraces(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("variance")) {
+            runVarianceReduced(args.length > 1 ? Integer.parseInt(args[1]) : 20);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("live")) {
+            runLive(args.length > 1 ? Integer.parseInt(args[1]) : 50, args.length > 2 ? Integer.parseInt(args[2]) : 1,
+                    args.length > 3 ? Double.parseDouble(args[3]) : 1.0);
+            return;
+        }
+
         // --- SCENARIO 1: LOW Contention (Baseline) ---
         // Objective: Establish performance where the CPU is mostly idle.
         // IAT (10.0ms) > Burst (8.0ms) -> Low Load
@@ -58,4 +76,67 @@ public class DiscreteEventSimulator {
         ExperimentManager manager3 = new ExperimentManager(params3);
         manager3.runComparativeStudy();
     }
-}
\ No newline at end of file
+
+    // --- SWEEP: the contention and overhead axes of the scenarios above as one grid ---
+    // Grid points with the same numJobs and meanInterArrival share their workloads (common random numbers)
+    private static void runSweep() throws java.io.IOException {
+        ExperimentManager.Parameters base = new ExperimentManager.Parameters(100, 5.0, 8.0, 2.0, 10, 5, 0, 100);
+        base.parallelism = Runtime.getRuntime().availableProcessors();
+
+        ParameterSweep sweep = new ParameterSweep(base);
+        sweep.numJobs = new int[] { 100, 1000 };
+        sweep.meanInterArrivals = ParameterSweep.range(2.0, 10.0, 2.0); // saturated .. low contention
+        sweep.timeQuanta = new int[] { 2, 5, 10 };
+        sweep.contextSwitchTimes = ParameterSweep.range(0, 2, 1);
+        System.out.println("Starting SWEEP over " + sweep.getGrid().size() + " grid points (seed " + base.seed + ")...");
+        sweep.run();
+    }
+
+    // --- VARIANCE REDUCTION: SCENARIO 3 with antithetic pairs and control variates ---
+    // The report sets every CI against the one of the same replications taken as independent
+    private static void runVarianceReduced(int replications) {
+        ExperimentManager.Parameters params = new ExperimentManager.Parameters(100, 5.0, 8.0, 2.0, 10, 5, 1, replications);
+        params.antithetic = true;
+        params.controlVariates = true;
+        System.out.println("Starting VARIANCE-REDUCED Realistic Load Study (" + replications + " replications)...");
+        new ExperimentManager(params).runComparativeStudy();
+    }
+
+    // --- TRACES: recorded jobs (CSV or binary traces, see TraceLoader) instead of generated ones ---
+    // One replication per trace file, with the scheduling parameters of SCENARIO 3
+    private static void runTraces(String[] files) {
+        java.nio.file.Path[] traces = new java.nio.file.Path[files.length];
+        for (int i = 0; i < files.length; i++)
+            traces[i] = java.nio.file.Paths.get(files[i]);
+        ExperimentManager.Parameters params = new ExperimentManager.Parameters(0, 0, 0, 0, 0, 5, 1, traces.length);
+        ExperimentManager manager = new ExperimentManager(params);
+        manager.setWorkloadSource(TraceLoader.source(traces));
+        System.out.println("Starting TRACE replay of " + traces.length + " trace(s)...");
+        manager.runComparativeStudy();
+    }
+
+    // --- LIVE: the jobs of SCENARIO 3's load run for real (see LiveExecutor), next to the simulation ---
+    // One time unit = unitMillis of spinning; no simulated context switch, the real one is measured
+    private static void runLive(int numJobs, int carriers, double unitMillis) throws InterruptedException {
+        int timeQuantum = 5;
+        Workload workload = new JobGenerator(42L).generate(numJobs, 10.0, 8.0, 2.0, 10, 0);
+        workload.arrivalOrder(); // cached before the carriers share the workload
+        LiveExecutor executor = new LiveExecutor(workload, carriers, unitMillis);
+        System.out.println("Starting LIVE run of " + numJobs + " jobs on " + carriers + " carrier thread(s), 1 unit = "
+                + unitMillis + " ms, spin calibrated at " + LiveExecutor.calibrate() + " iterations/ms...");
+
+        String[] algorithms = { "FCFS", "SJF-NP", "Priority-NP", "RoundRobin" };
+        EventPolicy[] policies = { EventPolicies.fcfs(), EventPolicies.sjf(), EventPolicies.priority(false),
+                EventPolicies.roundRobin(timeQuantum) };
+        StreamingScheduler.Policy[] simulatedPolicies = { StreamingScheduler.Policy.FCFS, StreamingScheduler.Policy.SJF,
+                StreamingScheduler.Policy.PRIORITY, StreamingScheduler.Policy.ROUND_ROBIN };
+        for (int a = 0; a < algorithms.length; a++) {
+            MultiCoreScheduler simulated = new MultiCoreScheduler(workload, carriers, MultiCoreScheduler.QueueMode.GLOBAL,
+                    simulatedPolicies[a], timeQuantum, 0);
+            simulated.setTraceMode(Scheduler.TraceMode.NONE);
+            simulated.schedule();
+            LiveExecutor.Result live = executor.run(policies[a]);
+            LiveExecutor.compare(algorithms[a], simulated, live, 10);
+        }
+    }
+}
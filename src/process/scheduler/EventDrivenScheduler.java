@@ -0,0 +1,286 @@
+package process.scheduler;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Single CPU scheduler on the SimulationEngine: arrivals, slice ends (preemptions) and
+ * completions are events, the EventPolicy decides which ready job runs and when an arrival
+ * preempts. Only the next arrival is pending at any time (each arrival schedules the
+ * following one), so the event set holds at most three events: an arrival, the end of the
+ * running slice and a dispatch.
+ *
+ * Events at the same time are handled arrivals first, then slice ends and completions, then
+ * the end of a context switch, then the dispatch, so a job preempted at the end of its
+ * quantum queues up behind the jobs that arrived meanwhile, as in RoundRobin, and a job
+ * completing when another arrives is not preempted. contextSwitchTime is paid as the
+ * policy's EventPolicy.ContextSwitch rule says, so with EventPolicies.fcfs, sjf, srtf,
+ * priority and roundRobin the schedule equals FirstComeFirstServed's, ShortestJobFirst's,
+ * PriorityScheduling's (without aging) and RoundRobin's.
+ */
+public class EventDrivenScheduler extends Scheduler {
+  // Event types, in the order they are handled at equal times
+  private static final int ARRIVAL = 0;
+  private static final int PREEMPT = 1;
+  private static final int COMPLETE = 2;
+  private static final int SWITCHED = 3;
+  private static final int DISPATCH = 4;
+
+  private final EventPolicy policy;
+  private final SimulationEngine engine;
+
+  // Run state of schedule()
+  private int[] arrivalOrder;
+  private int next;
+  private int[] remainingTime;
+  private int runningJob;
+  private int previousJob;
+  private int runStart;
+  private int sliceEvent; // handle of the running slice's end
+  private int freeSince;  // CPU idle since, while no job runs (after the switch for AFTER_EVERY_JOB)
+  private int completed;
+  private boolean switching; // BEFORE_CHOICE: switching, the job is chosen at SWITCHED
+  private boolean dispatchPending;
+  // The workload and remaining times, as the policy sees them
+  private final JobTable jobs = new JobTable() {
+    @Override
+    public long getArrivalTime(int job) {
+      return getWorkload().getArrivalTime(job);
+    }
+
+    @Override
+    public int getBurstTime(int job) {
+      return getWorkload().getBurstTime(job);
+    }
+
+    @Override
+    public int getPriority(int job) {
+      return getWorkload().getPriority(job);
+    }
+
+    @Override
+    public int getRemainingTime(int job) {
+      return remainingTime[job];
+    }
+
+    @Override
+    public long getSequence(int job) {
+      return job;
+    }
+  };
+
+  public EventDrivenScheduler(List<PCB> processes, EventPolicy policy, PendingEventSet.Kind events,
+      int contextSwitchTime) {
+    super(processes, contextSwitchTime);
+    this.policy = policy;
+    this.engine = new SimulationEngine(events);
+  }
+
+  public EventDrivenScheduler(Workload workload, EventPolicy policy, PendingEventSet.Kind events,
+      int contextSwitchTime) {
+    super(workload, contextSwitchTime);
+    this.policy = policy;
+    this.engine = new SimulationEngine(events);
+  }
+
+  public SimulationEngine getEngine() {
+    return engine;
+  }
+
+  public LinkedList<String> schedule() {
+    clearMetrics();
+
+    var workload = getWorkload();
+    if (workload.size() == 0) {
+      getScheduleTable().addLast("---- Empty Process Block ----");
+      return getScheduleTable();
+    }
+
+    arrivalOrder = workload.arrivalOrder();
+    next = 0;
+    remainingTime = new int[workload.size()];
+    for (int job = 0; job < remainingTime.length; job++)
+      remainingTime[job] = workload.getBurstTime(job);
+    policy.reset(jobs);
+    runningJob = previousJob = -1;
+    freeSince = completed = 0;
+    switching = dispatchPending = false;
+
+    engine.reset();
+    scheduleNextArrival();
+    engine.run(this::handle);
+
+    arrivalOrder = remainingTime = null;
+    finishMetrics();
+
+    return traceResult();
+  }
+
+  private void handle(int type, int job) {
+    int now = (int) engine.now();
+    switch (type) {
+      case ARRIVAL:
+        scheduleNextArrival();
+        if (runningJob != -1 && remainingTime[bringUpToDate(now)] > 0 && policy.preempts(job, runningJob)) {
+          engine.cancel(sliceEvent);
+          policy.add(job);
+          stop(now);
+        } else {
+          policy.add(job);
+        }
+        requestDispatch(now);
+        break;
+      case PREEMPT:
+        bringUpToDate(now);
+        stop(now);
+        requestDispatch(now);
+        break;
+      case COMPLETE:
+        remainingTime[job] = 0;
+        trace(runStart, now, job);
+        complete(job, now);
+        runningJob = -1;
+        freeSince = now;
+        if (policy.contextSwitch() == EventPolicy.ContextSwitch.AFTER_EVERY_JOB && ++completed < remainingTime.length)
+          freeSince += switchContext();
+        requestDispatch(now);
+        break;
+      case SWITCHED:
+        switching = false;
+        run(policy.poll(), now);
+        break;
+      case DISPATCH:
+        dispatchPending = false;
+        if (runningJob == -1 && !switching && !policy.isEmpty())
+          dispatch(now);
+        break;
+      default:
+        throw new IllegalStateException("Unknown event type " + type);
+    }
+  }
+
+  private void scheduleNextArrival() {
+    if (next < arrivalOrder.length) {
+      int job = arrivalOrder[next++];
+      engine.schedule(getWorkload().getArrivalTime(job), ARRIVAL, job);
+    }
+  }
+
+  private void requestDispatch(int now) {
+    if (!dispatchPending && runningJob == -1 && !switching) {
+      engine.schedule(now, DISPATCH, -1);
+      dispatchPending = true;
+    }
+  }
+
+  private void dispatch(int now) {
+    if (freeSince < now)
+      trace(freeSince, now, EventLog.IDLE);
+    // Straight from a job that completed or was preempted now, not after idling
+    boolean betweenJobs = freeSince == now && previousJob != -1;
+
+    // Context Switching Time
+    switch (policy.contextSwitch()) {
+      case AFTER_EVERY_JOB: // paid at the completion
+        run(policy.poll(), Math.max(now, freeSince));
+        break;
+      case BETWEEN_JOBS:
+        run(policy.poll(), betweenJobs ? now + switchContext() : now);
+        break;
+      case BEFORE_CHOICE:
+        if (betweenJobs) {
+          switching = true;
+          engine.schedule((long) now + switchContext(), SWITCHED, -1);
+        } else {
+          run(policy.poll(), now);
+        }
+        break;
+      default:
+        int job = policy.poll();
+        run(job, job != previousJob ? now + switchContext() : now);
+    }
+  }
+
+  // Runs job from timer on, until its slice ends or it completes
+  private void run(int job, int timer) {
+    runningJob = previousJob = job;
+    runStart = timer;
+    start(runningJob, timer);
+
+    int slice = policy.slice(runningJob);
+    if (slice < remainingTime[runningJob])
+      sliceEvent = engine.schedule((long) runStart + slice, PREEMPT, runningJob);
+    else
+      sliceEvent = engine.schedule((long) runStart + remainingTime[runningJob], COMPLETE, runningJob);
+  }
+
+  // Accounts the running job's progress up to now (none during its context switch)
+  private int bringUpToDate(int now) {
+    if (runStart < now) {
+      remainingTime[runningJob] -= now - runStart;
+      trace(runStart, now, runningJob);
+      runStart = now;
+    }
+    return runningJob;
+  }
+
+  // The running job, up to date, goes back to the ready queue
+  private void stop(int now) {
+    policy.add(runningJob);
+    runningJob = -1;
+    freeSince = now;
+  }
+
+  public static void main(String[] args) {
+    int numJobs = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    Workload workload = new JobGenerator(42).generate(numJobs, 4.0, 4.0, 1.5, 10, 0);
+    String[] names = { "FCFS", "SJF-NP", "SJF-P", "Priority-P", "RoundRobin" };
+
+    System.out.printf("%-12s %-10s %15s %12s%n", "Policy", "Events", "Events/s", "AvgWT");
+    for (String name : names) {
+      for (PendingEventSet.Kind kind : PendingEventSet.Kind.values()) {
+        EventPolicy policy;
+        switch (name) {
+          case "FCFS":
+            policy = EventPolicies.fcfs();
+            break;
+          case "SJF-NP":
+            policy = EventPolicies.sjf();
+            break;
+          case "SJF-P":
+            policy = EventPolicies.srtf();
+            break;
+          case "Priority-P":
+            policy = EventPolicies.priority(true);
+            break;
+          default:
+            policy = EventPolicies.roundRobin(3);
+        }
+        var scheduler = new EventDrivenScheduler(workload, policy, kind, 1);
+        scheduler.setTraceMode(TraceMode.NONE);
+        scheduler.schedule(); // warm-up
+        scheduler.schedule();
+        System.out.printf("%-12s %-10s %,15.0f %12.2f%n", name, kind, scheduler.getEngine().getEventsPerSecond(),
+            scheduler.getAverageWaitingTime());
+      }
+    }
+
+    // Hold model: a large pending set, every event schedules one more at an exponential
+    // distance, the case calendar queues are built for
+    System.out.printf("%n%-10s %10s %15s%n", "Events", "Pending", "Events/s");
+    for (int pending : new int[] { 1_000, 100_000, 1_000_000 }) {
+      for (PendingEventSet.Kind kind : PendingEventSet.Kind.values()) {
+        var engine = new SimulationEngine(kind);
+        var random = new java.util.Random(42);
+        long[] holds = { 0L };
+        for (int event = 0; event < pending; event++)
+          engine.schedule((long) (-Math.log(1 - random.nextDouble()) * pending), 0, 0);
+        engine.run((type, job) -> {
+          if (holds[0]++ < 5_000_000L)
+            engine.schedule(engine.now() + (long) (-Math.log(1 - random.nextDouble()) * pending), 0, 0);
+        });
+        System.out.printf("%-10s %10d %,15.0f%n", kind, pending, engine.getEventsPerSecond());
+      }
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package process.scheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * Compact execution trace: a growable int buffer of (start, end, jobID) triples.
+ *
+ * Nothing is turned into text while a scheduler runs; the schedule table format
+ * ("[start <- PID -> end]", "[start <- -- -> end]" for idle CPU) is only rendered on request.
+ */
+public class EventLog {
+  /** Job ID recorded for CPU idle periods */
+  public static final int IDLE = -1;
+
+  private int[] events;
+  private int size = 0;
+
+  public EventLog() {
+    this(64);
+  }
+
+  public EventLog(int initialCapacity) {
+    this.events = new int[3 * Math.max(1, initialCapacity)];
+  }
+
+  public void add(int start, int end, int job) {
+    if (3 * size + 3 > events.length)
+      events = Arrays.copyOf(events, events.length << 1);
+    events[3 * size] = start;
+    events[3 * size + 1] = end;
+    events[3 * size + 2] = job;
+    size++;
+  }
+
+  /** Number of recorded events */
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public int getStart(int event) {
+    return events[3 * event];
+  }
+
+  public int getEnd(int event) {
+    return events[3 * event + 1];
+  }
+
+  public int getJob(int event) {
+    return events[3 * event + 2];
+  }
+
+  /**
+   * Renders the events in the schedule table format.
+   */
+  public LinkedList<String> render(Workload workload) {
+    return render(workload, 0, new LinkedList<>());
+  }
+
+  /**
+   * Renders the events from {@code fromEvent} on, appending them to {@code table}.
+   */
+  public LinkedList<String> render(Workload workload, int fromEvent, LinkedList<String> table) {
+    for (int event = fromEvent; event < size; event++)
+      table.addLast(format(workload, event));
+    return table;
+  }
+
+  /**
+   * Streams the events in the schedule table format, one row per line.
+   */
+  public void writeTo(Appendable out, Workload workload) {
+    try {
+      for (int event = 0; event < size; event++)
+        out.append(format(workload, event)).append('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private String format(Workload workload, int event) {
+    int job = getJob(event);
+    return "[" + getStart(event) + " <- " + (job == IDLE ? "--" : workload.getPID(job)) + " -> " + getEnd(event) + "]";
+  }
+}
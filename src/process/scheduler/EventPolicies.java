@@ -0,0 +1,153 @@
+package process.scheduler;
+
+/**
+ * The built-in policies as EventPolicy implementations. Ties are broken by arrival time,
+ * then submission order (job ID). Context switches are paid as in the single-core scheduler
+ * of each policy (see EventPolicy.ContextSwitch).
+ */
+public final class EventPolicies {
+  private EventPolicies() {
+  }
+
+  public static EventPolicy fcfs() {
+    return new FifoPolicy(Integer.MAX_VALUE, EventPolicy.ContextSwitch.AFTER_EVERY_JOB);
+  }
+
+  public static EventPolicy roundRobin(int timeQuantum) {
+    if (timeQuantum < 1)
+      throw new IllegalArgumentException("Time quantum must be positive: " + timeQuantum);
+    return new FifoPolicy(timeQuantum, EventPolicy.ContextSwitch.ON_DISPATCH);
+  }
+
+  /** Shortest burst first, non-preemptive */
+  public static EventPolicy sjf() {
+    return new KeyedPolicy(Key.BURST, false);
+  }
+
+  /** Shortest remaining time first: a strictly shorter arrival preempts */
+  public static EventPolicy srtf() {
+    return new KeyedPolicy(Key.REMAINING, true);
+  }
+
+  /** Lowest priority number first; preemptive when a strictly higher priority arrives */
+  public static EventPolicy priority(boolean preemptive) {
+    return new KeyedPolicy(Key.PRIORITY, preemptive);
+  }
+
+  // Arrival order, optionally with a time quantum
+  private static final class FifoPolicy implements EventPolicy {
+    private final int timeQuantum;
+    private final ContextSwitch contextSwitch;
+    private final JobQueue readyQueue = new JobQueue(16);
+
+    FifoPolicy(int timeQuantum, ContextSwitch contextSwitch) {
+      this.timeQuantum = timeQuantum;
+      this.contextSwitch = contextSwitch;
+    }
+
+    @Override
+    public void reset(JobTable jobs) {
+      readyQueue.clear();
+    }
+
+    @Override
+    public void add(int job) {
+      readyQueue.add(job);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return readyQueue.isEmpty();
+    }
+
+    @Override
+    public int poll() {
+      return readyQueue.poll();
+    }
+
+    @Override
+    public int slice(int job) {
+      return timeQuantum;
+    }
+
+    @Override
+    public boolean preempts(int arrivingJob, int runningJob) {
+      return false;
+    }
+
+    @Override
+    public ContextSwitch contextSwitch() {
+      return contextSwitch;
+    }
+  }
+
+  private enum Key {
+    BURST, REMAINING, PRIORITY
+  }
+
+  // Smallest key first
+  private static final class KeyedPolicy implements EventPolicy {
+    private final Key key;
+    private final boolean preemptive;
+    private JobTable jobs;
+    private JobHeap readyQueue;
+
+    KeyedPolicy(Key key, boolean preemptive) {
+      this.key = key;
+      this.preemptive = preemptive;
+    }
+
+    private int key(int job) {
+      switch (key) {
+        case BURST:
+          return jobs.getBurstTime(job);
+        case REMAINING:
+          return jobs.getRemainingTime(job);
+        default:
+          return jobs.getPriority(job);
+      }
+    }
+
+    @Override
+    public void reset(JobTable jobs) {
+      this.jobs = jobs;
+      this.readyQueue = new JobHeap((j1, j2) -> {
+        if (key(j1) != key(j2))
+          return Integer.compare(key(j1), key(j2));
+        if (jobs.getArrivalTime(j1) != jobs.getArrivalTime(j2))
+          return Long.compare(jobs.getArrivalTime(j1), jobs.getArrivalTime(j2));
+        return Long.compare(jobs.getSequence(j1), jobs.getSequence(j2));
+      }, 16);
+    }
+
+    @Override
+    public void add(int job) {
+      readyQueue.add(job);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return readyQueue.isEmpty();
+    }
+
+    @Override
+    public int poll() {
+      return readyQueue.poll();
+    }
+
+    @Override
+    public int slice(int job) {
+      return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean preempts(int arrivingJob, int runningJob) {
+      return preemptive && key(arrivingJob) < key(runningJob);
+    }
+
+    @Override
+    public ContextSwitch contextSwitch() {
+      return preemptive ? ContextSwitch.BEFORE_CHOICE : ContextSwitch.BETWEEN_JOBS;
+    }
+  }
+}
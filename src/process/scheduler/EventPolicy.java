@@ -0,0 +1,60 @@
+package process.scheduler;
+
+/**
+ * Ready queue and preemption rule of a single CPU policy run by EventDrivenScheduler.
+ * Implementations for the built-in policies are in EventPolicies.
+ */
+public interface EventPolicy {
+  /**
+   * When the CPU pays the context switch time; the built-in policies follow their
+   * single-core scheduler.
+   */
+  enum ContextSwitch {
+    /** Whenever it starts a job other than the one it ran last, the first one included (RoundRobin) */
+    ON_DISPATCH,
+    /**
+     * Right after every job while jobs are left to start; the switch overlaps idle time and
+     * the next job starts once it is over (FirstComeFirstServed)
+     */
+    AFTER_EVERY_JOB,
+    /**
+     * When it goes from a completed job straight to a waiting one, not after idling; the job
+     * is chosen before the switch (non-preemptive ShortestJobFirst and PriorityScheduling)
+     */
+    BETWEEN_JOBS,
+    /**
+     * After a preemption, and after a completion while jobs wait; the job is chosen once the
+     * switch is over, among the jobs that arrived meanwhile too (Shortest-Remaining-Time-First,
+     * preemptive PriorityScheduling)
+     */
+    BEFORE_CHOICE
+  }
+
+  /**
+   * Starts a run over the jobs of the table, which is owned by the scheduler; a ready job's
+   * remaining time does not change while it is queued.
+   */
+  void reset(JobTable jobs);
+
+  /** The job is ready: it arrived or was preempted */
+  void add(int job);
+
+  boolean isEmpty();
+
+  /** Takes the job to run next */
+  int poll();
+
+  /** Longest run the job gets before it is preempted, Integer.MAX_VALUE for none */
+  int slice(int job);
+
+  /**
+   * Whether the arriving job takes the CPU from the running job (remainingTime of the
+   * running job is brought up to date first).
+   */
+  boolean preempts(int arrivingJob, int runningJob);
+
+  /** ON_DISPATCH unless overridden */
+  default ContextSwitch contextSwitch() {
+    return ContextSwitch.ON_DISPATCH;
+  }
+}
@@ -1,11 +1,20 @@
 package process.scheduler;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.io.FileWriter;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 
 public class ExperimentManager {
     // --- Experiment Parameters ---
@@ -19,6 +28,53 @@ public class ExperimentManager {
         public int timeQuantum;
         public int contextSwitchTime;
         public int replications;
+        // Root seed of the replication streams; fix it to reproduce a study exactly
+        public long seed = new Random().nextLong();
+        // Worker threads for the replications (1 = sequential, same results either way)
+        public int parallelism = 1;
+        // Generate jobs lazily and simulate them in constant memory (workloads are not archived)
+        public boolean streaming = false;
+        // Binary workload archive to save every replication to (e.g. WorkloadArchive.DEFAULT_FILE), null: none
+        public String workloadArchive = null;
+        // Long format CSV results, null: none
+        public String resultsFile = OUTPUT_FILE;
+        // Columnar binary results (see ColumnarResultSink), e.g. COLUMNAR_OUTPUT_FILE; null: none
+        public String columnarResultsFile = null;
+        // Sequential mode when > 0: after the first `replications`, keep adding replications until every
+        // metric's 95% CI half-width is within this fraction of its mean, or maxReplications ran
+        public double targetRelativePrecision = 0;
+        public int maxReplications = 1000;
+        // Antithetic pairs (generated workloads only): the second replication of a pair replays the
+        // first one's draws mirrored (JobGenerator.setAntithetic), the CIs are over pair means;
+        // replications (and maxReplications in sequential mode) must be even
+        public boolean antithetic = false;
+        // Control variates (generated workloads only): every metric is adjusted by its regression on
+        // the workload's mean burst and inter-arrival time, whose expectations are known
+        public boolean controlVariates = false;
+        // Aging of Priority-P-Aging: priority number drops by agingStep per agingInterval spent ready
+        public int agingInterval = 20;
+        public int agingStep = 1;
+        // MLFQ: quantum per level, top level first (null: timeQuantum, doubling over 3 levels), and
+        // time between priority boosts (0: none)
+        public int[] mlfqQuanta = null;
+        public int mlfqBoostInterval = 100;
+        // CFS: period every runnable job should run in, and shortest slice
+        public int cfsTargetLatency = 24;
+        public int cfsMinGranularity = 3;
+        // Cores of the simulated host; above 1 FCFS, Priority-NP, SJF-NP and RoundRobin run on a
+        // MultiCoreScheduler with this queue mode (not combinable with streaming)
+        public int cores = 1;
+        public MultiCoreScheduler.QueueMode queueMode = MultiCoreScheduler.QueueMode.WORK_STEALING;
+        // Result cache store file (e.g. ResultCache.DEFAULT_FILE): results of earlier runs with the same
+        // workload, algorithm and algorithm parameters are reused instead of simulated; null: none
+        public String resultCache = null;
+        // Time series of replication 0 (ready queue length, CPU state and context switch overhead every
+        // timeSeriesInterval, see TimeSeriesRecorder), e.g. TimeSeriesRecorder.DEFAULT_FILE; null: none.
+        // Single core, in-memory runs of Priority-NP, SJF-NP, SJF-P and RoundRobin only
+        public String timeSeriesFile = null;
+        public int timeSeriesInterval = 10;
+        // Print the statistical analysis at the end of runComparativeStudy
+        public boolean printReport = true;
 
         public Parameters(int numJobs, double meanInterArrival, double meanBurst, double stdDevBurst,
                 int maxPriority, int timeQuantum, int contextSwitchTime, int replications) {
@@ -31,141 +87,752 @@ public class ExperimentManager {
             this.contextSwitchTime = contextSwitchTime;
             this.replications = replications;
         }
+
+        /** A copy of other, to change some fields of */
+        public Parameters(Parameters other) {
+            this(other.numJobs, other.meanInterArrival, other.meanBurst, other.stdDevBurst, other.maxPriority,
+                    other.timeQuantum, other.contextSwitchTime, other.replications);
+            this.seed = other.seed;
+            this.parallelism = other.parallelism;
+            this.streaming = other.streaming;
+            this.workloadArchive = other.workloadArchive;
+            this.resultsFile = other.resultsFile;
+            this.columnarResultsFile = other.columnarResultsFile;
+            this.targetRelativePrecision = other.targetRelativePrecision;
+            this.maxReplications = other.maxReplications;
+            this.antithetic = other.antithetic;
+            this.controlVariates = other.controlVariates;
+            this.agingInterval = other.agingInterval;
+            this.agingStep = other.agingStep;
+            this.mlfqQuanta = other.mlfqQuanta == null ? null : other.mlfqQuanta.clone();
+            this.mlfqBoostInterval = other.mlfqBoostInterval;
+            this.cfsTargetLatency = other.cfsTargetLatency;
+            this.cfsMinGranularity = other.cfsMinGranularity;
+            this.cores = other.cores;
+            this.queueMode = other.queueMode;
+            this.resultCache = other.resultCache;
+            this.timeSeriesFile = other.timeSeriesFile;
+            this.timeSeriesInterval = other.timeSeriesInterval;
+            this.printReport = other.printReport;
+        }
     }
-    // --- Data Storage for Python Export ---
-    private Map<String, List<Double>> waitingTimes = new HashMap<>();
-    private Map<String, List<Double>> turnaroundTimes = new HashMap<>();
-    private Map<String, List<Double>> cpuUtilization = new HashMap<>();
-    private Map<String, List<Double>> throughputs = new HashMap<>();
-    private List<String> algorithmNames = List.of("FCFS", "Priority-NP", "SJF-NP", "RoundRobin");
+    // --- Metrics: name in the result files, label in the report ---
+    private static final String[] METRICS = { "AvgWaitingTime", "AvgTurnaroundTime", "CPUUtilization", "Throughput",
+            "P99WaitingTime", "ContextSwitches", "LoadImbalance" };
+    private static final String[] METRIC_LABELS = { "Average Waiting Time (ms)", "Average Turnaround Time (ms)",
+            "CPU Utilization (%)", "Throughput (jobs/sec)", "99th Percentile Waiting Time (ms)",
+            "Context Switches (per run)", "Load Imbalance (busiest core / mean - 1)" };
+    // Streaming runs take the tail metric from their waiting time histogram (within its precision) and
+    // do not count switches; load imbalance only means something on several cores
+    private static final int STREAMING_METRICS = 5;
+    private static final int SINGLE_CORE_METRICS = 6;
+    private static final double CONFIDENCE = 0.95;
+
+    // --- Running statistics: one accumulator per algorithm and metric ---
+    private Map<String, OnlineStatistics[]> statistics = new LinkedHashMap<>();
+    private int completedReplications = 0;
+    // The algorithms to compare: the discovered ones unless set; streaming and multi-core
+    // studies run those with a queue policy (StreamingScheduler and MultiCoreScheduler implement them)
+    private List<SchedulingPolicy> policies = SchedulingPolicies.discover();
+    // Policies of the current study, and their names in result order
+    private List<SchedulingPolicy> studyPolicies = policies;
+    private List<String> algorithmNames = List.of();
+    // Variance reduction: the controlled estimates by algorithm, one per metric, over the pair means
+    // with antithetic replications; the controls of every replication (mean burst and inter-arrival
+    // time minus their expectations); the metric values of the first half of the pair in progress
+    private Map<String, ControlVariateStatistics[]> reducedStatistics = new LinkedHashMap<>();
+    private double[] controlMeans;
+    private double[][] replicationControls;
+    private double[][] pendingValues;
+    private double[] pendingControls;
+    // Multi-core runs: per-core utilization and throughput statistics by algorithm
+    private Map<String, OnlineStatistics[]> coreUtilization = new LinkedHashMap<>();
+    private Map<String, OnlineStatistics[]> coreThroughput = new LinkedHashMap<>();
+    // Latency distributions pooled over the replications, by algorithm: one per LATENCIES entry
+    private static final String[] LATENCIES = { "WaitingTime", "TurnAroundTime", "ResponseTime" };
+    private static final String[] LATENCY_LABELS = { "Waiting Time (ms)", "Turnaround Time (ms)", "Response Time (ms)" };
+    private Map<String, LatencyHistogram[]> latencies = new LinkedHashMap<>();
+    private int metricCount = METRICS.length;
+    // Replays workloads (e.g. a WorkloadArchive.Reader) instead of generating them; null: generate
+    private WorkloadSource workloadSource;
+    // Receives the result rows besides the result files (not closed here); null: none
+    private ResultSink resultSink;
+    // Results computed before; set from outside (not closed here) or opened from parameters.resultCache
+    private ResultCache resultCache;
+    private boolean ownResultCache = false;
+    private final AtomicInteger cachedResults = new AtomicInteger();
+    // Records replication 0 while parameters.timeSeriesFile is set
+    private TimeSeriesRecorder timeSeries;
 
     // CSV Output File
     private static final String OUTPUT_FILE = "simulation_results.csv";
+    public static final String COLUMNAR_OUTPUT_FILE = "simulation_results.smr";
     
 
     public ExperimentManager(Parameters parameters) {
         this.parameters = parameters;
     }
 
+    /**
+     * Compares these policies instead of the discovered ones (SchedulingPolicies.discover()).
+     */
+    public void setPolicies(List<SchedulingPolicy> policies) {
+        this.policies = List.copyOf(policies);
+    }
+
+    public void setWorkloadSource(WorkloadSource workloadSource) {
+        this.workloadSource = workloadSource;
+    }
+
+    public void setResultSink(ResultSink resultSink) {
+        this.resultSink = resultSink;
+    }
+
+    /**
+     * Shares a result cache, e.g. between the studies of a sweep; overrides parameters.resultCache.
+     */
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+        this.ownResultCache = false;
+    }
+
+    /**
+     * Seeds of the replication streams: replication i of every study with the same root seed
+     * draws from seeds[i], whatever else the parameters say.
+     */
+    static long[] replicationSeeds(long rootSeed, int count) {
+        long[] seeds = new long[count];
+        SplittableRandom root = new SplittableRandom(rootSeed);
+        for (int i = 0; i < seeds.length; i++)
+            seeds[i] = root.nextLong();
+        return seeds;
+    }
+
     public void runComparativeStudy() {
+        statistics.clear();
+        coreUtilization.clear();
+        coreThroughput.clear();
+        latencies.clear();
+        reducedStatistics.clear();
+        completedReplications = 0;
+        boolean streaming = parameters.streaming && workloadSource == null;
+        boolean multiCore = parameters.cores > 1;
+        boolean reduced = parameters.antithetic || parameters.controlVariates;
+        if (streaming && multiCore)
+            throw new IllegalArgumentException("Streaming runs simulate a single core");
+        if (reduced && workloadSource != null)
+            throw new IllegalArgumentException("Variance reduction needs generated workloads");
+        if (parameters.antithetic && (parameters.replications % 2 != 0
+                || parameters.targetRelativePrecision > 0 && parameters.maxReplications % 2 != 0))
+            throw new IllegalArgumentException("Antithetic replications come in pairs, replications and"
+                    + " maxReplications must be even (" + parameters.replications + ", " + parameters.maxReplications + ")");
+        studyPolicies = new ArrayList<>();
+        for (SchedulingPolicy policy : policies)
+            if (!(streaming || multiCore) || policy.getQueuePolicy() != null)
+                studyPolicies.add(policy);
+        algorithmNames = new ArrayList<>();
+        for (SchedulingPolicy policy : studyPolicies)
+            algorithmNames.add(policy.getName());
+        algorithmNames = List.copyOf(algorithmNames);
+        if (multiCore)
+            metricCount = METRICS.length;
+        else
+            metricCount = streaming ? STREAMING_METRICS : SINGLE_CORE_METRICS;
         for (String alg : algorithmNames) {
-            waitingTimes.put(alg, new ArrayList<>());
-            turnaroundTimes.put(alg, new ArrayList<>());
-            cpuUtilization.put(alg, new ArrayList<>());
-            throughputs.put(alg, new ArrayList<>());
+            statistics.put(alg, newStatistics(metricCount));
+            latencies.put(alg, new LatencyHistogram[] { new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram() });
+            if (multiCore) {
+                coreUtilization.put(alg, newStatistics(parameters.cores));
+                coreThroughput.put(alg, newStatistics(parameters.cores));
+            }
+            if (reduced) {
+                ControlVariateStatistics[] metrics = new ControlVariateStatistics[metricCount];
+                for (int m = 0; m < metricCount; m++)
+                    metrics[m] = new ControlVariateStatistics(parameters.controlVariates ? 2 : 0);
+                reducedStatistics.put(alg, metrics);
+            }
         }
+        boolean sequential = parameters.targetRelativePrecision > 0;
+        int limit = sequential ? Math.max(parameters.replications, parameters.maxReplications) : parameters.replications;
+        controlMeans = new double[] { JobGenerator.expectedBurstTime(parameters.meanBurst, parameters.stdDevBurst),
+                JobGenerator.expectedInterArrivalTime(parameters.meanInterArrival) };
+        replicationControls = parameters.controlVariates ? new double[limit][] : null;
+
+        // 1. SEED ONE INDEPENDENT STREAM PER REPLICATION (PER PAIR WITH ANTITHETIC REPLICATIONS)
+        // Drawn up front from the root seed, so replication i sees the same stream on any thread
+        long[] seeds = replicationSeeds(parameters.seed, parameters.antithetic ? limit / 2 : limit);
 
-        for (int i = 0; i < parameters.replications; i++) {
-            // 1. GENERATE STOCHASTIC WORKLOAD (New random inputs for each replication)
-            JobGenerator generator = new JobGenerator();
-            List<PCB> workload = generator.generateWorkload(
-                parameters.numJobs, parameters.meanInterArrival, parameters.meanBurst, parameters.stdDevBurst, parameters.maxPriority,
-            i);
-            
-            // 2. RUN ALL ALGORITHMS
-            runSingleReplication(workload);
+        // 2. RUN ALL ALGORITHMS ON EACH STOCHASTIC WORKLOAD
+        // Replications are committed in replication order as soon as they finish, so statistics,
+        // result rows and the sequential stopping decision come out exactly as in a sequential run
+        Map<String, ResultSink> sinks = openResultSinks();
+        if (resultSink != null)
+            sinks.put("", resultSink); // not a file: taken out again before the files are closed
+        WorkloadArchive.Writer archive = openArchive();
+        openResultCache();
+        openTimeSeries(streaming || multiCore);
+        cachedResults.set(0);
+        try {
+            if (parameters.parallelism > 1) {
+                ForkJoinPool pool = new ForkJoinPool(parameters.parallelism);
+                ArrayDeque<Future<Scheduler.SimulationResult[]>> inFlight = new ArrayDeque<>();
+                int submitted = 0;
+                try {
+                    while (completedReplications < limit && !stoppingRuleMet(sequential)) {
+                        // Keep a bounded window of replications ahead of the commit point
+                        while (submitted < limit && submitted - completedReplications < 2 * parameters.parallelism) {
+                            int replicationID = submitted++;
+                            inFlight.add(pool.submit(() -> runSingleReplication(seed(seeds, replicationID), replicationID, archive)));
+                        }
+                        commitReplication(completedReplications, inFlight.poll().get(), sinks);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Replications interrupted", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Replication failed", e.getCause());
+                } finally {
+                    pool.shutdownNow();
+                }
+            } else {
+                while (completedReplications < limit && !stoppingRuleMet(sequential))
+                    commitReplication(completedReplications,
+                            runSingleReplication(seed(seeds, completedReplications), completedReplications, archive), sinks);
+            }
+        } finally {
+            sinks.values().remove(resultSink);
+            closeTimeSeries();
+            closeResultCache();
+            closeArchive(archive);
+            closeResultSinks(sinks);
         }
 
         // 3. STATISTICAL ANALYSIS & REPORTING
+        if (!parameters.printReport)
+            return;
         System.out.println();
         System.out.println();
-        System.out.println("=== Statistical Analysis (Based on " + parameters.replications + " Replications) ===");
-        analyzeAndReportResults("Average Waiting Time (ms)", waitingTimes);
-        analyzeAndReportResults("Average Turnaround Time (ms)", turnaroundTimes);
-        analyzeAndReportResults("CPU Utilization (%)", cpuUtilization);
-        analyzeAndReportResults("Throughput (jobs/sec)", throughputs);
+        System.out.println("=== Statistical Analysis (Based on " + completedReplications + " Replications, seed "
+                + parameters.seed + ") ===");
+        if (reduced)
+            System.out.println("Variance reduction: " + (parameters.antithetic ? "antithetic pairs" : "")
+                    + (parameters.antithetic && parameters.controlVariates ? " + " : "")
+                    + (parameters.controlVariates ? "control variates (mean burst, mean inter-arrival time)" : "")
+                    + "; factor = replications needed for the same CI width without / with it");
+        if (sequential)
+            System.out.println("Sequential mode: target relative 95% CI half-width " + parameters.targetRelativePrecision
+                    + (stoppingRuleMet(true) ? " reached" : " NOT reached within " + limit + " replications"));
+        if (multiCore)
+            System.out.println(parameters.cores + " cores, " + parameters.queueMode + " ready queues");
+        if (resultCache != null || parameters.resultCache != null)
+            System.out.println("Result cache: " + cachedResults.get() + " of " + completedReplications * algorithmNames.size()
+                    + " results reused");
+        for (int m = 0; m < metricCount; m++)
+            analyzeAndReportResults(METRIC_LABELS[m], m);
+        if (multiCore) {
+            reportPerCore("Per-core CPU Utilization (%)", coreUtilization, "%.1f");
+            reportPerCore("Per-core Throughput (jobs/ms)", coreThroughput, "%.4f");
+        }
+        System.out.println("\n=== Latency Percentiles (all jobs of all replications) ===");
+        for (int l = 0; l < LATENCIES.length; l++)
+            reportLatency(LATENCY_LABELS[l], l);
+    }
 
-        // 4. DATA EXPORT
-        exportToCSV();
+    private static OnlineStatistics[] newStatistics(int count) {
+        OnlineStatistics[] metrics = new OnlineStatistics[count];
+        for (int m = 0; m < count; m++)
+            metrics[m] = new OnlineStatistics();
+        return metrics;
     }
-    
-    private void runSingleReplication(List<PCB> originalWorkload) {
-        // --- FCFS ---
-        FirstComeFirstServed fcfs = new FirstComeFirstServed(deepCopy(originalWorkload), parameters.contextSwitchTime);
-        fcfs.schedule();
-        Scheduler.SimulationResult resFCFS = fcfs.CollectMetrics();
-        waitingTimes.get("FCFS").add(resFCFS.avgWaitingTime);
-        turnaroundTimes.get("FCFS").add(resFCFS.avgTurnAroundTime);
-        cpuUtilization.get("FCFS").add(resFCFS.cpuUtilization);
-        throughputs.get("FCFS").add(resFCFS.throughput);
-
-        // --- Priority (Non-Preemptive) ---
-        PriorityScheduling priority = new PriorityScheduling(deepCopy(originalWorkload), parameters.contextSwitchTime);
-        priority.non_preemptive_schedule();
-        Scheduler.SimulationResult resPri = priority.CollectMetrics();
-        waitingTimes.get("Priority-NP").add(resPri.avgWaitingTime);
-        turnaroundTimes.get("Priority-NP").add(resPri.avgTurnAroundTime);
-        cpuUtilization.get("Priority-NP").add(resPri.cpuUtilization);
-        throughputs.get("Priority-NP").add(resPri.throughput);
-
-        // --- SJF (Non-Preemptive) ---
-        ShortestJobFirst sjf = new ShortestJobFirst(deepCopy(originalWorkload), parameters.contextSwitchTime);
-        sjf.non_preemptive_schedule();
-        Scheduler.SimulationResult resSJF = sjf.CollectMetrics();
-        waitingTimes.get("SJF-NP").add(resSJF.avgWaitingTime);
-        turnaroundTimes.get("SJF-NP").add(resSJF.avgTurnAroundTime);
-        cpuUtilization.get("SJF-NP").add(resSJF.cpuUtilization);
-        throughputs.get("SJF-NP").add(resSJF.throughput);
-        
-        // --- Round Robin ---
-        RoundRobin rr = new RoundRobin(deepCopy(originalWorkload), parameters.timeQuantum, parameters.contextSwitchTime);
-        rr.schedule();
-        Scheduler.SimulationResult resRR = rr.CollectMetrics();
-        waitingTimes.get("RoundRobin").add(resRR.avgWaitingTime);
-        turnaroundTimes.get("RoundRobin").add(resRR.avgTurnAroundTime);
-        cpuUtilization.get("RoundRobin").add(resRR.cpuUtilization);
-        throughputs.get("RoundRobin").add(resRR.throughput);
+
+    public int getCompletedReplications() {
+        return completedReplications;
+    }
+
+    /** Names of the algorithms the last study ran, in result order */
+    public List<String> getAlgorithmNames() {
+        return algorithmNames;
+    }
+
+    /** Names of the metrics the last study collected, in result order */
+    public List<String> getMetricNames() {
+        return List.of(METRICS).subList(0, metricCount);
+    }
+
+    /**
+     * Statistics of one metric of one algorithm over the replications of the last study.
+     */
+    public OnlineStatistics getStatistics(String algorithm, String metric) {
+        OnlineStatistics[] metrics = statistics.get(algorithm);
+        int m = getMetricNames().indexOf(metric);
+        if (metrics == null || m < 0)
+            throw new IllegalArgumentException("No results for " + algorithm + " / " + metric);
+        return metrics[m];
+    }
+
+    /**
+     * Distribution of one per job latency ("WaitingTime", "TurnAroundTime" or "ResponseTime")
+     * of one algorithm, pooled over the replications of the last study.
+     */
+    public LatencyHistogram getLatencyHistogram(String algorithm, String latency) {
+        LatencyHistogram[] histograms = latencies.get(algorithm);
+        int l = List.of(LATENCIES).indexOf(latency);
+        if (histograms == null || l < 0)
+            throw new IllegalArgumentException("No latencies for " + algorithm + " / " + latency);
+        return histograms[l];
+    }
+
+    /**
+     * Variance reduced statistics of one metric of one algorithm over the last study (with
+     * parameters.antithetic or parameters.controlVariates): one observation per antithetic
+     * pair or per replication.
+     */
+    public ControlVariateStatistics getReducedStatistics(String algorithm, String metric) {
+        ControlVariateStatistics[] metrics = reducedStatistics.get(algorithm);
+        int m = getMetricNames().indexOf(metric);
+        if (metrics == null || m < 0)
+            throw new IllegalArgumentException("No variance reduced results for " + algorithm + " / " + metric);
+        return metrics[m];
+    }
+
+    /**
+     * Effective variance reduction of one metric of one algorithm: variance of the mean of the
+     * replications taken as independent over the variance of the reduced estimate, from the
+     * same replications. Independent replications need this many times as many runs for the
+     * same CI width.
+     */
+    public double getVarianceReduction(String algorithm, String metric) {
+        OnlineStatistics independent = getStatistics(algorithm, metric);
+        double reducedVariance = getReducedStatistics(algorithm, metric).getEstimatorVariance();
+        if (reducedVariance == 0D)
+            return independent.getVariance() == 0D ? 1D : Double.POSITIVE_INFINITY;
+        return independent.getVariance() / independent.getCount() / reducedVariance;
+    }
+
+    // Sequential mode: stop once the initial replications ran (whole pairs with antithetic ones) and
+    // every CI is narrow enough, the variance reduced ones when there are any
+    private boolean stoppingRuleMet(boolean sequential) {
+        if (!sequential || completedReplications < Math.max(2, parameters.replications))
+            return false;
+        if (!reducedStatistics.isEmpty()) {
+            if (parameters.antithetic && completedReplications % 2 != 0)
+                return false;
+            for (ControlVariateStatistics[] metrics : reducedStatistics.values())
+                for (ControlVariateStatistics metric : metrics)
+                    if (metric.getRelativeHalfWidth(CONFIDENCE) > parameters.targetRelativePrecision)
+                        return false;
+            return true;
+        }
+        for (OnlineStatistics[] metrics : statistics.values())
+            for (OnlineStatistics metric : metrics)
+                if (metric.getRelativeHalfWidth(CONFIDENCE) > parameters.targetRelativePrecision)
+                    return false;
+        return true;
+    }
+
+    /**
+     * Folds the results of one finished replication into the statistics and streams its rows
+     * to the result files.
+     */
+    private void commitReplication(int replicationID, Scheduler.SimulationResult[] results, Map<String, ResultSink> sinks) {
+        for (int a = 0; a < algorithmNames.size(); a++) {
+            OnlineStatistics[] metrics = statistics.get(algorithmNames.get(a));
+            for (int m = 0; m < metricCount; m++)
+                metrics[m].add(metricValue(results[a], m));
+            LatencyHistogram[] histograms = latencies.get(algorithmNames.get(a));
+            if (results[a].waitingTimeHistogram != null) {
+                histograms[0].merge(results[a].waitingTimeHistogram);
+                histograms[1].merge(results[a].turnAroundTimeHistogram);
+                histograms[2].merge(results[a].responseTimeHistogram);
+            }
+            if (results[a].coreUtilization != null) {
+                OnlineStatistics[] utilization = coreUtilization.get(algorithmNames.get(a));
+                OnlineStatistics[] throughput = coreThroughput.get(algorithmNames.get(a));
+                for (int core = 0; core < utilization.length; core++) {
+                    utilization[core].add(results[a].coreUtilization[core]);
+                    throughput[core].add(results[a].coreThroughput[core]);
+                }
+            }
+        }
+        if (!reducedStatistics.isEmpty())
+            foldReduced(replicationID, results);
+        completedReplications++;
+
+        for (var it = sinks.entrySet().iterator(); it.hasNext();) {
+            ResultSink sink = it.next().getValue();
+            try {
+                for (int a = 0; a < algorithmNames.size(); a++)
+                    for (int m = 0; m < metricCount; m++)
+                        sink.accept(replicationID, algorithmNames.get(a), METRICS[m], metricValue(results[a], m));
+                sink.endReplication(replicationID);
+            } catch (IOException e) {
+                System.err.println("Error writing results: " + e.getMessage());
+                it.remove();
+            }
+        }
+    }
+
+    // Adds a replication to the variance reduced statistics; an antithetic pair goes in as the mean
+    // of its two replications once the second one is in
+    private void foldReduced(int replicationID, Scheduler.SimulationResult[] results) {
+        double[] controls = replicationControls != null ? replicationControls[replicationID] : new double[0];
+        if (replicationControls != null)
+            replicationControls[replicationID] = null;
+        if (parameters.antithetic && replicationID % 2 == 0) {
+            pendingValues = new double[algorithmNames.size()][metricCount];
+            for (int a = 0; a < algorithmNames.size(); a++)
+                for (int m = 0; m < metricCount; m++)
+                    pendingValues[a][m] = metricValue(results[a], m);
+            pendingControls = controls;
+            return;
+        }
+        if (parameters.antithetic) {
+            double[] pairControls = new double[controls.length];
+            for (int c = 0; c < controls.length; c++)
+                pairControls[c] = (pendingControls[c] + controls[c]) / 2;
+            controls = pairControls;
+        }
+        for (int a = 0; a < algorithmNames.size(); a++) {
+            ControlVariateStatistics[] metrics = reducedStatistics.get(algorithmNames.get(a));
+            for (int m = 0; m < metricCount; m++) {
+                double value = metricValue(results[a], m);
+                metrics[m].add(parameters.antithetic ? (pendingValues[a][m] + value) / 2 : value, controls);
+            }
+        }
+        pendingValues = null;
+    }
+
+    private static double metricValue(Scheduler.SimulationResult result, int metric) {
+        switch (metric) {
+            case 0: return result.avgWaitingTime;
+            case 1: return result.avgTurnAroundTime;
+            case 2: return result.cpuUtilization;
+            case 3: return result.throughput;
+            case 4: return result.p99WaitingTime;
+            case 5: return result.contextSwitches;
+            default: return result.loadImbalance;
+        }
+    }
+
+    /**
+     * Generates the workload of one replication and runs every algorithm on it. With a result
+     * cache, algorithms with a cached result are not simulated, and the workload is only
+     * generated when one of them is missing (or the workload is archived). The workload is
+     * sorted by arrival once and shared read-only: with parallelism, the algorithms run
+     * concurrently on it (in the replication's pool), except in the recorded replication.
+     * @return one result per entry of algorithmNames, in the same order
+     */
+    private Scheduler.SimulationResult[] runSingleReplication(long seed, int replicationID, WorkloadArchive.Writer archive) {
+        boolean streaming = parameters.streaming && workloadSource == null;
+        Workload workload = null;
+        String workloadKey = null;
+        if (workloadSource != null) {
+            workload = workloadSource.getWorkload(replicationID);
+            if (resultCache != null)
+                workloadKey = ResultCache.workloadKey(workload);
+        } else {
+            workloadKey = String.format("generated:%d,%d,%s,%s,%s,%d,%d", seed, parameters.numJobs,
+                    parameters.meanInterArrival, parameters.meanBurst, parameters.stdDevBurst, parameters.maxPriority,
+                    replicationID) + (isAntithetic(replicationID) ? ",antithetic" : "");
+            if (archive != null && !streaming)
+                workload = generate(seed, replicationID, archive);
+        }
+
+        Scheduler.SimulationResult[] results = new Scheduler.SimulationResult[studyPolicies.size()];
+        String[] keys = new String[results.length];
+        TimeSeriesRecorder[] recorders = new TimeSeriesRecorder[results.length];
+        List<Integer> missing = new ArrayList<>();
+        for (int a = 0; a < results.length; a++) {
+            SchedulingPolicy policy = studyPolicies.get(a);
+            keys[a] = resultCache != null ? ResultCache.key(workloadKey, policy.getName(), policyKey(policy, streaming)) : null;
+            // A recorded run is simulated even when cached, its time series is not
+            if (replicationID == 0 && timeSeries != null && policy.supportsTimeSeries())
+                recorders[a] = timeSeries;
+            results[a] = recorders[a] == null ? cachedResult(keys[a]) : null;
+            if (results[a] == null)
+                missing.add(a);
+        }
+        if (!missing.isEmpty() && !streaming) {
+            if (workload == null)
+                workload = generate(seed, replicationID, null);
+            workload.arrivalOrder(); // cached before the policies share the workload
+        }
+        if (replicationControls != null)
+            replicationControls[replicationID] = controls(seed, replicationID, workload);
+        if (missing.isEmpty())
+            return results;
+
+        Workload shared = workload;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int a : missing) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                SchedulingPolicy policy = studyPolicies.get(a);
+                results[a] = streaming ? runStreaming(policy, seed, replicationID) : simulate(policy, shared, recorders[a]);
+                cacheResult(keys[a], results[a]);
+            }));
+        }
+        // One recorder takes one series at a time
+        if (parameters.parallelism > 1 && tasks.size() > 1 && (replicationID != 0 || timeSeries == null)) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            for (ForkJoinTask<?> task : tasks)
+                task.invoke();
+        }
+        return results;
+    }
+
+    // Seed of a replication: its own, or its pair's with antithetic replications
+    private long seed(long[] seeds, int replicationID) {
+        return seeds[parameters.antithetic ? replicationID / 2 : replicationID];
+    }
+
+    // The second replication of an antithetic pair
+    private boolean isAntithetic(int replicationID) {
+        return parameters.antithetic && replicationID % 2 == 1;
+    }
+
+    private JobGenerator generator(long seed, int replicationID) {
+        JobGenerator generator = new JobGenerator(seed);
+        generator.setAntithetic(isAntithetic(replicationID));
+        return generator;
+    }
+
+    private Workload generate(long seed, int replicationID, WorkloadArchive.Writer archive) {
+        JobGenerator generator = generator(seed, replicationID);
+        generator.setArchive(archive);
+        return generator.generate(
+            parameters.numJobs, parameters.meanInterArrival, parameters.meanBurst, parameters.stdDevBurst, parameters.maxPriority,
+            replicationID);
+    }
+
+    /**
+     * Runs one algorithm on a workload. The workload is read-only for the schedulers, so they
+     * all share it without copying.
+     * @param timeSeries records the run, null: not recorded
+     */
+    private Scheduler.SimulationResult simulate(SchedulingPolicy policy, Workload workload, TimeSeriesRecorder timeSeries) {
+        if (parameters.cores > 1) {
+            MultiCoreScheduler smp = new MultiCoreScheduler(workload, parameters.cores, parameters.queueMode,
+                    policy.getQueuePolicy(), parameters.timeQuantum, parameters.contextSwitchTime);
+            smp.setTraceMode(Scheduler.TraceMode.NONE);
+            smp.schedule();
+            return smp.CollectMetrics();
+        }
+        return policy.simulate(workload, parameters, timeSeries);
+    }
+
+    /**
+     * Streaming variant of simulate: the algorithm regenerates the replication's jobs from its
+     * seed, so no workload is ever materialized.
+     */
+    private Scheduler.SimulationResult runStreaming(SchedulingPolicy policy, long seed, int replicationID) {
+        ArrivalStream arrivals = generator(seed, replicationID).stream(parameters.numJobs, parameters.meanInterArrival,
+                parameters.meanBurst, parameters.stdDevBurst, parameters.maxPriority);
+        return new StreamingScheduler(policy.getQueuePolicy(), parameters.timeQuantum, parameters.contextSwitchTime)
+                .run(arrivals);
+    }
+
+    /**
+     * Control variates of a replication: its mean burst time and mean inter-arrival time (last
+     * arrival / number of jobs) minus their expectations. Without the workload in memory
+     * (streaming, or every result cached), the jobs are regenerated one at a time.
+     */
+    private double[] controls(long seed, int replicationID, Workload workload) {
+        int n = parameters.numJobs;
+        long totalBurst = 0, lastArrival = 0;
+        if (workload != null) {
+            totalBurst = workload.getTotalBurstTime();
+            if (n > 0)
+                lastArrival = workload.getArrivalTime(n - 1); // generated in arrival order
+        } else {
+            ArrivalStream jobs = generator(seed, replicationID).stream(n, parameters.meanInterArrival,
+                    parameters.meanBurst, parameters.stdDevBurst, parameters.maxPriority);
+            while (jobs.advance()) {
+                totalBurst += jobs.getBurstTime();
+                lastArrival = jobs.getArrivalTime();
+            }
+        }
+        if (n == 0)
+            return new double[2];
+        return new double[] { (double) totalBurst / n - controlMeans[0], (double) lastArrival / n - controlMeans[1] };
+    }
+
+    // Everything besides the workload that the algorithm's result depends on
+    private String policyKey(SchedulingPolicy policy, boolean streaming) {
+        StringBuilder key = new StringBuilder("cs=").append(parameters.contextSwitchTime);
+        if (streaming)
+            key.append(",streaming");
+        if (parameters.cores > 1)
+            key.append(",cores=").append(parameters.cores).append(",queues=").append(parameters.queueMode);
+        String parameterKey = policy.parameterKey(parameters);
+        if (!parameterKey.isEmpty())
+            key.append(',').append(parameterKey);
+        return key.toString();
+    }
+
+    // A cache that cannot be read or written only costs the simulations
+    private Scheduler.SimulationResult cachedResult(String key) {
+        if (key == null)
+            return null;
+        try {
+            Scheduler.SimulationResult result = resultCache.get(key);
+            if (result != null)
+                cachedResults.incrementAndGet();
+            return result;
+        } catch (IOException e) {
+            System.err.println("Error reading result cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void cacheResult(String key, Scheduler.SimulationResult result) {
+        if (key == null)
+            return;
+        try {
+            resultCache.put(key, result);
+        } catch (IOException e) {
+            System.err.println("Error writing result cache: " + e.getMessage());
+        }
+    }
+
+    private void openResultCache() {
+        if (parameters.resultCache == null || (resultCache != null && !ownResultCache))
+            return;
+        try {
+            resultCache = new ResultCache(Paths.get(parameters.resultCache));
+            ownResultCache = true;
+        } catch (IOException e) {
+            System.err.println("Error opening result cache: " + e.getMessage());
+        }
+    }
+
+    private void closeResultCache() {
+        if (!ownResultCache)
+            return;
+        try {
+            resultCache.close();
+        } catch (IOException e) {
+            System.err.println("Error closing result cache: " + e.getMessage());
+        }
+        resultCache = null;
+        ownResultCache = false;
+    }
+
+    private void openTimeSeries(boolean unsupported) {
+        timeSeries = null;
+        if (parameters.timeSeriesFile == null || unsupported)
+            return;
+        try {
+            timeSeries = new TimeSeriesRecorder(parameters.timeSeriesInterval, TimeSeriesRecorder.DEFAULT_CAPACITY,
+                    Paths.get(parameters.timeSeriesFile));
+        } catch (UncheckedIOException e) {
+            System.err.println("Error opening time series file: " + e.getCause().getMessage());
+        }
+    }
+
+    private void closeTimeSeries() {
+        if (timeSeries == null)
+            return;
+        try {
+            timeSeries.close();
+            System.out.println("\nTime series of replication 0 written to " + parameters.timeSeriesFile + ".");
+        } catch (IOException e) {
+            System.err.println("Error closing time series file: " + e.getMessage());
+        }
+        timeSeries = null;
+    }
+
+    // The archive is only written for generated, in-memory workloads
+    private WorkloadArchive.Writer openArchive() {
+        if (parameters.workloadArchive == null || parameters.streaming || workloadSource != null)
+            return null;
+        try {
+            return new WorkloadArchive.Writer(Paths.get(parameters.workloadArchive));
+        } catch (IOException e) {
+            System.err.println("Error opening workload archive: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void closeArchive(WorkloadArchive.Writer archive) {
+        if (archive == null)
+            return;
+        try {
+            archive.close();
+            System.out.println("\nWorkloads archived to " + parameters.workloadArchive + ".");
+        } catch (IOException e) {
+            System.err.println("Error closing workload archive: " + e.getMessage());
+        }
     }
 
     // --- STATISTICAL METHODS ---
-    private void analyzeAndReportResults(String metricName, Map<String, List<Double>> results) {
+    private void analyzeAndReportResults(String metricName, int metric) {
         System.out.println("\n--- Metric: " + metricName + " ---");
-        for (Map.Entry<String, List<Double>> entry : results.entrySet()) {
+        for (Map.Entry<String, OnlineStatistics[]> entry : statistics.entrySet()) {
             String alg = entry.getKey();
-            List<Double> values = entry.getValue();
-            
-            double mean = values.stream().mapToDouble(val -> val).average().orElse(0.0);
-            double sumOfSquares = 0.0;
-            for (double num : values) sumOfSquares += Math.pow(num - mean, 2);
-            double stdDev = Math.sqrt(sumOfSquares / (values.size() - 1)); // Sample StdDev
-
-            // 95% Confidence Interval (t-distribution critical value for N=30 is approx 2.045)
-            // For large N, we use Z=1.96, but t is more accurate for N=30.
-            double tValue = 2.045; // Critical value for 29 degrees of freedom
-            double marginOfError = tValue * (stdDev / Math.sqrt(values.size()));
+            OnlineStatistics values = entry.getValue()[metric];
+
+            // 95% Confidence Interval, t-distribution critical value for N - 1 degrees of freedom
+            double mean = values.getMean();
+            double marginOfError = values.getHalfWidth(CONFIDENCE);
 
+            ControlVariateStatistics[] reduced = reducedStatistics.get(alg);
+            if (reduced != null) {
+                System.out.println("  " + alg + ": " + String.format("%.2f", reduced[metric].getMean()) + " ± "
+                        + String.format("%.2f", reduced[metric].getHalfWidth(CONFIDENCE)) + " (95% CI; independent: "
+                        + String.format("%.2f", mean) + " ± " + String.format("%.2f", marginOfError) + ", variance reduction x"
+                        + String.format("%.2f", getVarianceReduction(alg, METRICS[metric])) + ")");
+                continue;
+            }
             System.out.println("  " + alg + ": " + String.format("%.2f", mean) + " ± " + String.format("%.2f", marginOfError) + " (95% CI)");
         }
     }
 
-    // --- DATA EXPORT METHOD (The Python Bridge) ---
-    private void exportToCSV() {
-        try (FileWriter writer = new FileWriter(OUTPUT_FILE)) {
-            // Write Header
-            writer.write("Replication,Algorithm,Metric,Value\n");
+    // Tail of the pooled distribution: p50 / p90 / p99 / p99.9 / max
+    private void reportLatency(String latencyName, int latency) {
+        System.out.println("\n--- Latency: " + latencyName + " ---");
+        for (Map.Entry<String, LatencyHistogram[]> entry : latencies.entrySet())
+            System.out.println("  " + entry.getKey() + ": " + entry.getValue()[latency].summary());
+    }
 
-            // Write Data
-            for (int i = 0; i < parameters.replications; i++) {
-                for (String alg : algorithmNames) {
-                    writer.write(String.format("%d,%s,%s,%.2f\n", i, alg, "AvgWaitingTime", waitingTimes.get(alg).get(i)));
-                    writer.write(String.format("%d,%s,%s,%.2f\n", i, alg, "AvgTurnaroundTime", turnaroundTimes.get(alg).get(i)));
-                    writer.write(String.format("%d,%s,%s,%.2f\n", i, alg, "CPUUtilization", cpuUtilization.get(alg).get(i)));
-                    writer.write(String.format("%d,%s,%s,%.2f\n", i, alg, "Throughput", throughputs.get(alg).get(i)));
-                }
+    // Mean per core over the replications, 8 cores per line
+    private void reportPerCore(String metricName, Map<String, OnlineStatistics[]> perCore, String format) {
+        System.out.println("\n--- Metric: " + metricName + " ---");
+        for (Map.Entry<String, OnlineStatistics[]> entry : perCore.entrySet()) {
+            OnlineStatistics[] cores = entry.getValue();
+            StringBuilder line = new StringBuilder("  " + entry.getKey() + ":");
+            for (int core = 0; core < cores.length; core++) {
+                if (core > 0 && core % 8 == 0)
+                    line.append("\n   ");
+                line.append(" ").append(core).append("=").append(String.format(format, cores[core].getMean()));
             }
-            System.out.println("\nData successfully exported to " + OUTPUT_FILE + " for Python analysis.");
+            System.out.println(line);
+        }
+    }
 
+    // --- DATA EXPORT METHODS (The Python Bridge) ---
+    // Result sinks by file name
+    private Map<String, ResultSink> openResultSinks() {
+        Map<String, ResultSink> sinks = new LinkedHashMap<>();
+        try {
+            if (parameters.resultsFile != null)
+                sinks.put(parameters.resultsFile, new CsvResultSink(Paths.get(parameters.resultsFile)));
+            if (parameters.columnarResultsFile != null)
+                sinks.put(parameters.columnarResultsFile, new ColumnarResultSink(Paths.get(parameters.columnarResultsFile)));
         } catch (IOException e) {
-            System.err.println("Error writing CSV file: " + e.getMessage());
+            System.err.println("Error opening results file: " + e.getMessage());
         }
+        return sinks;
     }
 
-    // Helper for deep copying
-    private static List<PCB> deepCopy(List<PCB> original) {
-        List<PCB> copy = new ArrayList<>();
-        for (PCB p : original) {
-            copy.add(p.clone());
+    private void closeResultSinks(Map<String, ResultSink> sinks) {
+        for (Map.Entry<String, ResultSink> entry : sinks.entrySet()) {
+            try {
+                entry.getValue().close();
+                System.out.println("\nData successfully exported to " + entry.getKey() + " for Python analysis.");
+            } catch (IOException e) {
+                System.err.println("Error writing " + entry.getKey() + ": " + e.getMessage());
+            }
         }
-        return copy;
     }
-}
\ No newline at end of file
+}
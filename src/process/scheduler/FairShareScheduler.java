@@ -0,0 +1,181 @@
+package process.scheduler;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Fair-share scheduling in the style of Linux CFS.
+ *
+ * Every job accumulates virtual runtime: the CPU time it got, scaled down by its weight.
+ * The ready job with the smallest virtual runtime runs next, for a slice of the scheduling
+ * period proportional to its share of the runnable weight. The period is targetLatency,
+ * stretched to (runnable jobs * minGranularity) once that many jobs cannot all get
+ * minGranularity within it. Weights come from the priority like nice values do: priority 1
+ * is nice 0 (weight 1024), every step down costs about 25% of the weight.
+ *
+ * A job arriving starts at the current minimum virtual runtime, so it neither starves the
+ * others nor is starved. The running job is checked at the end of every slice and goes back
+ * to the ready queue when another job is behind it in virtual runtime. Ready jobs sit in a
+ * JobHeap keyed by virtual runtime: O(log n) per slice, whatever the number of ready jobs.
+ * contextSwitchTime is paid whenever the CPU starts a job other than the one it ran last,
+ * as in RoundRobin.
+ */
+public class FairShareScheduler extends Scheduler {
+  // Weight of nice -20 .. 19 (Linux sched_prio_to_weight), nice 0 weighs 1024
+  private static final int[] NICE_TO_WEIGHT = {
+      88761, 71755, 56483, 46273, 36291,
+      29154, 23254, 18705, 14949, 11916,
+      9548, 7620, 6100, 4904, 3906,
+      3121, 2501, 1991, 1586, 1277,
+      1024, 820, 655, 526, 423,
+      335, 272, 215, 172, 137,
+      110, 87, 70, 56, 45,
+      36, 29, 23, 18, 15 };
+  // Virtual runtime per time unit of a job is VRUNTIME_SCALE / weight, fixed per job so that
+  // virtual runtime adds up exactly however a job's run is split into slices
+  private static final long VRUNTIME_SCALE = 1L << 32;
+
+  private final int targetLatency;
+  private final int minGranularity;
+
+  /**
+   * @param targetLatency  period in which every runnable job should run once
+   * @param minGranularity shortest slice a job gets
+   */
+  public FairShareScheduler(List<PCB> processes, int targetLatency, int minGranularity, int contextSwitchTime) {
+    super(processes, contextSwitchTime);
+    checkSlices(targetLatency, minGranularity);
+    this.targetLatency = targetLatency;
+    this.minGranularity = minGranularity;
+  }
+
+  public FairShareScheduler(Workload workload, int targetLatency, int minGranularity, int contextSwitchTime) {
+    super(workload, contextSwitchTime);
+    checkSlices(targetLatency, minGranularity);
+    this.targetLatency = targetLatency;
+    this.minGranularity = minGranularity;
+  }
+
+  private static void checkSlices(int targetLatency, int minGranularity) {
+    if (minGranularity < 1 || targetLatency < minGranularity)
+      throw new IllegalArgumentException("Need 1 <= minGranularity <= targetLatency, got " + minGranularity + " and "
+          + targetLatency);
+  }
+
+  /**
+   * Weight of a job of the given priority (lower numbers weigh more).
+   */
+  public static int weight(int priority) {
+    int nice = Math.max(-20, Math.min(19, priority - 1));
+    return NICE_TO_WEIGHT[nice + 20];
+  }
+
+  public int getTargetLatency() {
+    return targetLatency;
+  }
+
+  public int getMinGranularity() {
+    return minGranularity;
+  }
+
+  public LinkedList<String> schedule() {
+    clearMetrics();
+
+    var workload = getWorkload();
+    if (workload.size() == 0) {
+      getScheduleTable().addLast("---- Empty Process Block ----");
+      return getScheduleTable();
+    }
+
+    int[] arrivalOrder = workload.arrivalOrder();
+    int next = 0;
+    int[] remainingTime = new int[workload.size()];
+    int[] weight = new int[workload.size()];
+    long[] vruntimeRate = new long[workload.size()];
+    long[] vruntime = new long[workload.size()];
+    for (int job = 0; job < remainingTime.length; job++) {
+      remainingTime[job] = workload.getBurstTime(job);
+      weight[job] = weight(workload.getPriority(job));
+      vruntimeRate[job] = VRUNTIME_SCALE / weight[job];
+    }
+
+    // Smallest virtual runtime first, ties by arrival order
+    var readyQueue = new JobHeap((j1, j2) -> {
+      if (vruntime[j1] != vruntime[j2])
+        return Long.compare(vruntime[j1], vruntime[j2]);
+      if (workload.getArrivalTime(j1) != workload.getArrivalTime(j2))
+        return Integer.compare(workload.getArrivalTime(j1), workload.getArrivalTime(j2));
+      return Integer.compare(j1, j2);
+    }, 16);
+
+    long minVruntime = 0L;  // never decreases; where arriving jobs start
+    long runnableWeight = 0L; // ready jobs plus the running one
+    int timer = 0;
+    int runningJob = -1;
+    int previousJob = -1;
+    int runStart = 0;
+
+    while (true) {
+      if (runningJob == -1) {
+        while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer) {
+          int job = arrivalOrder[next++];
+          vruntime[job] = minVruntime;
+          runnableWeight += weight[job];
+          readyQueue.add(job);
+        }
+        if (readyQueue.isEmpty()) {
+          if (next == arrivalOrder.length)
+            break; // every job completed
+          // CPU idle until the next arrival
+          int arrival = workload.getArrivalTime(arrivalOrder[next]);
+          trace(timer, arrival, EventLog.IDLE);
+          timer = arrival;
+          continue;
+        }
+
+        runningJob = readyQueue.poll();
+        // Context Switching Time
+        if (runningJob != previousJob)
+          timer += switchContext();
+        previousJob = runningJob;
+        runStart = timer;
+        start(runningJob, timer);
+      }
+
+      // The running job's slice: its weighted share of the scheduling period
+      long runnable = readyQueue.size() + 1;
+      long period = Math.max(targetLatency, runnable * minGranularity);
+      long slice = Math.max(minGranularity, period * weight[runningJob] / runnableWeight);
+      int run = (int) Math.min(slice, remainingTime[runningJob]);
+
+      timer += run;
+      remainingTime[runningJob] -= run;
+      vruntime[runningJob] += run * vruntimeRate[runningJob];
+      long leftmost = readyQueue.isEmpty() ? vruntime[runningJob] : Math.min(vruntime[runningJob], vruntime[readyQueue.peek()]);
+      minVruntime = Math.max(minVruntime, leftmost);
+
+      while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer) {
+        int job = arrivalOrder[next++];
+        vruntime[job] = minVruntime;
+        runnableWeight += weight[job];
+        readyQueue.add(job);
+      }
+
+      if (remainingTime[runningJob] == 0) {
+        trace(runStart, timer, runningJob);
+        complete(runningJob, timer);
+        runnableWeight -= weight[runningJob];
+        runningJob = -1;
+      } else if (!readyQueue.isEmpty() && vruntime[readyQueue.peek()] < vruntime[runningJob]) {
+        // Slice over and someone is behind: back to the ready queue
+        trace(runStart, timer, runningJob);
+        readyQueue.add(runningJob);
+        runningJob = -1;
+      }
+    }
+
+    finishMetrics();
+
+    return traceResult();
+  }
+}
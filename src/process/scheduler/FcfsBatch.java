@@ -0,0 +1,217 @@
+package process.scheduler;
+
+import java.util.List;
+
+/**
+ * FCFS over many replications at once. A job's completion time is
+ * max(previous completion + contextSwitchTime, arrival) + burst, so one schedule is a scan
+ * over the jobs in arrival order; the batch keeps `lanes` workloads of the same size
+ * interleaved (job-major: job i of lane r at i * lanes + r) and runs the scans of all lanes
+ * side by side, one job at a time.
+ *
+ * The scan goes to a Kernel: the vector one (process.scheduler.vector.VectorFcfsKernel) when
+ * the jdk.incubator.vector module is present (--add-modules jdk.incubator.vector) and the
+ * class was compiled, the scalar loop below otherwise. Metrics are then taken per lane in one
+ * pass, with the p99 waiting time by selection instead of a sort. The SimulationResults are
+ * the ones FirstComeFirstServed.schedule() + CollectMetrics() give, value for value.
+ */
+public class FcfsBatch {
+  // Batch shape evaluate(List) aims for: columns of LANE_BUDGET ints stay in cache, and at
+  // least MIN_LANES lanes fill a vector unless that takes more than MAX_BATCH_INTS
+  private static final int LANE_BUDGET = 1 << 16;
+  private static final int MIN_LANES = 8;
+  private static final int MAX_LANES = 64;
+  private static final int MAX_BATCH_INTS = 1 << 24;
+  private static final Kernel VECTOR_KERNEL = loadVectorKernel();
+
+  /**
+   * Scan of the FCFS recurrence over interleaved lanes.
+   */
+  public interface Kernel {
+    /**
+     * Fills waitingTime (same layout as arrival and burst) and the completion time of the
+     * last job of every lane, for the lanes from 0 on that it handles.
+     * @return number of lanes handled; the caller scans the others
+     */
+    int scan(int[] arrival, int[] burst, int jobs, int lanes, int contextSwitchTime, int[] waitingTime,
+        int[] lastCompletion);
+  }
+
+  private final int lanes;
+  private final int jobs;
+  private final int[] arrival;
+  private final int[] burst;
+  private final int[] waitingTime;
+  private final int[] lastCompletion;
+  private final int[] free;
+  private final int[] laneWaitingTime;
+  private final int[] laneTurnAroundTime;
+  private final long[] totalBurst;
+  private final int[] minArrival;
+  private int loaded = 0;
+  private boolean vectorized = VECTOR_KERNEL != null;
+
+  public FcfsBatch(int lanes, int jobs) {
+    if (lanes < 1 || jobs < 0)
+      throw new IllegalArgumentException("Lanes must be positive and jobs non-negative");
+    this.lanes = lanes;
+    this.jobs = jobs;
+    this.arrival = new int[lanes * jobs];
+    this.burst = new int[lanes * jobs];
+    this.waitingTime = new int[lanes * jobs];
+    this.lastCompletion = new int[lanes];
+    this.free = new int[lanes];
+    this.laneWaitingTime = new int[jobs];
+    this.laneTurnAroundTime = new int[jobs];
+    this.totalBurst = new long[lanes];
+    this.minArrival = new int[lanes];
+  }
+
+  /** Whether the vector kernel is available in this JVM */
+  public static boolean isVectorAvailable() {
+    return VECTOR_KERNEL != null;
+  }
+
+  /**
+   * false: the scalar loop even when the vector kernel is available (for comparisons).
+   */
+  public void setVectorized(boolean vectorized) {
+    this.vectorized = vectorized && VECTOR_KERNEL != null;
+  }
+
+  public int getLanes() {
+    return lanes;
+  }
+
+  public int getJobs() {
+    return jobs;
+  }
+
+  /**
+   * Puts a workload of exactly `jobs` jobs into a lane, in arrival order.
+   */
+  public void load(int lane, Workload workload) {
+    if (workload.size() != jobs)
+      throw new IllegalArgumentException("Workload of " + workload.size() + " jobs in a batch of " + jobs);
+    int[] order = workload.arrivalOrder();
+    for (int i = 0, at = lane; i < jobs; i++, at += lanes) {
+      arrival[at] = workload.getArrivalTime(order[i]);
+      burst[at] = workload.getBurstTime(order[i]);
+    }
+    totalBurst[lane] = workload.getTotalBurstTime();
+    minArrival[lane] = workload.getMinArrivalTime();
+    loaded = Math.max(loaded, lane + 1);
+  }
+
+  /**
+   * Schedules lanes 0 .. the highest loaded one.
+   * @return one result per lane, in lane order
+   */
+  public Scheduler.SimulationResult[] evaluate(int contextSwitchTime) {
+    int scanned = vectorized
+        ? VECTOR_KERNEL.scan(arrival, burst, jobs, lanes, contextSwitchTime, waitingTime, lastCompletion)
+        : 0;
+    if (scanned < lanes)
+      scan(scanned, contextSwitchTime);
+
+    Scheduler.SimulationResult[] results = new Scheduler.SimulationResult[loaded];
+    for (int lane = 0; lane < loaded; lane++)
+      results[lane] = collect(lane);
+    return results;
+  }
+
+  /**
+   * FCFS results of the workloads, in order, evaluated in batches of consecutive workloads of
+   * the same size.
+   */
+  public static Scheduler.SimulationResult[] evaluate(List<Workload> workloads, int contextSwitchTime) {
+    Scheduler.SimulationResult[] results = new Scheduler.SimulationResult[workloads.size()];
+    FcfsBatch batch = null;
+    for (int first = 0; first < workloads.size();) {
+      int jobs = workloads.get(first).size();
+      int lanes = Math.min(MAX_LANES, Math.max(MIN_LANES, LANE_BUDGET / Math.max(1, jobs)));
+      if ((long) lanes * jobs > MAX_BATCH_INTS)
+        lanes = Math.max(1, MAX_BATCH_INTS / jobs);
+      int end = first;
+      while (end < workloads.size() && end - first < lanes && workloads.get(end).size() == jobs)
+        end++;
+      if (batch == null || batch.jobs != jobs || batch.lanes < end - first)
+        batch = new FcfsBatch(lanes, jobs);
+      batch.loaded = 0;
+      for (int w = first; w < end; w++)
+        batch.load(w - first, workloads.get(w));
+      System.arraycopy(batch.evaluate(contextSwitchTime), 0, results, first, end - first);
+      first = end;
+    }
+    return results;
+  }
+
+  // The recurrence for the lanes from `from` on, one job of every lane at a time
+  private void scan(int from, int contextSwitchTime) {
+    for (int lane = from; lane < lanes; lane++)
+      free[lane] = 0;
+    for (int i = 0, base = 0; i < jobs; i++, base += lanes) {
+      for (int lane = from; lane < lanes; lane++) {
+        int a = arrival[base + lane];
+        int start = Math.max(free[lane], a);
+        waitingTime[base + lane] = start - a;
+        int completion = start + burst[base + lane];
+        lastCompletion[lane] = completion;
+        free[lane] = completion + contextSwitchTime;
+      }
+    }
+  }
+
+  // Metrics of one lane, as Scheduler.finishMetrics and CollectMetrics compute them
+  private Scheduler.SimulationResult collect(int lane) {
+    Scheduler.SimulationResult result = new Scheduler.SimulationResult();
+    if (jobs == 0) {
+      result.waitingTimeHistogram = new LatencyHistogram();
+      result.turnAroundTimeHistogram = new LatencyHistogram();
+      result.responseTimeHistogram = new LatencyHistogram();
+      return result; // FirstComeFirstServed schedules nothing
+    }
+
+    long totalWaitingTime = 0;
+    int maxWaitingTime = 0, maxTurnAroundTime = 0;
+    for (int i = 0, at = lane; i < jobs; i++, at += lanes) {
+      int wait = waitingTime[at];
+      laneWaitingTime[i] = wait;
+      laneTurnAroundTime[i] = wait + burst[at];
+      totalWaitingTime += wait;
+      maxWaitingTime = Math.max(maxWaitingTime, wait);
+      maxTurnAroundTime = Math.max(maxTurnAroundTime, laneTurnAroundTime[i]);
+    }
+    // Histograms with the buckets the values need: the same counts in less memory
+    result.waitingTimeHistogram = LatencyHistogram.sized(maxWaitingTime);
+    result.waitingTimeHistogram.recordAll(laneWaitingTime, jobs);
+    result.turnAroundTimeHistogram = LatencyHistogram.sized(maxTurnAroundTime);
+    result.turnAroundTimeHistogram.recordAll(laneTurnAroundTime, jobs);
+    // FCFS runs every job in one piece: the response time is the waiting time
+    result.responseTimeHistogram = result.waitingTimeHistogram.copy();
+    result.avgWaitingTime = (double) totalWaitingTime / jobs;
+    result.avgTurnAroundTime = (double) (totalWaitingTime + totalBurst[lane]) / jobs;
+    int rank = (int) Math.ceil(99.0 / 100 * jobs);
+    result.p99WaitingTime = result.waitingTimeHistogram.valueAtRank(Math.min(jobs, Math.max(1, rank)), laneWaitingTime, jobs);
+    result.contextSwitches = jobs - 1;
+
+    // Completions only grow, the last one is the latest
+    int makespan = Math.max(0, lastCompletion[lane]) - minArrival[lane];
+    if (makespan != 0) {
+      result.cpuUtilization = ((double) totalBurst[lane] / makespan) * 100.0;
+      result.throughput = (double) jobs / makespan;
+    }
+    return result;
+  }
+
+  // The vector kernel is in a subpackage that only compiles with the incubator module
+  private static Kernel loadVectorKernel() {
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+      return null;
+    try {
+      return (Kernel) Class.forName("process.scheduler.vector.VectorFcfsKernel").getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+}
@@ -8,59 +8,45 @@ public class FirstComeFirstServed extends Scheduler {
     super(processes, contextSwitchingTime);
   }
 
+  public FirstComeFirstServed(Workload workload, int contextSwitchingTime) {
+    super(workload, contextSwitchingTime);
+  }
+
   // Non preemptive by nature
   public LinkedList<String> schedule() {
-    var processesCopy = new LinkedList<PCB>();
-    for (PCB process : getProcesses())
-      processesCopy.add(process.clone()); // Deep copying
+    clearMetrics();
 
-    if (processesCopy.isEmpty()) {
+    var workload = getWorkload();
+    if (workload.size() == 0) {
       getScheduleTable().addLast("---- Empty Process Block ----");
       return getScheduleTable();
     }
 
-    // Sort the processes based on their arrival time
-    processesCopy.sort((p1, p2) -> p1.getArrivalTime() - p2.getArrivalTime());
-    var readyQueue = new LinkedList<PCB>();
-    readyQueue.add(processesCopy.removeFirst()); // Add the first process to the ready queue
+    // The processes sorted based on their arrival time
+    int[] arrivalOrder = workload.arrivalOrder();
 
     var timer = 0;
-    var totTAT = 0;
-    var totWT = 0;
-
-    while (!readyQueue.isEmpty()) {
-      var currentProcess = readyQueue.removeFirst();
-      if (currentProcess.getArrivalTime() > timer) {
-        getScheduleTable().addLast("[" + timer + " <- -- -> " + (currentProcess.getArrivalTime()) + "]");
-        timer = currentProcess.getArrivalTime();
-      }
 
-      getScheduleTable().addLast(
-          "[" + timer + " <- " + currentProcess.getPID() + " -> " + (timer + currentProcess.getBurstTime()) + "]");
-
-      timer += currentProcess.getBurstTime();
-
-      getCompletionTime().put(currentProcess.getPID(), timer);
-      getTurnAroundTime().put(currentProcess.getPID(), timer - currentProcess.getArrivalTime());
-      getWaitingTime().put(currentProcess.getPID(),
-          getTurnAroundTime().get(currentProcess.getPID()) - currentProcess.getBurstTime());
+    for (int next = 0; next < arrivalOrder.length; next++) {
+      var currentJob = arrivalOrder[next];
+      if (workload.getArrivalTime(currentJob) > timer) {
+        trace(timer, workload.getArrivalTime(currentJob), EventLog.IDLE);
+        timer = workload.getArrivalTime(currentJob);
+      }
 
-      totTAT += getTurnAroundTime().get(currentProcess.getPID());
-      totWT += getWaitingTime().get(currentProcess.getPID());
+      trace(timer, timer + workload.getBurstTime(currentJob), currentJob);
 
-      if (!processesCopy.isEmpty())
-        readyQueue.add(processesCopy.removeFirst());
+      timer += workload.getBurstTime(currentJob);
+      complete(currentJob, timer);
 
       // Context Switching Time
-      if (getContextSwitchTime() > 0 && !readyQueue.isEmpty())
-        timer += getContextSwitchTime();
+      if (next + 1 < arrivalOrder.length)
+        timer += switchContext();
     }
 
-    setAverageTurnAroundTime((double) totTAT / getProcesses().size());
-    setAverageWaitingTime((double) totWT / getProcesses().size());
-    calculateExtendedMetrics();
+    finishMetrics();
 
-    return getScheduleTable();
+    return traceResult();
   }
   
 
@@ -0,0 +1,84 @@
+package process.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of event handles with a position index (for cancel): O(log n) per operation
+ * whatever the distribution of event times. The fallback of CalendarEventSet.
+ */
+public class HeapEventSet extends PendingEventSet {
+  private int[] heap = new int[64];
+  private int[] position = new int[64];
+
+  @Override
+  protected void growHandles(int capacity) {
+    position = Arrays.copyOf(position, capacity);
+  }
+
+  @Override
+  protected void insert(int handle) {
+    if (size == heap.length)
+      heap = Arrays.copyOf(heap, heap.length << 1);
+    siftUp(size, handle);
+  }
+
+  @Override
+  protected void remove(int handle) {
+    int k = position[handle];
+    int last = heap[size - 1];
+    if (last == handle)
+      return;
+    heap[k] = last;
+    position[last] = k;
+    // the heap holds `size` entries until the caller decrements it, the last one is gone
+    int n = size - 1;
+    siftDown(k, last, n);
+    if (heap[k] == last)
+      siftUp(k, last);
+  }
+
+  @Override
+  protected int removeFirst() {
+    int first = heap[0];
+    int n = size - 1;
+    if (n > 0)
+      siftDown(0, heap[n], n);
+    return first;
+  }
+
+  @Override
+  protected void reset() {
+  }
+
+  private void siftUp(int k, int handle) {
+    while (k > 0) {
+      int parent = (k - 1) >>> 1;
+      int e = heap[parent];
+      if (compare(handle, e) >= 0)
+        break;
+      heap[k] = e;
+      position[e] = k;
+      k = parent;
+    }
+    heap[k] = handle;
+    position[handle] = k;
+  }
+
+  private void siftDown(int k, int handle, int n) {
+    int half = n >>> 1;
+    while (k < half) {
+      int child = (k << 1) + 1;
+      int c = heap[child];
+      int right = child + 1;
+      if (right < n && compare(c, heap[right]) > 0)
+        c = heap[child = right];
+      if (compare(handle, c) <= 0)
+        break;
+      heap[k] = c;
+      position[c] = k;
+      k = child;
+    }
+    heap[k] = handle;
+    position[handle] = k;
+  }
+}
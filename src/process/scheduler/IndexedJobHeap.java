@@ -0,0 +1,125 @@
+package process.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * d-ary min-heap of dense job IDs (0 .. capacity - 1) that knows where every job sits,
+ * so a queued job whose key improved is moved up in O(log n) instead of being removed
+ * and re-inserted.
+ *
+ * The keys live with the caller: change them, then call decreaseKey (key improved) or
+ * update (any change) for the job.
+ */
+public class IndexedJobHeap {
+  private final JobComparator comparator;
+  private final int arity;
+  private final int[] queue;
+  private final int[] position; // index of each job in queue, -1 when not queued
+  private int size = 0;
+
+  /**
+   * @param capacity number of job IDs (jobs are 0 .. capacity - 1)
+   * @param arity    children per node (>= 2); 4 keeps the heap shallow and cache friendly
+   */
+  public IndexedJobHeap(JobComparator comparator, int capacity, int arity) {
+    if (arity < 2)
+      throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+    this.comparator = comparator;
+    this.arity = arity;
+    this.queue = new int[Math.max(1, capacity)];
+    this.position = new int[Math.max(1, capacity)];
+    Arrays.fill(position, -1);
+  }
+
+  public IndexedJobHeap(JobComparator comparator, int capacity) {
+    this(comparator, capacity, 4);
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean contains(int job) {
+    return position[job] >= 0;
+  }
+
+  public void clear() {
+    for (int i = 0; i < size; i++)
+      position[queue[i]] = -1;
+    size = 0;
+  }
+
+  public int peek() {
+    return queue[0];
+  }
+
+  public void add(int job) {
+    if (position[job] >= 0)
+      throw new IllegalArgumentException("Job " + job + " is already queued");
+    siftUp(size++, job);
+  }
+
+  public int poll() {
+    int result = queue[0];
+    position[result] = -1;
+    int job = queue[--size];
+    if (size > 0)
+      siftDown(0, job);
+    return result;
+  }
+
+  /**
+   * Restores the heap after the key of a queued job got smaller.
+   */
+  public void decreaseKey(int job) {
+    siftUp(position[job], job);
+  }
+
+  /**
+   * Restores the heap after the key of a queued job changed either way.
+   */
+  public void update(int job) {
+    int k = position[job];
+    siftUp(k, job);
+    if (position[job] == k)
+      siftDown(k, job);
+  }
+
+  private void siftUp(int k, int job) {
+    while (k > 0) {
+      int parent = (k - 1) / arity;
+      int e = queue[parent];
+      if (comparator.compare(job, e) >= 0)
+        break;
+      queue[k] = e;
+      position[e] = k;
+      k = parent;
+    }
+    queue[k] = job;
+    position[job] = k;
+  }
+
+  private void siftDown(int k, int job) {
+    while (true) {
+      int first = k * arity + 1;
+      if (first >= size)
+        break;
+      int last = Math.min(first + arity, size);
+      int child = first;
+      for (int c = first + 1; c < last; c++)
+        if (comparator.compare(queue[c], queue[child]) < 0)
+          child = c;
+      if (comparator.compare(job, queue[child]) <= 0)
+        break;
+      queue[k] = queue[child];
+      position[queue[k]] = k;
+      k = child;
+    }
+    queue[k] = job;
+    position[job] = k;
+  }
+}
@@ -0,0 +1,9 @@
+package process.scheduler;
+
+/**
+ * Orders two jobs of a {@link Workload} by their dense job IDs, without boxing them.
+ */
+@FunctionalInterface
+public interface JobComparator {
+  int compare(int job1, int job2);
+}
@@ -1,17 +1,71 @@
 package process.scheduler;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.List;
+import java.io.UncheckedIOException;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class JobGenerator {
-    private Random random;
+    private RandomGenerator random;
+    private WorkloadArchive.Writer archive; // optional, null: workloads are not saved
+    private boolean antithetic = false;
 
     public JobGenerator() {
         this.random = new Random();
     }
 
+    /**
+     * Seeded generator: the same seed always yields the same workload, regardless of
+     * which thread the replication runs on.
+     * @param seed Seed of this generator's SplittableRandom stream
+     */
+    public JobGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Saves every generated workload to the archive, under its replication ID.
+     * @param archive the archive writer, may be shared by several generators; null disables saving
+     */
+    public void setArchive(WorkloadArchive.Writer archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Antithetic mode: every draw is mirrored, 1 - u for the inter-arrival times, the negated
+     * Gaussian for the burst times and maxPriority + 1 - p for the priorities. A generator
+     * with the same seed in the other mode yields the antithetic twin of each workload: same
+     * distributions, negatively correlated values.
+     */
+    public void setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+    }
+
+    /**
+     * Expected inter-arrival time of the generated jobs: the exponential times are rounded
+     * down, so floor(meanInterArrival * E) with E ~ Exp(1), a geometric variable.
+     */
+    public static double expectedInterArrivalTime(double meanInterArrival) {
+        return meanInterArrival > 0 ? 1 / Math.expm1(1 / meanInterArrival) : 0.0;
+    }
+
+    /**
+     * Expected burst time of the generated jobs: max(1, floor(X)) with X ~ N(meanBurst,
+     * burstStdDev), so 1 + the sum over k >= 2 of P(X >= k).
+     */
+    public static double expectedBurstTime(double meanBurst, double burstStdDev) {
+        if (!(burstStdDev > 0))
+            return Math.max(1, (int) meanBurst);
+        double expected = 1.0;
+        for (long k = 2;; k++) {
+            double tail = OnlineStatistics.normalCdf((meanBurst - k) / burstStdDev);
+            expected += tail;
+            if (k > meanBurst && tail < 1e-17)
+                return expected;
+        }
+    }
+
     /**
      * Generates a synthetic workload of processes based on probability distributions.
      * * @param numJobs Number of jobs to generate
@@ -23,59 +77,113 @@ public class JobGenerator {
      */
     public java.util.List<PCB> generateWorkload(int numJobs, double meanInterArrival, double meanBurst,
             double burstStdDev, int maxPriority, int replicationID) {
+        return generate(numJobs, meanInterArrival, meanBurst, burstStdDev, maxPriority, replicationID).toPCBs();
+    }
+
+    /**
+     * Generates the same workload as generateWorkload, as primitive columns instead of PCBs.
+     * Job i gets the PID "P" + (i + 1).
+     */
+    public Workload generate(int numJobs, double meanInterArrival, double meanBurst,
+            double burstStdDev, int maxPriority, int replicationID) {
 
-        List<PCB> workload = new java.util.ArrayList<>();
+        int[] arrivalTimes = new int[numJobs];
+        int[] burstTimes = new int[numJobs];
+        int[] priorities = new int[numJobs];
         int currentArrivalTime = 0;
 
-        for (int i = 1; i <= numJobs; i++) {
+        for (int i = 0; i < numJobs; i++) {
             // 1. Inter-arrival Time: Exponential Distribution
-            // Formula: Time = -Mean * ln(1 - u) where u is a uniform(0,1) random number
-            double u = random.nextDouble();
-            int interArrivalTime = (int) (-meanInterArrival * Math.log(1 - u));
-            // Ensure at least 0 arrival time spacing
-            if (interArrivalTime < 0)
-                interArrivalTime = 0;
-
-            currentArrivalTime += interArrivalTime;
+            currentArrivalTime += nextInterArrivalTime(meanInterArrival);
 
             // 2. Burst Time: Normal Distribution
-            // Uses Box-Muller transform internally via nextGaussian()
-            int burstTime = (int) (random.nextGaussian() * burstStdDev + meanBurst);
-            if (burstTime < 1) // CPU burst time must be at least 1
-                burstTime = 1;
+            int burstTime = nextBurstTime(meanBurst, burstStdDev);
 
             // 3. Priority: Uniform Distribution
-            int priority = random.nextInt(maxPriority) + 1;
+            int priority = nextPriority(maxPriority);
 
-            // Create PCB and add to workload
-            String pid = "P" + i;
-            workload.add(new PCB(pid, burstTime, currentArrivalTime, priority));
+            arrivalTimes[i] = currentArrivalTime;
+            burstTimes[i] = burstTime;
+            priorities[i] = priority;
         }
-        saveWorkload(workload, replicationID);
+        Workload workload = new Workload(arrivalTimes, burstTimes, priorities);
+        if (archive != null)
+            saveWorkload(workload, replicationID);
 
         return workload;
 
     }
     
 
-    // Conceptual code to be added inside JobGenerator or ExperimentManager's setup method
-    private void saveWorkload(List<PCB> workload, int replicationID) {
-        try (FileWriter writer = new FileWriter("generated_workloads.csv", true)) {
-            // Write header if file is new
-            if (replicationID == 0) {
-                writer.append("ReplicationID,JobID,ArrivalTime,BurstTime,Priority\n");
+    /**
+     * Lazily generates the same jobs as generate(), one per advance(), so no workload is ever held
+     * in memory. Jobs come out in arrival order with job IDs 0, 1, 2, ...
+     * The stream draws from this generator's random stream: use one generator per stream.
+     */
+    public ArrivalStream stream(int numJobs, double meanInterArrival, double meanBurst,
+            double burstStdDev, int maxPriority) {
+        return new ArrivalStream() {
+            private int jobID = -1;
+            private long arrivalTime = 0;
+            private int burstTime;
+            private int priority;
+
+            public boolean advance() {
+                if (jobID + 1 >= numJobs)
+                    return false;
+                jobID++;
+
+                // Same draws, in the same order, as generate()
+                arrivalTime += nextInterArrivalTime(meanInterArrival);
+                burstTime = nextBurstTime(meanBurst, burstStdDev);
+                priority = nextPriority(maxPriority);
+                return true;
+            }
+
+            public int getJobID() {
+                return jobID;
             }
-            
-            for (PCB job : workload) {
-                writer.append(String.format("%d,%s,%d,%d,%d\n",
-    replicationID,      
-    job.getPID(),   
-    job.getArrivalTime(), 
-    job.getBurstTime(), 
-    job.getPriority()));
+
+            public long getArrivalTime() {
+                return arrivalTime;
             }
+
+            public int getBurstTime() {
+                return burstTime;
+            }
+
+            public int getPriority() {
+                return priority;
+            }
+        };
+    }
+
+    // Formula: Time = -Mean * ln(1 - u) where u is a uniform(0,1) random number; the antithetic
+    // 1 - u gives -Mean * ln(u), with u = 0 taken as the smallest double
+    private int nextInterArrivalTime(double meanInterArrival) {
+        double u = random.nextDouble();
+        int interArrivalTime = (int) (-meanInterArrival * Math.log(antithetic ? Math.max(u, Double.MIN_VALUE) : 1 - u));
+        // Ensure at least 0 arrival time spacing
+        return Math.max(interArrivalTime, 0);
+    }
+
+    // Uses Box-Muller transform internally via nextGaussian()
+    private int nextBurstTime(double meanBurst, double burstStdDev) {
+        double z = random.nextGaussian();
+        int burstTime = (int) ((antithetic ? -z : z) * burstStdDev + meanBurst);
+        return Math.max(burstTime, 1); // CPU burst time must be at least 1
+    }
+
+    private int nextPriority(int maxPriority) {
+        int priority = random.nextInt(maxPriority) + 1;
+        return antithetic ? maxPriority + 1 - priority : priority;
+    }
+
+    private void saveWorkload(Workload workload, int replicationID) {
+        try {
+            archive.append(replicationID, workload);
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new UncheckedIOException("Error archiving workload " + replicationID, e);
         }
     }
     
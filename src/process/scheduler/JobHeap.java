@@ -0,0 +1,77 @@
+package process.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of job IDs.
+ *
+ * Sifts exactly like java.util.PriorityQueue, so jobs that compare equal come out in
+ * the same order as they did with PriorityQueue&lt;PCB&gt;.
+ */
+public class JobHeap {
+  private final JobComparator comparator;
+  private int[] queue;
+  private int size = 0;
+
+  public JobHeap(JobComparator comparator, int initialCapacity) {
+    this.comparator = comparator;
+    this.queue = new int[Math.max(1, initialCapacity)];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public int peek() {
+    return queue[0];
+  }
+
+  public void add(int job) {
+    if (size == queue.length)
+      queue = Arrays.copyOf(queue, queue.length << 1);
+
+    // sift up
+    int k = size++;
+    while (k > 0) {
+      int parent = (k - 1) >>> 1;
+      int e = queue[parent];
+      if (comparator.compare(job, e) >= 0)
+        break;
+      queue[k] = e;
+      k = parent;
+    }
+    queue[k] = job;
+  }
+
+  public int poll() {
+    int result = queue[0];
+    int n = --size;
+    int job = queue[n];
+
+    // sift down
+    int k = 0;
+    int half = n >>> 1;
+    while (k < half) {
+      int child = (k << 1) + 1;
+      int c = queue[child];
+      int right = child + 1;
+      if (right < n && comparator.compare(c, queue[right]) > 0)
+        c = queue[child = right];
+      if (comparator.compare(job, c) <= 0)
+        break;
+      queue[k] = c;
+      k = child;
+    }
+    if (n > 0)
+      queue[k] = job;
+    return result;
+  }
+}
@@ -0,0 +1,53 @@
+package process.scheduler;
+
+/**
+ * FIFO queue of job IDs on a growable int ring buffer.
+ */
+public class JobQueue {
+  private int[] ring;
+  private int head = 0;
+  private int size = 0;
+
+  public JobQueue(int initialCapacity) {
+    // Power of two capacity, so wrapping is a mask instead of a modulo
+    this.ring = new int[Integer.highestOneBit(Math.max(2, initialCapacity) - 1) << 1];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    head = 0;
+    size = 0;
+  }
+
+  public int peek() {
+    return ring[head];
+  }
+
+  public void add(int job) {
+    if (size == ring.length)
+      grow();
+    ring[(head + size++) & (ring.length - 1)] = job;
+  }
+
+  public int poll() {
+    int job = ring[head];
+    head = (head + 1) & (ring.length - 1);
+    size--;
+    return job;
+  }
+
+  private void grow() {
+    int[] larger = new int[ring.length << 1];
+    for (int i = 0; i < size; i++)
+      larger[i] = ring[(head + i) & (ring.length - 1)];
+    ring = larger;
+    head = 0;
+  }
+}
@@ -0,0 +1,20 @@
+package process.scheduler;
+
+/**
+ * The jobs an EventPolicy orders, by job ID: what they are and how much of them is left.
+ * EventDrivenScheduler serves a Workload through it, OnlineScheduler its live jobs (whose IDs
+ * are recycled slots).
+ */
+public interface JobTable {
+  long getArrivalTime(int job);
+
+  int getBurstTime(int job);
+
+  int getPriority(int job);
+
+  /** Up to date for every job that is not running */
+  int getRemainingTime(int job);
+
+  /** Position of the job in submission order (its ID in a Workload), the last tie-breaker */
+  long getSequence(int job);
+}
@@ -0,0 +1,294 @@
+package process.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram of non-negative integer latencies (HdrHistogram layout) in fixed
+ * memory: values below 2^PRECISION_BITS get a bucket each, larger values share a bucket with
+ * the values that agree in their top PRECISION_BITS bits, so any recorded value is known to
+ * within 1 / 2^(PRECISION_BITS - 1) (0.8%) of itself, from 1 up to Long.MAX_VALUE.
+ *
+ * record() is a few shifts and an array increment. The buckets cover the int range up
+ * front (25 KB); only the first value beyond it grows them, once, to the long range, so
+ * recording the int latencies of the schedulers never allocates. Histograms filled in bulk
+ * (sized(), recordAll()) start with the buckets their values need instead. A histogram is not
+ * thread-safe: record into one per thread (or per run) and merge() them, in any order, into
+ * the same counts.
+ */
+public class LatencyHistogram {
+  private static final int PRECISION_BITS = 8;
+  private static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+  private static final int HALF = SUB_BUCKETS >> 1;
+  // Shifts 1 .. 64 - PRECISION_BITS cover the values from SUB_BUCKETS up to Long.MAX_VALUE
+  private static final int INT_BUCKETS = index(Integer.MAX_VALUE) + 1;
+  private static final int LONG_BUCKETS = index(Long.MAX_VALUE) + 1;
+
+  private long[] counts;
+  private long count = 0L;
+  private long sum = 0L;
+  private long min = Long.MAX_VALUE;
+  private long max = 0L;
+
+  public LatencyHistogram() {
+    this(new long[INT_BUCKETS]);
+  }
+
+  private LatencyHistogram(long[] counts) {
+    this.counts = counts;
+  }
+
+  /**
+   * An empty histogram with the buckets up to maxValue only; larger values grow it as usual.
+   */
+  static LatencyHistogram sized(long maxValue) {
+    return new LatencyHistogram(new long[index(Math.max(0L, maxValue)) + 1]);
+  }
+
+  private static int index(long value) {
+    if (value < SUB_BUCKETS)
+      return (int) value;
+    int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - PRECISION_BITS;
+    return shift * HALF + (int) (value >>> shift);
+  }
+
+  /** Smallest value that shares a bucket with value (value itself below 2^PRECISION_BITS) */
+  static long lowestEquivalentValue(long value) {
+    if (value < SUB_BUCKETS)
+      return value;
+    int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - PRECISION_BITS;
+    return value >>> shift << shift;
+  }
+
+  // Largest value that falls in the bucket
+  private static long highestValue(int index) {
+    if (index < SUB_BUCKETS)
+      return index;
+    int shift = (index - SUB_BUCKETS) / HALF + 1;
+    long lowest = (long) (index - shift * HALF) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  /**
+   * Records a latency; negative values are not latencies.
+   */
+  public void record(long value) {
+    if (value < 0)
+      throw new IllegalArgumentException("Negative latency " + value);
+    int index = index(value);
+    if (index >= counts.length)
+      grow(index);
+    counts[index]++;
+    count++;
+    sum += value;
+    if (value < min)
+      min = value;
+    if (value > max)
+      max = value;
+  }
+
+  /**
+   * record() for values[0 .. length), in one pass; they are ints, so the buckets never grow.
+   */
+  void recordAll(int[] values, int length) {
+    if (length == 0)
+      return;
+    long total = 0L;
+    int low = Integer.MAX_VALUE, high = 0;
+    for (int i = 0; i < length; i++) {
+      total += values[i];
+      low = Math.min(low, values[i]);
+      high = Math.max(high, values[i]);
+    }
+    if (low < 0)
+      throw new IllegalArgumentException("Negative latency " + low);
+    if (index(high) >= counts.length)
+      grow(index(high));
+    for (int i = 0; i < length; i++)
+      counts[index(values[i])]++;
+    count += length;
+    sum += total;
+    min = Math.min(min, low);
+    max = Math.max(max, high);
+  }
+
+  /**
+   * Adds every value recorded in other.
+   */
+  public void merge(LatencyHistogram other) {
+    if (other.count == 0)
+      return;
+    if (other.counts.length > counts.length)
+      counts = Arrays.copyOf(counts, other.counts.length);
+    for (int i = 0; i < other.counts.length; i++)
+      counts[i] += other.counts[i];
+    count += other.count;
+    sum += other.sum;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  public void clear() {
+    Arrays.fill(counts, 0L);
+    count = sum = max = 0L;
+    min = Long.MAX_VALUE;
+  }
+
+  /** A copy with the buckets up to the maximum only (see sized()) */
+  public LatencyHistogram copy() {
+    LatencyHistogram copy = new LatencyHistogram(Arrays.copyOf(counts, Math.min(counts.length, index(max) + 1)));
+    copy.setTotals(count, sum, min, max);
+    return copy;
+  }
+
+  // To the int range, or to the long range for a bucket beyond it
+  private void grow(int index) {
+    counts = Arrays.copyOf(counts, index < INT_BUCKETS ? INT_BUCKETS : LONG_BUCKETS);
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMean() {
+    return count == 0 ? 0.0 : (double) sum / count;
+  }
+
+  /** Smallest recorded value, 0 when empty */
+  public long getMin() {
+    return count == 0 ? 0L : min;
+  }
+
+  /** Largest recorded value (exact), 0 when empty */
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * Value at the percentile (nearest rank, like Scheduler.getWaitingTimePercentile): the
+   * highest value of the bucket holding it, at most the recorded maximum. Exact below
+   * 2^PRECISION_BITS, 0 when empty.
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (count == 0)
+      return 0L;
+    return valueAtRank(Math.min(count, Math.max(1L, (long) Math.ceil(percentile / 100 * count))));
+  }
+
+  // getValueAtPercentile by rank (from 1 to count)
+  long valueAtRank(long rank) {
+    long seen = 0L;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank)
+        return Math.min(highestValue(i), max);
+    }
+    return max;
+  }
+
+  /**
+   * Exact value of the rank (from 1 to count) when values[0 .. length) are the values
+   * recorded here: the counts give the bucket holding it, then it is selected among the
+   * values in that bucket, the only ones copied (values is not modified). Below
+   * 2^PRECISION_BITS the values are not looked at.
+   */
+  int valueAtRank(long rank, int[] values, int length) {
+    long highest = valueAtRank(rank);
+    long lowest = lowestEquivalentValue(highest);
+    if (lowest == highest)
+      return (int) highest;
+    int below = 0, inBucket = 0;
+    for (int i = 0; i < length; i++) {
+      if (values[i] < lowest)
+        below++;
+      else if (values[i] <= highest)
+        inBucket++;
+    }
+    int[] bucket = new int[inBucket];
+    inBucket = 0;
+    for (int i = 0; i < length; i++)
+      if (values[i] >= lowest && values[i] <= highest)
+        bucket[inBucket++] = values[i];
+    return select(bucket, (int) (rank - 1 - below));
+  }
+
+  // k-th smallest of values (quickselect, reorders them)
+  private static int select(int[] values, int k) {
+    int low = 0, high = values.length - 1;
+    while (high > low) {
+      int middle = (low + high) >>> 1;
+      int pivot = median(values[low], values[middle], values[high]);
+      int i = low, j = high;
+      while (i <= j) {
+        while (values[i] < pivot)
+          i++;
+        while (values[j] > pivot)
+          j--;
+        if (i <= j) {
+          int swap = values[i];
+          values[i++] = values[j];
+          values[j--] = swap;
+        }
+      }
+      if (k <= j)
+        high = j;
+      else if (k >= i)
+        low = i;
+      else
+        return values[k];
+    }
+    return values[k];
+  }
+
+  private static int median(int a, int b, int c) {
+    return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+  }
+
+  /** p50 / p90 / p99 / p99.9 / max, the tail summary of the reports */
+  public String summary() {
+    return String.format("p50=%d p90=%d p99=%d p99.9=%d max=%d", getValueAtPercentile(50), getValueAtPercentile(90),
+        getValueAtPercentile(99), getValueAtPercentile(99.9), getMax());
+  }
+
+  // --- Sparse form (non-empty buckets only), for storing histograms ---
+
+  /** Number of non-empty buckets */
+  int usedBuckets() {
+    int used = 0;
+    for (long c : counts)
+      if (c != 0)
+        used++;
+    return used;
+  }
+
+  /**
+   * Calls the visitor with (bucket, count) for every non-empty bucket, in bucket order.
+   */
+  void forEachBucket(BucketVisitor visitor) {
+    for (int i = 0; i < counts.length; i++)
+      if (counts[i] != 0)
+        visitor.visit(i, counts[i]);
+  }
+
+  /** Restores a bucket written by forEachBucket; call setTotals afterwards */
+  void addBucket(int bucket, long bucketCount) {
+    if (bucket >= counts.length)
+      grow(bucket);
+    counts[bucket] += bucketCount;
+  }
+
+  long getSum() {
+    return sum;
+  }
+
+  void setTotals(long count, long sum, long min, long max) {
+    this.count = count;
+    this.sum = sum;
+    this.min = count == 0 ? Long.MAX_VALUE : min;
+    this.max = max;
+  }
+
+  @FunctionalInterface
+  interface BucketVisitor {
+    void visit(int bucket, long count);
+  }
+}
@@ -0,0 +1,245 @@
+package process.scheduler;
+
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a workload for real: every job is a CPU-bound task spinning for its burst time,
+ * released at its arrival time and dispatched onto a fixed set of carrier threads in the
+ * order of an EventPolicy. One time unit lasts unitMillis of wall-clock time. The measured
+ * per-job times can then be set against a Scheduler's predictions (compare()).
+ *
+ * The spin is calibrated once per JVM (median iterations per millisecond) and runs in
+ * slices of policy.slice() units: a carrier gives its job back to the dispatcher at the end
+ * of a slice, never in between, so arrivals do not preempt (srtf and priority(true) run like
+ * sjf and priority(false)). The dispatcher is the thread calling run(); it sleeps until the
+ * next arrival or the next slice end, whichever comes first.
+ *
+ * Measured times, in units: turnaround from the nominal arrival time (so release and
+ * dispatch latency count as waiting), service as the wall-clock time of the job's slices,
+ * waiting as turnaround minus service, response to the start of the first slice.
+ */
+public class LiveExecutor {
+  private static final int CALIBRATION_ROUNDS = 20;
+  private static final long CALIBRATION_ITERATIONS = 1L << 20;
+  private static final long LEAD_NANOS = 20_000_000L; // from run() to time 0
+  private static long iterationsPerMilli = 0L;
+  private static volatile long sink; // keeps the spin from being optimized away
+
+  private final Workload workload;
+  private final int carriers;
+  private final double unitMillis;
+
+  /**
+   * Measured per-job times (in time units) of a live run.
+   */
+  public static class Result {
+    public double[] waitingTime;
+    public double[] turnAroundTime;
+    public double[] responseTime;
+    public double[] serviceTime;
+    public double avgWaitingTime;
+    public double avgTurnAroundTime;
+    public double wallMillis;
+  }
+
+  public LiveExecutor(Workload workload, int carriers, double unitMillis) {
+    if (carriers < 1 || !(unitMillis > 0))
+      throw new IllegalArgumentException("Carriers and unit length must be positive");
+    this.workload = workload;
+    this.carriers = carriers;
+    this.unitMillis = unitMillis;
+  }
+
+  /**
+   * Runs every job to completion under the policy; returns once the last one completed.
+   */
+  public Result run(EventPolicy policy) throws InterruptedException {
+    int n = workload.size();
+    int[] remainingTime = new int[n];
+    for (int job = 0; job < n; job++)
+      remainingTime[job] = workload.getBurstTime(job);
+    policy.reset(new JobTable() {
+      @Override
+      public long getArrivalTime(int job) {
+        return workload.getArrivalTime(job);
+      }
+
+      @Override
+      public int getBurstTime(int job) {
+        return workload.getBurstTime(job);
+      }
+
+      @Override
+      public int getPriority(int job) {
+        return workload.getPriority(job);
+      }
+
+      @Override
+      public int getRemainingTime(int job) {
+        return remainingTime[job];
+      }
+
+      @Override
+      public long getSequence(int job) {
+        return job;
+      }
+    });
+
+    long spinPerUnit = Math.max(1L, Math.round(calibrate() * unitMillis));
+    double unitNanos = unitMillis * 1e6;
+    int[] order = workload.arrivalOrder();
+    long[] firstStart = new long[n];
+    long[] serviceNanos = new long[n];
+    long[] completion = new long[n];
+    // Written by the carrier running the job, read by the dispatcher after the job id came
+    // through the finished queue
+    long[] sliceStart = new long[n];
+    long[] sliceEnd = new long[n];
+    int[] sliceLength = new int[n];
+    BlockingQueue<Integer> finished = new LinkedBlockingQueue<>();
+
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(carriers, carriers, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), task -> {
+          Thread carrier = new Thread(task, "live-carrier");
+          carrier.setDaemon(true);
+          return carrier;
+        });
+    pool.prestartAllCoreThreads();
+    try {
+      long epoch = System.nanoTime() + LEAD_NANOS;
+      int next = 0, completed = 0, idle = carriers;
+      while (completed < n) {
+        long now = System.nanoTime();
+        while (next < n && release(epoch, order[next], unitNanos) <= now)
+          policy.add(order[next++]);
+
+        while (idle > 0 && !policy.isEmpty()) {
+          int job = policy.poll();
+          int slice = Math.min(policy.slice(job), remainingTime[job]);
+          sliceLength[job] = slice;
+          idle--;
+          pool.execute(() -> {
+            sliceStart[job] = System.nanoTime();
+            spin(slice * spinPerUnit);
+            sliceEnd[job] = System.nanoTime();
+            finished.add(job);
+          });
+        }
+
+        Integer job;
+        if (next < n) {
+          long wait = release(epoch, order[next], unitNanos) - System.nanoTime();
+          job = wait > 0 ? finished.poll(wait, TimeUnit.NANOSECONDS) : finished.poll();
+        } else {
+          job = finished.take();
+        }
+        while (job != null) {
+          idle++;
+          if (serviceNanos[job] == 0L)
+            firstStart[job] = sliceStart[job];
+          serviceNanos[job] += sliceEnd[job] - sliceStart[job];
+          remainingTime[job] -= sliceLength[job];
+          if (remainingTime[job] == 0) {
+            completion[job] = sliceEnd[job];
+            completed++;
+          } else {
+            policy.add(job);
+          }
+          job = finished.poll();
+        }
+      }
+
+      Result result = new Result();
+      result.waitingTime = new double[n];
+      result.turnAroundTime = new double[n];
+      result.responseTime = new double[n];
+      result.serviceTime = new double[n];
+      long last = epoch;
+      for (int i = 0; i < n; i++) {
+        long arrival = release(epoch, i, unitNanos);
+        result.turnAroundTime[i] = (completion[i] - arrival) / unitNanos;
+        result.serviceTime[i] = serviceNanos[i] / unitNanos;
+        result.waitingTime[i] = result.turnAroundTime[i] - result.serviceTime[i];
+        result.responseTime[i] = (firstStart[i] - arrival) / unitNanos;
+        result.avgWaitingTime += result.waitingTime[i] / n;
+        result.avgTurnAroundTime += result.turnAroundTime[i] / n;
+        last = Math.max(last, completion[i]);
+      }
+      result.wallMillis = (last - epoch) / 1e6;
+      return result;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  // Nominal wall-clock arrival of a job
+  private long release(long epoch, int job, double unitNanos) {
+    return epoch + (long) (workload.getArrivalTime(job) * unitNanos);
+  }
+
+  /**
+   * Spin iterations per millisecond: the median of CALIBRATION_ROUNDS timed spins, after as
+   * many untimed ones that let the JIT compile spin() before the first job.
+   */
+  public static synchronized long calibrate() {
+    if (iterationsPerMilli == 0L) {
+      long[] nanos = new long[CALIBRATION_ROUNDS];
+      for (int round = -CALIBRATION_ROUNDS; round < CALIBRATION_ROUNDS; round++) {
+        long start = System.nanoTime();
+        spin(CALIBRATION_ITERATIONS);
+        if (round >= 0)
+          nanos[round] = System.nanoTime() - start;
+      }
+      Arrays.sort(nanos);
+      iterationsPerMilli = Math.max(1L, CALIBRATION_ITERATIONS * 1_000_000L / Math.max(1L, nanos[CALIBRATION_ROUNDS / 2]));
+    }
+    return iterationsPerMilli;
+  }
+
+  // CPU-bound work: a xorshift chain the JIT cannot shorten
+  private static void spin(long iterations) {
+    long x = 0x9E3779B97F4A7C15L;
+    for (long i = 0; i < iterations; i++) {
+      x ^= x << 13;
+      x ^= x >>> 7;
+      x ^= x << 17;
+    }
+    sink = x;
+  }
+
+  /**
+   * Prints the measured per-job waiting and turnaround times of a live run next to the ones
+   * predicted by a simulation of the same workload (the scheduler has run): the first
+   * `shownJobs` jobs, then the averages and the mean absolute per-job difference.
+   */
+  public static void compare(String algorithm, Scheduler simulated, Result live, int shownJobs) {
+    Scheduler.SimulationResult predicted = simulated.CollectMetrics();
+    Workload workload = simulated.getWorkload();
+    int[] waitingTime = simulated.getJobWaitingTimes();
+    int[] turnAroundTime = simulated.getJobTurnAroundTimes();
+    int n = workload.size();
+
+    System.out.println("\n=== Live vs Simulated: " + algorithm + " (time units) ===");
+    System.out.printf("%-6s %8s %6s | %10s %10s | %10s %10s%n", "Job", "Arrival", "Burst", "Wait sim", "Wait live",
+        "TAT sim", "TAT live");
+    for (int i = 0; i < Math.min(shownJobs, n); i++)
+      System.out.printf("%-6s %8d %6d | %10d %10.2f | %10d %10.2f%n", "P" + (i + 1), workload.getArrivalTime(i),
+          workload.getBurstTime(i), waitingTime[i], live.waitingTime[i], turnAroundTime[i], live.turnAroundTime[i]);
+    if (shownJobs < n)
+      System.out.println("... (" + (n - shownJobs) + " more jobs)");
+
+    double waitingError = 0.0, turnAroundError = 0.0;
+    for (int i = 0; i < n; i++) {
+      waitingError += Math.abs(live.waitingTime[i] - waitingTime[i]) / n;
+      turnAroundError += Math.abs(live.turnAroundTime[i] - turnAroundTime[i]) / n;
+    }
+    System.out.printf("%-22s %10.2f %10.2f  (mean |live - sim| per job: %.2f)%n", "Avg Waiting Time",
+        predicted.avgWaitingTime, live.avgWaitingTime, waitingError);
+    System.out.printf("%-22s %10.2f %10.2f  (mean |live - sim| per job: %.2f)%n", "Avg Turnaround Time",
+        predicted.avgTurnAroundTime, live.avgTurnAroundTime, turnAroundError);
+  }
+}
@@ -0,0 +1,348 @@
+package process.scheduler;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * Symmetric multiprocessor: runs a workload on N identical cores under FCFS, SJF, Priority
+ * (non-preemptive) or Round Robin.
+ *
+ * Event driven: the busy cores sit in a heap by the time their current slice ends, so the
+ * run costs O(events * (log cores + cores)) however long the bursts are. When several
+ * things happen at the same instant, slices end first, then jobs arrive, then the jobs
+ * whose quantum expired are queued again, and finally the idle cores are served in core
+ * order. Context switches follow the single-core scheduler of each policy, so one core gives
+ * the same schedule as FirstComeFirstServed, ShortestJobFirst / PriorityScheduling
+ * (non_preemptive_schedule) and RoundRobin:
+ *   FCFS:           a core switches right after each job while jobs are left to start; the
+ *                   switch overlaps any idle time, the next job starts once it is over
+ *   SJF, PRIORITY:  a core switches when it goes straight from a completed job to the next,
+ *                   not after idling
+ *   ROUND_ROBIN:    a core switches whenever it starts a job other than the one it ran last
+ *                   (its first job included), so migrations cost a switch too
+ *
+ * No schedule table is recorded; the per-job metrics of Scheduler are filled in as usual
+ * and per-core results are available after schedule().
+ */
+public class MultiCoreScheduler extends Scheduler {
+  /**
+   * Where ready jobs wait.
+   * GLOBAL:        one queue shared by every core
+   * PER_CORE:      one queue per core, arrivals are spread over the cores in turn and a job
+   *                whose quantum expired goes back to the core that ran it
+   * WORK_STEALING: PER_CORE, plus a core whose queue ran dry takes the next job of the
+   *                longest queue
+   */
+  public enum QueueMode {
+    GLOBAL, PER_CORE, WORK_STEALING
+  }
+
+  private final int cores;
+  private final QueueMode queueMode;
+  private final StreamingScheduler.Policy policy;
+  private final int timeQuantum;
+
+  // Per core results, indexed by core
+  private final long[] coreBusyTime;
+  private final long[] coreSwitchTime;
+  private final int[] coreCompletedJobs;
+  private final int[] coreSteals;
+  private int makespan;
+
+  /**
+   * @param timeQuantum time quantum, only used by ROUND_ROBIN
+   */
+  public MultiCoreScheduler(Workload workload, int cores, QueueMode queueMode, StreamingScheduler.Policy policy,
+      int timeQuantum, int contextSwitchTime) {
+    super(workload, contextSwitchTime);
+    if (cores < 1)
+      throw new IllegalArgumentException("At least one core is needed: " + cores);
+    this.cores = cores;
+    this.queueMode = queueMode;
+    this.policy = policy;
+    this.timeQuantum = timeQuantum;
+    this.coreBusyTime = new long[cores];
+    this.coreSwitchTime = new long[cores];
+    this.coreCompletedJobs = new int[cores];
+    this.coreSteals = new int[cores];
+  }
+
+  @Override
+  protected int getCoreCount() {
+    return cores;
+  }
+
+  public QueueMode getQueueMode() {
+    return queueMode;
+  }
+
+  public StreamingScheduler.Policy getPolicy() {
+    return policy;
+  }
+
+  public LinkedList<String> schedule() {
+    clearMetrics();
+    Arrays.fill(coreBusyTime, 0L);
+    Arrays.fill(coreSwitchTime, 0L);
+    Arrays.fill(coreCompletedJobs, 0);
+    Arrays.fill(coreSteals, 0);
+    makespan = 0;
+
+    var workload = getWorkload();
+    if (workload.size() == 0) {
+      getScheduleTable().addLast("---- Empty Process Block ----");
+      return getScheduleTable();
+    }
+
+    int[] arrivalOrder = workload.arrivalOrder();
+    int next = 0;
+    int[] remainingTime = new int[workload.size()];
+    for (int job = 0; job < remainingTime.length; job++)
+      remainingTime[job] = workload.getBurstTime(job);
+
+    var queues = new ReadyQueues(workload, queueMode == QueueMode.GLOBAL ? 1 : cores);
+    int placement = 0; // next core an arrival is queued on (per-core modes)
+
+    // State of every core: running job (-1: idle), last job it ran, and its current slice
+    int[] coreJob = new int[cores];
+    int[] lastJob = new int[cores];
+    int[] sliceStart = new int[cores];
+    int[] sliceEnd = new int[cores];
+    int[] switchEnd = new int[cores];          // FCFS: end of the switch after the last job
+    boolean[] completed = new boolean[cores];  // SJF, PRIORITY: completed a job at this instant
+    int started = 0;                           // jobs dispatched at least once
+    Arrays.fill(coreJob, -1);
+    Arrays.fill(lastJob, -1);
+    var busyCores = new JobHeap((c1, c2) -> {
+      if (sliceEnd[c1] != sliceEnd[c2])
+        return Integer.compare(sliceEnd[c1], sliceEnd[c2]);
+      return Integer.compare(c1, c2);
+    }, cores);
+    int[] expired = new int[cores]; // cores whose job needs another quantum
+    int lastCompletion = 0;
+
+    while (next < arrivalOrder.length || !busyCores.isEmpty()) {
+      int timer = Integer.MAX_VALUE;
+      if (next < arrivalOrder.length)
+        timer = workload.getArrivalTime(arrivalOrder[next]);
+      if (!busyCores.isEmpty())
+        timer = Math.min(timer, sliceEnd[busyCores.peek()]);
+
+      // 1. Slices ending now
+      int expiredCount = 0;
+      while (!busyCores.isEmpty() && sliceEnd[busyCores.peek()] == timer) {
+        int core = busyCores.poll();
+        int job = coreJob[core];
+        remainingTime[job] -= sliceEnd[core] - sliceStart[core];
+        coreBusyTime[core] += sliceEnd[core] - sliceStart[core];
+        coreJob[core] = -1;
+        if (remainingTime[job] == 0) {
+          complete(job, timer);
+          coreCompletedJobs[core]++;
+          lastCompletion = timer;
+          completed[core] = true;
+          if (policy == StreamingScheduler.Policy.FCFS && started < remainingTime.length) {
+            int switchTime = switchContext();
+            coreSwitchTime[core] += switchTime;
+            switchEnd[core] = timer + switchTime;
+          }
+        } else {
+          expired[expiredCount++] = core;
+        }
+      }
+
+      // 2. Arrivals
+      while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer) {
+        int queue = 0;
+        if (queueMode != QueueMode.GLOBAL) {
+          queue = placement;
+          placement = (placement + 1) % cores;
+        }
+        queues.add(queue, arrivalOrder[next++]);
+      }
+
+      // 3. Jobs back from an expired quantum
+      for (int i = 0; i < expiredCount; i++)
+        queues.add(queueMode == QueueMode.GLOBAL ? 0 : expired[i], lastJob[expired[i]]);
+
+      // 4. Idle cores pick their next job, the ones still switching (FCFS) last
+      for (int pick = 0; pick < 2 * cores && !queues.isEmpty(); pick++) {
+        int core = pick % cores;
+        if (coreJob[core] != -1 || (pick < cores) == (switchEnd[core] > timer))
+          continue;
+        int job = take(queues, core);
+        if (job == -1)
+          continue;
+        int start = Math.max(timer, switchEnd[core]);
+        boolean switches = policy == StreamingScheduler.Policy.ROUND_ROBIN ? job != lastJob[core]
+            : policy != StreamingScheduler.Policy.FCFS && completed[core];
+        if (switches) {
+          int switchTime = switchContext();
+          start += switchTime;
+          coreSwitchTime[core] += switchTime;
+        }
+        if (remainingTime[job] == workload.getBurstTime(job))
+          started++;
+        int slice = remainingTime[job];
+        if (policy == StreamingScheduler.Policy.ROUND_ROBIN)
+          slice = Math.min(slice, timeQuantum);
+        coreJob[core] = job;
+        lastJob[core] = job;
+        sliceStart[core] = start;
+        start(job, start);
+        sliceEnd[core] = start + slice;
+        busyCores.add(core);
+      }
+      Arrays.fill(completed, false);
+    }
+
+    makespan = lastCompletion - workload.getMinArrivalTime();
+    finishMetrics();
+
+    return traceResult();
+  }
+
+  // Next job for an idle core, -1 if it has none (and cannot steal one)
+  private int take(ReadyQueues queues, int core) {
+    if (queueMode == QueueMode.GLOBAL)
+      return queues.isEmpty(0) ? -1 : queues.poll(0);
+    if (!queues.isEmpty(core))
+      return queues.poll(core);
+    if (queueMode != QueueMode.WORK_STEALING)
+      return -1;
+
+    int victim = -1;
+    for (int c = 0; c < cores; c++)
+      if (!queues.isEmpty(c) && (victim == -1 || queues.size(c) > queues.size(victim)))
+        victim = c;
+    if (victim == -1)
+      return -1;
+    coreSteals[core]++;
+    return queues.poll(victim);
+  }
+
+  @Override
+  public SimulationResult CollectMetrics() {
+    SimulationResult result = super.CollectMetrics();
+    result.loadImbalance = getLoadImbalance();
+    result.coreUtilization = new double[cores];
+    result.coreThroughput = new double[cores];
+    for (int core = 0; core < cores; core++) {
+      result.coreUtilization[core] = getCoreUtilization(core);
+      result.coreThroughput[core] = getCoreThroughput(core);
+    }
+    return result;
+  }
+
+  // --- Per core results ---
+
+  /** Time the core spent running jobs (context switches excluded) */
+  public long getCoreBusyTime(int core) {
+    return coreBusyTime[core];
+  }
+
+  /** Time the core spent switching between jobs */
+  public long getCoreSwitchTime(int core) {
+    return coreSwitchTime[core];
+  }
+
+  public int getCoreCompletedJobs(int core) {
+    return coreCompletedJobs[core];
+  }
+
+  /** Jobs the core took from another core's queue */
+  public int getCoreSteals(int core) {
+    return coreSteals[core];
+  }
+
+  /** Busy time over the makespan (%) */
+  public double getCoreUtilization(int core) {
+    return makespan == 0 ? 0D : (double) coreBusyTime[core] / makespan * 100.0;
+  }
+
+  /** Jobs completed on the core per time unit of the makespan */
+  public double getCoreThroughput(int core) {
+    return makespan == 0 ? 0D : (double) coreCompletedJobs[core] / makespan;
+  }
+
+  /**
+   * Busy time of the busiest core over the mean busy time, minus 1: 0 when the work is
+   * spread evenly, cores - 1 when one core did everything.
+   */
+  public double getLoadImbalance() {
+    long total = 0;
+    long max = 0;
+    for (long busy : coreBusyTime) {
+      total += busy;
+      max = Math.max(max, busy);
+    }
+    return total == 0 ? 0D : (double) max * cores / total - 1;
+  }
+
+  public void printCoreResults() {
+    for (int core = 0; core < cores; core++)
+      System.out.println("  Core " + core + ": utilization " + String.format("%.2f", getCoreUtilization(core))
+          + "%, throughput " + String.format("%.4f", getCoreThroughput(core)) + " jobs/ms, "
+          + coreCompletedJobs[core] + " jobs, " + coreSteals[core] + " steals");
+    System.out.println("  Load imbalance: " + String.format("%.3f", getLoadImbalance()));
+  }
+
+  /**
+   * The ready queues, ordered by the policy: FIFO for FCFS and Round Robin, a heap by burst
+   * time (SJF) or priority (Priority), ties by arrival time then job ID.
+   */
+  private class ReadyQueues {
+    private final JobQueue[] fifo;
+    private final JobHeap[] heap;
+    private int queued = 0;
+
+    ReadyQueues(Workload workload, int count) {
+      if (policy == StreamingScheduler.Policy.FCFS || policy == StreamingScheduler.Policy.ROUND_ROBIN) {
+        fifo = new JobQueue[count];
+        heap = null;
+        for (int q = 0; q < count; q++)
+          fifo[q] = new JobQueue(16);
+      } else {
+        boolean sjf = policy == StreamingScheduler.Policy.SJF;
+        JobComparator order = (j1, j2) -> {
+          int k1 = sjf ? workload.getBurstTime(j1) : workload.getPriority(j1);
+          int k2 = sjf ? workload.getBurstTime(j2) : workload.getPriority(j2);
+          if (k1 != k2)
+            return Integer.compare(k1, k2);
+          if (workload.getArrivalTime(j1) != workload.getArrivalTime(j2))
+            return Integer.compare(workload.getArrivalTime(j1), workload.getArrivalTime(j2));
+          return Integer.compare(j1, j2);
+        };
+        fifo = null;
+        heap = new JobHeap[count];
+        for (int q = 0; q < count; q++)
+          heap[q] = new JobHeap(order, 16);
+      }
+    }
+
+    boolean isEmpty() {
+      return queued == 0;
+    }
+
+    boolean isEmpty(int q) {
+      return size(q) == 0;
+    }
+
+    int size(int q) {
+      return fifo != null ? fifo[q].size() : heap[q].size();
+    }
+
+    void add(int q, int job) {
+      queued++;
+      if (fifo != null)
+        fifo[q].add(job);
+      else
+        heap[q].add(job);
+    }
+
+    int poll(int q) {
+      queued--;
+      return fifo != null ? fifo[q].poll() : heap[q].poll();
+    }
+  }
+}
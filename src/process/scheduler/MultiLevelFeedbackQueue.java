@@ -0,0 +1,238 @@
+package process.scheduler;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Multi-Level Feedback Queue.
+ *
+ * - New jobs enter the top level (0); the lowest occupied level runs first, each level is
+ *   round robin with its own quantum.
+ * - A job that used up the quantum of its level moves one level down (the bottom level
+ *   keeps it); a job preempted earlier keeps the time it already used at its level.
+ * - A job arriving at a higher level than the running one preempts it.
+ * - Every boostInterval time units all jobs move back to the top level.
+ *
+ * Each level is a FIFO of job IDs linked through an int array, and a bit per level records
+ * which ones hold jobs, so the next job is found in O(1) with Long.numberOfTrailingZeros
+ * (hence at most 64 levels). A boost splices the lower levels behind the top one in
+ * O(levels) and resets the jobs' levels lazily (by boost epoch), however many jobs wait.
+ * contextSwitchTime is paid whenever the CPU starts a job other than the one it ran last,
+ * as in RoundRobin; with a single level and no boost the schedule equals RoundRobin's.
+ */
+public class MultiLevelFeedbackQueue extends Scheduler {
+  private final int[] quanta;
+  private final int boostInterval;
+  // Run state of schedule(): per level queues as linked lists (-1 ends a list)
+  private int[] head;
+  private int[] tail;
+  private int[] link; // next job in the same queue
+  private long occupied; // bit l set: level l holds jobs
+  private int[] level;
+  private int[] used; // time used at the current level
+  private int[] epoch; // boosts seen when level and used were last set
+  private int boosts;
+
+  /**
+   * @param quanta        time quantum of each level, top level first
+   * @param boostInterval time between priority boosts, 0 disables them
+   */
+  public MultiLevelFeedbackQueue(List<PCB> processes, int[] quanta, int boostInterval, int contextSwitchTime) {
+    super(processes, contextSwitchTime);
+    this.quanta = checkQuanta(quanta);
+    this.boostInterval = checkBoostInterval(boostInterval);
+  }
+
+  public MultiLevelFeedbackQueue(Workload workload, int[] quanta, int boostInterval, int contextSwitchTime) {
+    super(workload, contextSwitchTime);
+    this.quanta = checkQuanta(quanta);
+    this.boostInterval = checkBoostInterval(boostInterval);
+  }
+
+  private static int[] checkQuanta(int[] quanta) {
+    if (quanta.length < 1 || quanta.length > Long.SIZE)
+      throw new IllegalArgumentException("MLFQ needs 1 to " + Long.SIZE + " levels: " + quanta.length);
+    for (int quantum : quanta)
+      if (quantum < 1)
+        throw new IllegalArgumentException("Time quantum must be positive: " + quantum);
+    return quanta.clone();
+  }
+
+  private static int checkBoostInterval(int boostInterval) {
+    if (boostInterval < 0)
+      throw new IllegalArgumentException("Boost interval must not be negative: " + boostInterval);
+    return boostInterval;
+  }
+
+  public int getLevels() {
+    return quanta.length;
+  }
+
+  public int getQuantum(int level) {
+    return quanta[level];
+  }
+
+  public int getBoostInterval() {
+    return boostInterval;
+  }
+
+  public LinkedList<String> schedule() {
+    clearMetrics();
+
+    var workload = getWorkload();
+    if (workload.size() == 0) {
+      getScheduleTable().addLast("---- Empty Process Block ----");
+      return getScheduleTable();
+    }
+
+    int[] arrivalOrder = workload.arrivalOrder();
+    int next = 0;
+    int[] remainingTime = new int[workload.size()];
+    for (int job = 0; job < remainingTime.length; job++)
+      remainingTime[job] = workload.getBurstTime(job);
+    head = new int[quanta.length];
+    tail = new int[quanta.length];
+    Arrays.fill(head, -1);
+    link = new int[workload.size()];
+    occupied = 0L;
+    level = new int[workload.size()];
+    used = new int[workload.size()];
+    epoch = new int[workload.size()];
+    boosts = 0;
+
+    long nextBoost = boostInterval > 0 ? boostInterval : Long.MAX_VALUE;
+    int timer = 0;
+    int runningJob = -1;
+    int previousJob = -1;
+    int runStart = 0;   // start of the running job's current stretch on the CPU, for the trace
+    int sliceStart = 0; // time up to which the running job's progress is accounted
+
+    while (true) {
+      if (runningJob == -1) {
+        while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer)
+          enqueue(arrivalOrder[next++]);
+        if (occupied == 0L) {
+          if (next == arrivalOrder.length)
+            break; // every job completed
+          // CPU idle until the next arrival
+          int arrival = workload.getArrivalTime(arrivalOrder[next]);
+          trace(timer, arrival, EventLog.IDLE);
+          timer = arrival;
+          continue;
+        }
+        if (nextBoost <= timer)
+          nextBoost = boost(timer, -1);
+
+        runningJob = poll();
+
+        // Context Switching Time
+        if (runningJob != previousJob)
+          timer += switchContext();
+        previousJob = runningJob;
+        runStart = sliceStart = timer;
+        start(runningJob, timer);
+      }
+
+      // Next event: the quantum ends or the job completes, unless a boost or (for a job below
+      // the top level) an arrival comes first; events during the context switch wait for its end
+      int sliceEnd = sliceStart + Math.min(quanta[level[runningJob]] - used[runningJob], remainingTime[runningJob]);
+      int event = sliceEnd;
+      if (level[runningJob] > 0 && next < arrivalOrder.length)
+        event = Math.min(event, Math.max(sliceStart, workload.getArrivalTime(arrivalOrder[next])));
+      if (nextBoost < event)
+        event = (int) Math.max(sliceStart, nextBoost);
+
+      remainingTime[runningJob] -= event - sliceStart;
+      used[runningJob] += event - sliceStart;
+      timer = sliceStart = event;
+
+      if (remainingTime[runningJob] == 0) {
+        trace(runStart, timer, runningJob);
+        complete(runningJob, timer);
+        runningJob = -1;
+      } else if (used[runningJob] == quanta[level[runningJob]]) {
+        // Quantum used up: one level down, behind the jobs that arrived meanwhile
+        trace(runStart, timer, runningJob);
+        level[runningJob] = Math.min(level[runningJob] + 1, quanta.length - 1);
+        used[runningJob] = 0;
+        while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer)
+          enqueue(arrivalOrder[next++]);
+        enqueue(runningJob);
+        runningJob = -1;
+      } else {
+        while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer)
+          enqueue(arrivalOrder[next++]);
+        if (nextBoost <= timer)
+          nextBoost = boost(timer, runningJob);
+        // Preempt for a job on a higher level
+        if (occupied != 0L && Long.numberOfTrailingZeros(occupied) < level[runningJob]) {
+          if (runStart < timer)
+            trace(runStart, timer, runningJob);
+          enqueue(runningJob);
+          runningJob = -1;
+        }
+      }
+    }
+
+    head = tail = link = level = used = epoch = null;
+    finishMetrics();
+
+    return traceResult();
+  }
+
+  private void enqueue(int job) {
+    if (epoch[job] != boosts) {
+      level[job] = used[job] = 0;
+      epoch[job] = boosts;
+    }
+    int l = level[job];
+    link[job] = -1;
+    if (head[l] == -1)
+      head[l] = job;
+    else
+      link[tail[l]] = job;
+    tail[l] = job;
+    occupied |= 1L << l;
+  }
+
+  // Head of the highest occupied level
+  private int poll() {
+    int l = Long.numberOfTrailingZeros(occupied);
+    int job = head[l];
+    head[l] = link[job];
+    if (head[l] == -1)
+      occupied &= ~(1L << l);
+    if (epoch[job] != boosts) {
+      level[job] = used[job] = 0;
+      epoch[job] = boosts;
+    }
+    return job;
+  }
+
+  /**
+   * Moves every job, the running one included (-1: none), back to the top level with a
+   * fresh quantum; lower levels queue up behind the top level in level order.
+   * @return the time of the next boost
+   */
+  private long boost(int timer, int runningJob) {
+    for (int l = 1; l < head.length; l++) {
+      if (head[l] == -1)
+        continue;
+      if (head[0] == -1)
+        head[0] = head[l];
+      else
+        link[tail[0]] = head[l];
+      tail[0] = tail[l];
+      head[l] = -1;
+    }
+    if (occupied != 0L)
+      occupied = 1L;
+    boosts++; // queued jobs pick up level 0 and a fresh quantum when next touched
+    if (runningJob != -1) {
+      level[runningJob] = used[runningJob] = 0;
+      epoch[runningJob] = boosts;
+    }
+    return ((long) timer / boostInterval + 1) * boostInterval;
+  }
+}
@@ -0,0 +1,406 @@
+package process.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Single CPU scheduler as a live component: jobs are submitted while it runs, the simulated
+ * clock is advanced step by step, and the running metrics can be read at any time.
+ *
+ * The decisions are EventDrivenScheduler's (same events, same EventPolicy, same context
+ * switch rule), so submitting a workload's jobs and advancing past the last completion
+ * gives the schedule EventDrivenScheduler computes for it (for AFTER_EVERY_JOB, "jobs left
+ * to start" are the submitted ones). Only live jobs (submitted, not
+ * completed) are held, in recycled slots, and the metrics are running sums: every event
+ * costs O(log n) in the live jobs (O(1) for FCFS and RoundRobin), however many jobs
+ * completed before. Not thread-safe.
+ *
+ *   OnlineScheduler cpu = new OnlineScheduler(EventPolicies.srtf(), 1);
+ *   long job = cpu.submit(8, 0);
+ *   cpu.advanceTo(100);
+ *   cpu.getAverageWaitingTime();
+ */
+public class OnlineScheduler {
+  // Event types, in the order they are handled at equal times; HORIZON ends advanceTo
+  private static final int HORIZON = 0;
+  private static final int ARRIVAL = 1;
+  private static final int PREEMPT = 2;
+  private static final int COMPLETE = 3;
+  private static final int SWITCHED = 4;
+  private static final int DISPATCH = 5;
+
+  /**
+   * Told about every completed job, as it completes.
+   */
+  @FunctionalInterface
+  public interface CompletionListener {
+    void completed(long job, long arrivalTime, long completionTime);
+  }
+
+  private final EventPolicy policy;
+  private final SimulationEngine engine;
+  private final int contextSwitchTime;
+  private CompletionListener listener;
+
+  // --- Slots of the live jobs ---
+  private long[] jobNumber = new long[64];
+  private long[] arrivalTime = new long[64];
+  private int[] burstTime = new int[64];
+  private int[] priority = new int[64];
+  private int[] remainingTime = new int[64];
+  private boolean[] started = new boolean[64];
+  private int[] freeSlots = new int[64];
+  private int freeCount = 0;
+  private int usedSlots = 0;
+
+  private final JobTable jobs = new JobTable() {
+    @Override
+    public long getArrivalTime(int job) {
+      return arrivalTime[job];
+    }
+
+    @Override
+    public int getBurstTime(int job) {
+      return burstTime[job];
+    }
+
+    @Override
+    public int getPriority(int job) {
+      return priority[job];
+    }
+
+    @Override
+    public int getRemainingTime(int job) {
+      return remainingTime[job];
+    }
+
+    @Override
+    public long getSequence(int job) {
+      return jobNumber[job];
+    }
+  };
+
+  // --- Run state ---
+  private int runningJob = -1;        // slot, -1: none
+  private long previousJob = -1;      // job number of the job that ran last
+  private long runStart;
+  private int sliceEvent;
+  private long freeSince = 0;        // CPU idle since, while no job runs (after the switch for AFTER_EVERY_JOB)
+  private boolean switching = false; // BEFORE_CHOICE: switching, the job is chosen at SWITCHED
+  private boolean dispatchPending = false;
+  private int readyJobs = 0;
+
+  // --- Running metrics ---
+  private long submittedJobs = 0;
+  private long arrivedJobs = 0;
+  private long completedJobs = 0;
+  private long firstArrival = -1;
+  private long totalTurnAroundTime = 0;
+  private long totalWaitingTime = 0;
+  private long totalResponseTime = 0;
+  private long busyTime = 0; // of the finished stretches on the CPU
+  private long contextSwitches = 0;
+  private final LatencyHistogram waitingTimeHistogram = new LatencyHistogram();
+  private final LatencyHistogram turnAroundTimeHistogram = new LatencyHistogram();
+  private final LatencyHistogram responseTimeHistogram = new LatencyHistogram();
+
+  public OnlineScheduler(EventPolicy policy, int contextSwitchTime) {
+    this(policy, PendingEventSet.Kind.HEAP, contextSwitchTime);
+  }
+
+  public OnlineScheduler(EventPolicy policy, PendingEventSet.Kind events, int contextSwitchTime) {
+    this.policy = policy;
+    this.engine = new SimulationEngine(events);
+    this.contextSwitchTime = contextSwitchTime;
+    policy.reset(jobs);
+  }
+
+  public void setCompletionListener(CompletionListener listener) {
+    this.listener = listener;
+  }
+
+  /** The simulated clock */
+  public long now() {
+    return engine.now();
+  }
+
+  /**
+   * Submits a job arriving now.
+   * @return its job number: jobs are numbered 0, 1, ... in submission order
+   */
+  public long submit(int burstTime, int priority) {
+    return submit(now(), burstTime, priority);
+  }
+
+  /**
+   * Submits a job arriving at arrivalTime, now or later. Jobs arriving at the same time are
+   * admitted in submission order.
+   * @return its job number
+   */
+  public long submit(long arrivalTime, int burstTime, int priority) {
+    if (arrivalTime < now())
+      throw new IllegalArgumentException("Arrival at " + arrivalTime + " is in the past, now is " + now());
+    if (burstTime < 1)
+      throw new IllegalArgumentException("Burst time must be positive: " + burstTime);
+    int slot = allocateSlot();
+    this.jobNumber[slot] = submittedJobs;
+    this.arrivalTime[slot] = arrivalTime;
+    this.burstTime[slot] = burstTime;
+    this.priority[slot] = priority;
+    this.remainingTime[slot] = burstTime;
+    this.started[slot] = false;
+    engine.schedule(arrivalTime, ARRIVAL, slot);
+    return submittedJobs++;
+  }
+
+  /**
+   * Moves the clock to time, handling every event before it. The events at time itself
+   * wait for the next advance, so jobs submitted now join the ones arriving at the same time
+   * before the CPU picks among them.
+   */
+  public void advanceTo(long time) {
+    engine.schedule(time, HORIZON, -1); // refuses a time in the past
+    engine.run(this::handle);
+  }
+
+  /**
+   * Advances until every submitted job completed (the clock stops at the last event).
+   */
+  public void drain() {
+    engine.run(this::handle);
+  }
+
+  private void handle(int type, int job) {
+    long now = engine.now();
+    switch (type) {
+      case ARRIVAL:
+        arrivedJobs++;
+        if (firstArrival < 0)
+          firstArrival = now;
+        if (runningJob != -1 && remainingTime[bringUpToDate(now)] > 0 && policy.preempts(job, runningJob)) {
+          engine.cancel(sliceEvent);
+          ready(job);
+          stop(now);
+        } else {
+          ready(job);
+        }
+        requestDispatch(now);
+        break;
+      case PREEMPT:
+        bringUpToDate(now);
+        stop(now);
+        requestDispatch(now);
+        break;
+      case COMPLETE:
+        busyTime += now - runStart;
+        complete(job, now);
+        runningJob = -1;
+        freeSince = now;
+        if (policy.contextSwitch() == EventPolicy.ContextSwitch.AFTER_EVERY_JOB && completedJobs < submittedJobs)
+          freeSince += switchContext();
+        requestDispatch(now);
+        break;
+      case SWITCHED:
+        switching = false;
+        run(poll(), now);
+        break;
+      case DISPATCH:
+        dispatchPending = false;
+        if (runningJob == -1 && !switching && readyJobs > 0)
+          dispatch(now);
+        break;
+      case HORIZON:
+        engine.stop();
+        break;
+      default:
+        throw new IllegalStateException("Unknown event type " + type);
+    }
+  }
+
+  private void ready(int job) {
+    policy.add(job);
+    readyJobs++;
+  }
+
+  private void requestDispatch(long now) {
+    if (!dispatchPending && runningJob == -1 && !switching) {
+      engine.schedule(now, DISPATCH, -1);
+      dispatchPending = true;
+    }
+  }
+
+  private void dispatch(long now) {
+    // Straight from a job that completed or was preempted now, not after idling
+    boolean betweenJobs = freeSince == now && previousJob != -1;
+
+    // Context Switching Time, as in EventDrivenScheduler
+    switch (policy.contextSwitch()) {
+      case AFTER_EVERY_JOB: // paid at the completion
+        run(poll(), Math.max(now, freeSince));
+        break;
+      case BETWEEN_JOBS:
+        run(poll(), betweenJobs ? now + switchContext() : now);
+        break;
+      case BEFORE_CHOICE:
+        if (betweenJobs) {
+          switching = true;
+          engine.schedule(now + switchContext(), SWITCHED, -1);
+        } else {
+          run(poll(), now);
+        }
+        break;
+      default:
+        int job = poll();
+        run(job, jobNumber[job] != previousJob ? now + switchContext() : now);
+    }
+  }
+
+  private int poll() {
+    readyJobs--;
+    return policy.poll();
+  }
+
+  private long switchContext() {
+    contextSwitches++;
+    return contextSwitchTime;
+  }
+
+  // Runs job from timer on, until its slice ends or it completes
+  private void run(int job, long timer) {
+    runningJob = job;
+    previousJob = jobNumber[runningJob];
+    runStart = timer;
+    if (!started[runningJob]) {
+      started[runningJob] = true;
+      long responseTime = timer - arrivalTime[runningJob];
+      totalResponseTime += responseTime;
+      responseTimeHistogram.record(responseTime);
+    }
+
+    int slice = policy.slice(runningJob);
+    if (slice < remainingTime[runningJob])
+      sliceEvent = engine.schedule(runStart + slice, PREEMPT, runningJob);
+    else
+      sliceEvent = engine.schedule(runStart + remainingTime[runningJob], COMPLETE, runningJob);
+  }
+
+  // Accounts the running job's progress up to now (none during its context switch)
+  private int bringUpToDate(long now) {
+    if (runStart < now) {
+      remainingTime[runningJob] -= (int) (now - runStart);
+      busyTime += now - runStart;
+      runStart = now;
+    }
+    return runningJob;
+  }
+
+  // The running job, up to date, goes back to the ready queue
+  private void stop(long now) {
+    ready(runningJob);
+    runningJob = -1;
+    freeSince = now;
+  }
+
+  private void complete(int slot, long timer) {
+    long turnAroundTime = timer - arrivalTime[slot];
+    long waitingTime = turnAroundTime - burstTime[slot];
+    completedJobs++;
+    totalTurnAroundTime += turnAroundTime;
+    totalWaitingTime += waitingTime;
+    turnAroundTimeHistogram.record(turnAroundTime);
+    waitingTimeHistogram.record(waitingTime);
+    if (listener != null)
+      listener.completed(jobNumber[slot], arrivalTime[slot], timer);
+    freeSlots[freeCount++] = slot;
+  }
+
+  private int allocateSlot() {
+    if (freeCount > 0)
+      return freeSlots[--freeCount];
+    if (usedSlots == jobNumber.length) {
+      int capacity = jobNumber.length << 1;
+      jobNumber = Arrays.copyOf(jobNumber, capacity);
+      arrivalTime = Arrays.copyOf(arrivalTime, capacity);
+      burstTime = Arrays.copyOf(burstTime, capacity);
+      priority = Arrays.copyOf(priority, capacity);
+      remainingTime = Arrays.copyOf(remainingTime, capacity);
+      started = Arrays.copyOf(started, capacity);
+      freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+    return usedSlots++;
+  }
+
+  // --- Running metrics, O(1) ---
+
+  public long getSubmittedJobs() {
+    return submittedJobs;
+  }
+
+  public long getCompletedJobs() {
+    return completedJobs;
+  }
+
+  /** Jobs that arrived and did not complete: the ready ones and the running one */
+  public long getJobsInSystem() {
+    return arrivedJobs - completedJobs;
+  }
+
+  /** Jobs in the ready queue */
+  public int getReadyJobs() {
+    return readyJobs;
+  }
+
+  /** Job number of the job on the CPU (or switched to), -1 when idle */
+  public long getRunningJob() {
+    return runningJob == -1 ? -1 : jobNumber[runningJob];
+  }
+
+  public long getContextSwitches() {
+    return contextSwitches;
+  }
+
+  /** Over the completed jobs */
+  public double getAverageWaitingTime() {
+    return completedJobs == 0 ? 0.0 : (double) totalWaitingTime / completedJobs;
+  }
+
+  /** Over the completed jobs */
+  public double getAverageTurnAroundTime() {
+    return completedJobs == 0 ? 0.0 : (double) totalTurnAroundTime / completedJobs;
+  }
+
+  /** Over the jobs that got the CPU */
+  public double getAverageResponseTime() {
+    long responded = responseTimeHistogram.getCount();
+    return responded == 0 ? 0.0 : (double) totalResponseTime / responded;
+  }
+
+  /** Time the CPU ran jobs, up to now */
+  public long getBusyTime() {
+    return runningJob != -1 && runStart < now() ? busyTime + now() - runStart : busyTime;
+  }
+
+  /** Busy time over the time since the first arrival (%) */
+  public double getCpuUtilization() {
+    long elapsed = firstArrival < 0 ? 0 : now() - firstArrival;
+    return elapsed == 0 ? 0.0 : (double) getBusyTime() / elapsed * 100.0;
+  }
+
+  /** Completed jobs per time unit since the first arrival */
+  public double getThroughput() {
+    long elapsed = firstArrival < 0 ? 0 : now() - firstArrival;
+    return elapsed == 0 ? 0.0 : (double) completedJobs / elapsed;
+  }
+
+  /** Waiting times of the completed jobs (updated live, do not modify) */
+  public LatencyHistogram getWaitingTimeHistogram() {
+    return waitingTimeHistogram;
+  }
+
+  public LatencyHistogram getTurnAroundTimeHistogram() {
+    return turnAroundTimeHistogram;
+  }
+
+  public LatencyHistogram getResponseTimeHistogram() {
+    return responseTimeHistogram;
+  }
+}
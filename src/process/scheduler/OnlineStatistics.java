@@ -0,0 +1,172 @@
+package process.scheduler;
+
+/**
+ * Constant-memory running mean and variance (Welford's algorithm), with Student-t
+ * confidence intervals for any number of observations.
+ */
+public class OnlineStatistics {
+  private long count = 0;
+  private double mean = 0D;
+  private double m2 = 0D; // sum of squared deviations from the mean
+
+  public void add(double value) {
+    count++;
+    double delta = value - mean;
+    mean += delta / count;
+    m2 += delta * (value - mean);
+  }
+
+  /**
+   * Folds another accumulator into this one (Chan et al. parallel update).
+   */
+  public void merge(OnlineStatistics other) {
+    if (other.count == 0)
+      return;
+    long total = count + other.count;
+    double delta = other.mean - mean;
+    mean += delta * other.count / total;
+    m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+    count = total;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMean() {
+    return mean;
+  }
+
+  /** Sample variance (N - 1 denominator) */
+  public double getVariance() {
+    return count > 1 ? m2 / (count - 1) : 0D;
+  }
+
+  /** Sample standard deviation */
+  public double getStdDev() {
+    return Math.sqrt(getVariance());
+  }
+
+  /**
+   * Half-width of the two-sided confidence interval of the mean.
+   * @param confidence confidence level, e.g. 0.95
+   */
+  public double getHalfWidth(double confidence) {
+    if (count < 2)
+      return Double.POSITIVE_INFINITY;
+    return tQuantile(0.5 + confidence / 2, count - 1) * getStdDev() / Math.sqrt(count);
+  }
+
+  /**
+   * Half-width relative to the mean; 0 when both are 0.
+   */
+  public double getRelativeHalfWidth(double confidence) {
+    double halfWidth = getHalfWidth(confidence);
+    if (halfWidth == 0D)
+      return 0D;
+    return halfWidth / Math.abs(mean);
+  }
+
+  // --- Student-t distribution ---
+
+  /**
+   * Quantile of the Student-t distribution, found by bisection on its CDF.
+   * @param p                probability, in (0, 1)
+   * @param degreesOfFreedom degrees of freedom (>= 1)
+   */
+  public static double tQuantile(double p, double degreesOfFreedom) {
+    if (p == 0.5)
+      return 0D;
+    if (p < 0.5)
+      return -tQuantile(1 - p, degreesOfFreedom);
+
+    double low = 0D, high = 1D;
+    while (tCdf(high, degreesOfFreedom) < p)
+      high *= 2;
+    for (int i = 0; i < 200 && high - low > 1e-12 * high; i++) {
+      double mid = (low + high) / 2;
+      if (tCdf(mid, degreesOfFreedom) < p)
+        low = mid;
+      else
+        high = mid;
+    }
+    return (low + high) / 2;
+  }
+
+  /** CDF of the Student-t distribution */
+  public static double tCdf(double t, double degreesOfFreedom) {
+    double x = degreesOfFreedom / (degreesOfFreedom + t * t);
+    double tail = 0.5 * regularizedIncompleteBeta(x, degreesOfFreedom / 2, 0.5);
+    return t >= 0 ? 1 - tail : tail;
+  }
+
+  /**
+   * CDF of the standard normal distribution (within 1.2e-7 relative error, Chebyshev fit of
+   * erfc).
+   */
+  public static double normalCdf(double x) {
+    double z = Math.abs(x) / Math.sqrt(2);
+    double t = 1 / (1 + 0.5 * z);
+    double erfc = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+        + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587 + t * (-0.82215223
+        + t * 0.17087277)))))))));
+    return x >= 0 ? 1 - 0.5 * erfc : 0.5 * erfc;
+  }
+
+  // I_x(a, b), evaluated with the continued fraction on the side where it converges fast
+  private static double regularizedIncompleteBeta(double x, double a, double b) {
+    if (x <= 0D)
+      return 0D;
+    if (x >= 1D)
+      return 1D;
+    double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+    if (x < (a + 1) / (a + b + 2))
+      return front * betaContinuedFraction(x, a, b) / a;
+    return 1 - front * betaContinuedFraction(1 - x, b, a) / b;
+  }
+
+  // Modified Lentz evaluation of the incomplete beta continued fraction
+  private static double betaContinuedFraction(double x, double a, double b) {
+    final double tiny = 1e-300;
+    double c = 1D;
+    double d = 1 - (a + b) * x / (a + 1);
+    d = 1 / (Math.abs(d) < tiny ? tiny : d);
+    double h = d;
+    for (int m = 1; m <= 500; m++) {
+      int m2 = 2 * m;
+      double aa = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+      d = 1 + aa * d;
+      d = 1 / (Math.abs(d) < tiny ? tiny : d);
+      c = 1 + aa / c;
+      c = Math.abs(c) < tiny ? tiny : c;
+      h *= d * c;
+
+      aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+      d = 1 + aa * d;
+      d = 1 / (Math.abs(d) < tiny ? tiny : d);
+      c = 1 + aa / c;
+      c = Math.abs(c) < tiny ? tiny : c;
+      double delta = d * c;
+      h *= delta;
+      if (Math.abs(delta - 1) < 1e-15)
+        break;
+    }
+    return h;
+  }
+
+  // Lanczos approximation (g = 7, n = 9)
+  private static final double[] LANCZOS = { 0.99999999999980993, 676.5203681218851, -1259.1392167224028,
+      771.32342877765313, -176.61502916214059, 12.507343278686905, -0.13857109526572012,
+      9.9843695780195716e-6, 1.5056327351493116e-7 };
+
+  private static double logGamma(double x) {
+    if (x < 0.5)
+      return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * x))) - logGamma(1 - x);
+    x -= 1;
+    double sum = LANCZOS[0];
+    for (int i = 1; i < LANCZOS.length; i++)
+      sum += LANCZOS[i] / (x + i);
+    double t = x + 7.5;
+    return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(sum);
+  }
+}
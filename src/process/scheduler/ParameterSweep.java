@@ -0,0 +1,332 @@
+package process.scheduler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a comparative study for every point of a parameter grid (numJobs x meanInterArrival
+ * x timeQuantum x contextSwitchTime) and writes all their replications to one result file.
+ *
+ * Common random numbers: replication i of every grid point is generated from the same seed,
+ * and the grid points that only differ in timeQuantum or contextSwitchTime (which do not
+ * enter workload generation) run on the very same Workload objects. Each distinct
+ * (numJobs, meanInterArrival) workload is generated once, and differences between grid
+ * points are not blurred by sampling noise. Any grid point equals a standalone
+ * ExperimentManager run with the base seed.
+ *
+ * The points of one workload group run concurrently on `base.parallelism` threads (each
+ * point runs its replications sequentially); groups run one after the other, so only one
+ * group's workloads are in memory at a time. Rows reach the result file in grid order.
+ * On a single core, FCFS (whose results only depend on the workload and contextSwitchTime)
+ * runs through FcfsBatch: once per switch time for all replications of a group, shared by
+ * the points that differ in timeQuantum.
+ * With base.resultCache set, grid points whose results are cached are not simulated again,
+ * e.g. when a sweep is re-run with one algorithm added. Every other base parameter carries
+ * over to the points; base.timeSeriesFile gets one file per point, named after it.
+ */
+public class ParameterSweep {
+    // Consolidated long format CSV: the grid point, then the columns of CsvResultSink
+    public static final String OUTPUT_FILE = "sweep_results.csv";
+
+    private final ExperimentManager.Parameters base;
+    // Grid axes, each defaulting to the value in the base parameters
+    public int[] numJobs;
+    public double[] meanInterArrivals;
+    public int[] timeQuanta;
+    public int[] contextSwitchTimes;
+    public String resultsFile = OUTPUT_FILE;
+    // One cache (base.resultCache) shared by all grid points
+    private ResultCache resultCache;
+
+    /**
+     * @param base every parameter not swept; replications must be fixed (no sequential
+     *             mode), independent (no variance reduction) and in memory (no streaming)
+     */
+    public ParameterSweep(ExperimentManager.Parameters base) {
+        if (base.streaming)
+            throw new IllegalArgumentException("A sweep shares in-memory workloads, streaming is not supported");
+        if (base.targetRelativePrecision > 0)
+            throw new IllegalArgumentException("A sweep runs a fixed number of replications per grid point");
+        if (base.antithetic || base.controlVariates)
+            throw new IllegalArgumentException("A sweep shares independent workloads, variance reduction is not supported");
+        this.base = base;
+        this.numJobs = new int[] { base.numJobs };
+        this.meanInterArrivals = new double[] { base.meanInterArrival };
+        this.timeQuanta = new int[] { base.timeQuantum };
+        this.contextSwitchTimes = new int[] { base.contextSwitchTime };
+    }
+
+    /** from, from + step, ... up to and including to */
+    public static int[] range(int from, int to, int step) {
+        if (step < 1 || to < from)
+            throw new IllegalArgumentException("Empty range " + from + ".." + to + " step " + step);
+        int[] values = new int[(to - from) / step + 1];
+        for (int i = 0; i < values.length; i++)
+            values[i] = from + i * step;
+        return values;
+    }
+
+    /** from, from + step, ... up to to (included up to rounding) */
+    public static double[] range(double from, double to, double step) {
+        if (!(step > 0) || to < from)
+            throw new IllegalArgumentException("Empty range " + from + ".." + to + " step " + step);
+        double[] values = new double[(int) Math.floor((to - from) / step + 1e-9) + 1];
+        for (int i = 0; i < values.length; i++)
+            values[i] = from + i * step;
+        return values;
+    }
+
+    /**
+     * One grid point with the comparative study that ran for it.
+     */
+    public static class Point {
+        public final int numJobs;
+        public final double meanInterArrival;
+        public final int timeQuantum;
+        public final int contextSwitchTime;
+        private ExperimentManager manager;
+        private StringBuilder rows;
+
+        Point(int numJobs, double meanInterArrival, int timeQuantum, int contextSwitchTime) {
+            this.numJobs = numJobs;
+            this.meanInterArrival = meanInterArrival;
+            this.timeQuantum = timeQuantum;
+            this.contextSwitchTime = contextSwitchTime;
+        }
+
+        /** The study of this point (its statistics), once the sweep ran */
+        public ExperimentManager getManager() {
+            return manager;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "numJobs=%d meanInterArrival=%s timeQuantum=%d contextSwitchTime=%d",
+                    numJobs, meanInterArrival, timeQuantum, contextSwitchTime);
+        }
+    }
+
+    /** The grid, workload axes outermost, in the order the results are written */
+    public List<Point> getGrid() {
+        List<Point> grid = new ArrayList<>();
+        for (int n : numJobs)
+            for (double meanInterArrival : meanInterArrivals)
+                for (int timeQuantum : timeQuanta)
+                    for (int contextSwitchTime : contextSwitchTimes)
+                        grid.add(new Point(n, meanInterArrival, timeQuantum, contextSwitchTime));
+        return grid;
+    }
+
+    /**
+     * Runs every grid point.
+     * @return the grid points with their studies, in grid order
+     */
+    public List<Point> run() throws IOException {
+        List<Point> grid = getGrid();
+        int pointsPerGroup = timeQuanta.length * contextSwitchTimes.length;
+        long[] seeds = ExperimentManager.replicationSeeds(base.seed, base.replications);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, base.parallelism));
+        resultCache = base.resultCache != null ? new ResultCache(Paths.get(base.resultCache)) : null;
+        BufferedWriter writer = resultsFile != null ? Files.newBufferedWriter(Paths.get(resultsFile)) : null;
+        try {
+            if (writer != null)
+                writer.write("NumJobs,MeanInterArrival,TimeQuantum,ContextSwitchTime,Replication,Algorithm,Metric,Value\n");
+            for (int group = 0; group < grid.size(); group += pointsPerGroup) {
+                List<Point> points = grid.subList(group, group + pointsPerGroup);
+                Workload[] workloads = generate(pool, points.get(0), seeds);
+
+                Map<Integer, BatchedFcfs> fcfs = new HashMap<>();
+                List<Future<?>> running = new ArrayList<>();
+                for (Point point : points) {
+                    BatchedFcfs batched = base.cores == 1
+                            ? fcfs.computeIfAbsent(point.contextSwitchTime, cs -> new BatchedFcfs(workloads, cs))
+                            : null;
+                    running.add(pool.submit(() -> runPoint(point, workloads, batched)));
+                }
+                for (int p = 0; p < points.size(); p++) {
+                    running.get(p).get();
+                    Point point = points.get(p);
+                    if (writer != null) {
+                        writer.write(point.rows.toString());
+                        writer.flush();
+                    }
+                    point.rows = null;
+                    report(point);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sweep interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Grid point failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            if (resultCache != null)
+                resultCache.close();
+            if (writer != null)
+                writer.close();
+        }
+        if (resultCache != null)
+            System.out.println("\nResult cache: " + (resultCache.getMemoryHits() + resultCache.getDiskHits()) + " results reused, "
+                    + resultCache.getMisses() + " simulated.");
+        if (writer != null)
+            System.out.println("\nSweep results exported to " + resultsFile + ".");
+        return grid;
+    }
+
+    // The replications of a workload group, generated once in parallel exactly as
+    // ExperimentManager would generate them
+    private Workload[] generate(ForkJoinPool pool, Point point, long[] seeds)
+            throws InterruptedException, ExecutionException {
+        Workload[] workloads = new Workload[seeds.length];
+        List<Future<?>> generating = new ArrayList<>();
+        for (int r = 0; r < seeds.length; r++) {
+            int replicationID = r;
+            generating.add(pool.submit(() -> {
+                Workload workload = new JobGenerator(seeds[replicationID]).generate(point.numJobs, point.meanInterArrival,
+                        base.meanBurst, base.stdDevBurst, base.maxPriority, replicationID);
+                workload.arrivalOrder(); // computed before the workload is shared between threads
+                workloads[replicationID] = workload;
+            }));
+        }
+        for (Future<?> future : generating)
+            future.get();
+        return workloads;
+    }
+
+    // file with the grid point before its extension, e.g. simulation_timeseries_100_2.0_5_1.smt
+    private static String pointFile(String file, Point point) {
+        int dot = file.lastIndexOf('.');
+        if (dot <= Math.max(file.lastIndexOf('/'), file.lastIndexOf('\\')))
+            dot = file.length();
+        return file.substring(0, dot) + String.format(Locale.ROOT, "_%d_%s_%d_%d", point.numJobs, point.meanInterArrival,
+                point.timeQuantum, point.contextSwitchTime) + file.substring(dot);
+    }
+
+    /**
+     * @param fcfs replaces the built-in FCFS, null: none
+     */
+    private void runPoint(Point point, Workload[] workloads, BatchedFcfs fcfs) {
+        ExperimentManager.Parameters parameters = new ExperimentManager.Parameters(base);
+        parameters.numJobs = point.numJobs;
+        parameters.meanInterArrival = point.meanInterArrival;
+        parameters.timeQuantum = point.timeQuantum;
+        parameters.contextSwitchTime = point.contextSwitchTime;
+        parameters.parallelism = 1;
+        // The sweep writes the results of every point to its own file; the workloads come from the sweep
+        parameters.resultsFile = null;
+        parameters.columnarResultsFile = null;
+        parameters.workloadArchive = null;
+        parameters.printReport = false;
+        if (base.timeSeriesFile != null)
+            parameters.timeSeriesFile = pointFile(base.timeSeriesFile, point);
+
+        String prefix = String.format(Locale.ROOT, "%d,%s,%d,%d,", point.numJobs, point.meanInterArrival,
+                point.timeQuantum, point.contextSwitchTime);
+        StringBuilder rows = new StringBuilder();
+        ExperimentManager manager = new ExperimentManager(parameters);
+        manager.setWorkloadSource(replicationID -> workloads[replicationID]);
+        if (fcfs != null) {
+            List<SchedulingPolicy> policies = new ArrayList<>(SchedulingPolicies.discover());
+            policies.replaceAll(policy -> policy.getName().equals(BatchedFcfs.NAME) ? fcfs : policy);
+            manager.setPolicies(policies);
+        }
+        if (resultCache != null)
+            manager.setResultCache(resultCache);
+        manager.setResultSink(new ResultSink() {
+            @Override
+            public void accept(int replication, String algorithm, String metric, double value) {
+                rows.append(prefix).append(String.format(Locale.ROOT, "%d,%s,%s,%.2f\n", replication, algorithm, metric, value));
+            }
+
+            @Override
+            public void endReplication(int replication) {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        manager.runComparativeStudy();
+        point.manager = manager;
+        point.rows = rows;
+    }
+
+    // One line per grid point: mean waiting time of every algorithm
+    private void report(Point point) {
+        StringBuilder line = new StringBuilder(point.toString()).append(" | AvgWaitingTime:");
+        for (String algorithm : point.manager.getAlgorithmNames())
+            line.append(String.format(Locale.ROOT, " %s=%.2f", algorithm,
+                    point.manager.getStatistics(algorithm, "AvgWaitingTime").getMean()));
+        System.out.println(line);
+    }
+
+    /**
+     * The built-in FCFS for the replications of a workload group at one context switch time:
+     * FcfsBatch schedules all of them when the first one is asked for (the same results as
+     * FirstComeFirstServed), and every point of the group reads them.
+     */
+    private static final class BatchedFcfs implements SchedulingPolicy {
+        static final String NAME = "FCFS";
+
+        private final SchedulingPolicy fcfs = SchedulingPolicies.byName(NAME);
+        private final Workload[] workloads;
+        private final int contextSwitchTime;
+        private Map<Workload, Scheduler.SimulationResult> results; // by identity, once evaluated
+
+        BatchedFcfs(Workload[] workloads, int contextSwitchTime) {
+            this.workloads = workloads;
+            this.contextSwitchTime = contextSwitchTime;
+        }
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public Scheduler.SimulationResult simulate(Workload workload, ExperimentManager.Parameters parameters,
+                TimeSeriesRecorder timeSeries) {
+            if (parameters.contextSwitchTime != contextSwitchTime || !batched().containsKey(workload))
+                return fcfs.simulate(workload, parameters, timeSeries);
+            return batched().get(workload);
+        }
+
+        private synchronized Map<Workload, Scheduler.SimulationResult> batched() {
+            if (results == null) {
+                Scheduler.SimulationResult[] evaluated = FcfsBatch.evaluate(Arrays.asList(workloads), contextSwitchTime);
+                results = new IdentityHashMap<>();
+                for (int r = 0; r < workloads.length; r++)
+                    results.put(workloads[r], evaluated[r]);
+            }
+            return results;
+        }
+
+        @Override
+        public String parameterKey(ExperimentManager.Parameters parameters) {
+            return fcfs.parameterKey(parameters);
+        }
+
+        @Override
+        public StreamingScheduler.Policy getQueuePolicy() {
+            return fcfs.getQueuePolicy();
+        }
+
+        @Override
+        public boolean supportsTimeSeries() {
+            return fcfs.supportsTimeSeries();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package process.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Pending-event set of a SimulationEngine: events (time, type, job) kept in primitive
+ * arrays and addressed by int handles, taken out in (time, type, scheduling order) order.
+ *
+ * Subclasses only decide how the handles are ordered; storage, handle recycling and the
+ * event order live here.
+ */
+public abstract class PendingEventSet {
+  /**
+   * CALENDAR: calendar queue, amortized O(1) schedule and poll for well spread event times
+   * HEAP:     binary heap, O(log n) whatever the event times
+   */
+  public enum Kind {
+    CALENDAR, HEAP
+  }
+
+  public static PendingEventSet create(Kind kind) {
+    return kind == Kind.CALENDAR ? new CalendarEventSet() : new HeapEventSet();
+  }
+
+  protected long[] time = new long[64];
+  protected int[] type = new int[64];
+  protected long[] sequence = new long[64];
+  protected int[] job = new int[64];
+  private int[] nextFree = new int[64];
+  private int freeHandle = -1;
+  private int handles = 0;
+  private long scheduled = 0L;
+  protected int size = 0;
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Adds an event.
+   * @return its handle, valid until the event is cancelled or polled and released
+   */
+  public int schedule(long eventTime, int eventType, int eventJob) {
+    int handle = allocate();
+    time[handle] = eventTime;
+    type[handle] = eventType;
+    job[handle] = eventJob;
+    sequence[handle] = scheduled++;
+    insert(handle);
+    size++;
+    return handle;
+  }
+
+  /**
+   * Removes a pending event.
+   */
+  public void cancel(int handle) {
+    remove(handle);
+    size--;
+    release(handle);
+  }
+
+  /**
+   * Removes the first event; read it with getTime/getType/getJob, then release it.
+   */
+  public int poll() {
+    int handle = removeFirst();
+    size--;
+    return handle;
+  }
+
+  public void release(int handle) {
+    nextFree[handle] = freeHandle;
+    freeHandle = handle;
+  }
+
+  public long getTime(int handle) {
+    return time[handle];
+  }
+
+  public int getType(int handle) {
+    return type[handle];
+  }
+
+  public int getJob(int handle) {
+    return job[handle];
+  }
+
+  public void clear() {
+    for (int handle = 0; handle < handles; handle++)
+      nextFree[handle] = handle + 1 < handles ? handle + 1 : -1;
+    freeHandle = handles > 0 ? 0 : -1;
+    size = 0;
+    scheduled = 0L;
+    reset();
+  }
+
+  // Event order: time, then type, then scheduling order
+  protected final int compare(int h1, int h2) {
+    if (time[h1] != time[h2])
+      return Long.compare(time[h1], time[h2]);
+    if (type[h1] != type[h2])
+      return Integer.compare(type[h1], type[h2]);
+    return Long.compare(sequence[h1], sequence[h2]);
+  }
+
+  private int allocate() {
+    if (freeHandle != -1) {
+      int handle = freeHandle;
+      freeHandle = nextFree[handle];
+      return handle;
+    }
+    if (handles == time.length) {
+      int capacity = handles << 1;
+      time = Arrays.copyOf(time, capacity);
+      type = Arrays.copyOf(type, capacity);
+      sequence = Arrays.copyOf(sequence, capacity);
+      job = Arrays.copyOf(job, capacity);
+      nextFree = Arrays.copyOf(nextFree, capacity);
+      growHandles(capacity);
+    }
+    return handles++;
+  }
+
+  /** Handles now go up to capacity - 1: grow the per-handle arrays of the subclass */
+  protected abstract void growHandles(int capacity);
+
+  protected abstract void insert(int handle);
+
+  protected abstract void remove(int handle);
+
+  protected abstract int removeFirst();
+
+  /** Drops every event (the handles were already recycled) */
+  protected abstract void reset();
+}
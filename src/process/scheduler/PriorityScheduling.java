@@ -1,28 +1,242 @@
 package process.scheduler;
 
-import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 
 public class PriorityScheduling extends Scheduler {
+  // Aging (preemptive_schedule only): every agingInterval time units a job spends in the
+  // ready queue, its priority number drops by agingStep, down to 0. agingInterval 0: no aging
+  private int agingInterval = 0;
+  private int agingStep = 1;
+
   public PriorityScheduling(List<PCB> processes, int contextSwitchingTime) {
     super(processes, contextSwitchingTime);
   }
 
+  public PriorityScheduling(Workload workload, int contextSwitchingTime) {
+    super(workload, contextSwitchingTime);
+  }
+
   public LinkedList<String> non_preemptive_schedule() {
     // Priority Queue of the procces: with the provided comparator
     // it is always guaranteed to get the process with the smallest burst time at
     // the top/front of ppq;
-    Comparator<PCB> proccessQueueSorter = new Comparator<PCB>() {
-      @Override
-      public int compare(PCB p1, PCB p2) {
-        if (p1.getArrivalTime() - p2.getArrivalTime() == 0)
-          return p1.getPriority() - p2.getPriority();
-        return p1.getArrivalTime() - p2.getArrivalTime();
-      }
+    var workload = getWorkload();
+    JobComparator proccessQueueSorter = (j1, j2) -> {
+      if (workload.getArrivalTime(j1) == workload.getArrivalTime(j2))
+        return Integer.compare(workload.getPriority(j1), workload.getPriority(j2));
+      return Integer.compare(workload.getArrivalTime(j1), workload.getArrivalTime(j2));
     };
 
-    // The lower the number, theearlier it gets executed
-    return schedule(proccessQueueSorter, (p1, p2) -> p1.getPriority() - p2.getPriority());
+    // The lower the number, theearlier it gets executed; ties by arrival time, then job ID
+    // (as in MultiCoreScheduler)
+    return scheduleJobs(proccessQueueSorter, (j1, j2) -> {
+      if (workload.getPriority(j1) != workload.getPriority(j2))
+        return Integer.compare(workload.getPriority(j1), workload.getPriority(j2));
+      if (workload.getArrivalTime(j1) != workload.getArrivalTime(j2))
+        return Integer.compare(workload.getArrivalTime(j1), workload.getArrivalTime(j2));
+      return Integer.compare(j1, j2);
+    });
+  }
+
+  /**
+   * @param agingInterval ready-queue time per aging step, 0 disables aging
+   * @param agingStep     how much the priority number drops per step
+   */
+  public void setAging(int agingInterval, int agingStep) {
+    if (agingInterval < 0 || agingStep < 1)
+      throw new IllegalArgumentException("Invalid aging policy: interval " + agingInterval + ", step " + agingStep);
+    this.agingInterval = agingInterval;
+    this.agingStep = agingStep;
+  }
+
+  public int getAgingInterval() {
+    return agingInterval;
+  }
+
+  public int getAgingStep() {
+    return agingStep;
+  }
+
+  /**
+   * Preemptive priority scheduling with aging.
+   * 
+   * Ready jobs sit in an IndexedJobHeap keyed by their effective priority, so aging a
+   * queued job is an O(log n) decrease-key. Arrivals and aging steps are applied in time
+   * order, and each hands out its next aging deadline as (its time + agingInterval), so a
+   * plain FIFO holds the deadlines; a job stops aging once it reaches priority 0. The
+   * running job keeps the priority it aged to, and is preempted at an arrival or aging step
+   * that puts a strictly higher priority job in the ready queue. Every preemption costs
+   * contextSwitchTime.
+   */
+  public LinkedList<String> preemptive_schedule() {
+    clearMetrics();
+
+    var workload = getWorkload();
+    if (workload.size() == 0) {
+      getScheduleTable().addLast("---- Empty Process Block ----");
+      return getScheduleTable();
+    }
+
+    var readyQueue = new AgingReadyQueue(workload);
+    int[] remainingTime = new int[workload.size()];
+    for (int job = 0; job < remainingTime.length; job++)
+      remainingTime[job] = workload.getBurstTime(job);
+
+    int timer = 0;
+    int runningJob = -1;
+    int runStart = 0;
+    boolean switchPending = false;
+
+    while (true) {
+      if (runningJob == -1) {
+        if (readyQueue.isEmpty()) {
+          if (!readyQueue.hasArrivals())
+            break; // every job completed
+          // CPU idle until the next arrival
+          int arrival = readyQueue.nextArrival();
+          if (arrival > timer) {
+            trace(timer, arrival, EventLog.IDLE);
+            timer = arrival;
+          }
+        }
+
+        // Context Switching Time, jobs arriving or aging meanwhile compete for the CPU too
+        if (switchPending)
+          timer += switchContext();
+        switchPending = false;
+        readyQueue.advance(timer);
+
+        runningJob = readyQueue.poll();
+        runStart = timer;
+        start(runningJob, timer);
+      }
+
+      // Next event: the running job completes, or a job arrives or ages first
+      int completion = timer + remainingTime[runningJob];
+      int event = Math.min(completion, readyQueue.nextEvent());
+
+      if (event < completion) {
+        remainingTime[runningJob] -= event - timer;
+        timer = event;
+        readyQueue.advance(timer);
+
+        // Preempt only for a strictly higher priority job
+        if (readyQueue.outranks(runningJob)) {
+          trace(runStart, timer, runningJob);
+          readyQueue.enqueue(runningJob, timer);
+          runningJob = -1;
+          switchPending = true;
+        }
+      } else {
+        timer = completion;
+        remainingTime[runningJob] = 0;
+        trace(runStart, timer, runningJob);
+        complete(runningJob, timer);
+        runningJob = -1;
+
+        readyQueue.advance(timer);
+        switchPending = !readyQueue.isEmpty();
+      }
+    }
+
+    finishMetrics();
+
+    return traceResult();
+  }
+
+  /**
+   * Ready queue of preemptive_schedule: the pending arrivals, the ready jobs by effective
+   * priority (then arrival time, then ID), and the pending aging steps.
+   */
+  private class AgingReadyQueue {
+    private final Workload workload;
+    private final int[] arrivalOrder;
+    private int next = 0;
+    private final int[] effectivePriority;
+    private final int[] nextAging;
+    private final IndexedJobHeap heap;
+    // Pending aging steps: job and deadline, in deadline order
+    private final JobQueue agingJobs = new JobQueue(16);
+    private final JobQueue agingDeadlines = new JobQueue(16);
+
+    AgingReadyQueue(Workload workload) {
+      this.workload = workload;
+      this.arrivalOrder = workload.arrivalOrder();
+      this.effectivePriority = new int[workload.size()];
+      this.nextAging = new int[workload.size()];
+      for (int job = 0; job < effectivePriority.length; job++)
+        effectivePriority[job] = workload.getPriority(job);
+      this.heap = new IndexedJobHeap((j1, j2) -> {
+        if (effectivePriority[j1] != effectivePriority[j2])
+          return Integer.compare(effectivePriority[j1], effectivePriority[j2]);
+        if (workload.getArrivalTime(j1) != workload.getArrivalTime(j2))
+          return Integer.compare(workload.getArrivalTime(j1), workload.getArrivalTime(j2));
+        return Integer.compare(j1, j2);
+      }, workload.size());
+    }
+
+    boolean isEmpty() {
+      return heap.isEmpty();
+    }
+
+    boolean hasArrivals() {
+      return next < arrivalOrder.length;
+    }
+
+    int nextArrival() {
+      return workload.getArrivalTime(arrivalOrder[next]);
+    }
+
+    // Time of the next arrival or aging step (possibly of a job that left the queue since)
+    int nextEvent() {
+      int arrival = hasArrivals() ? nextArrival() : Integer.MAX_VALUE;
+      int aging = agingDeadlines.isEmpty() ? Integer.MAX_VALUE : agingDeadlines.peek();
+      return Math.min(arrival, aging);
+    }
+
+    boolean outranks(int runningJob) {
+      return !heap.isEmpty() && effectivePriority[heap.peek()] < effectivePriority[runningJob];
+    }
+
+    int poll() {
+      return heap.poll();
+    }
+
+    void enqueue(int job, int time) {
+      heap.add(job);
+      if (agingInterval > 0 && effectivePriority[job] > 0) {
+        nextAging[job] = time + agingInterval;
+        agingJobs.add(job);
+        agingDeadlines.add(nextAging[job]);
+      }
+    }
+
+    // Applies the arrivals and aging steps due by `timer` in time order (aging first on ties)
+    void advance(int timer) {
+      while (true) {
+        int arrival = hasArrivals() ? nextArrival() : Integer.MAX_VALUE;
+        int aging = agingDeadlines.isEmpty() ? Integer.MAX_VALUE : agingDeadlines.peek();
+        if (Math.min(arrival, aging) > timer)
+          return;
+        if (aging <= arrival)
+          age(agingJobs.poll(), agingDeadlines.poll());
+        else
+          enqueue(arrivalOrder[next++], arrival);
+      }
+    }
+
+    // Entries of jobs that left the queue after the entry was made are stale and dropped
+    private void age(int job, int deadline) {
+      if (!heap.contains(job) || nextAging[job] != deadline)
+        return;
+      effectivePriority[job] = Math.max(0, effectivePriority[job] - agingStep);
+      heap.decreaseKey(job);
+      if (effectivePriority[job] > 0) {
+        nextAging[job] = deadline + agingInterval;
+        agingJobs.add(job);
+        agingDeadlines.add(nextAging[job]);
+      }
+    }
   }
 }
@@ -0,0 +1,318 @@
+package process.scheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content-addressed cache of simulation results: the key is a SHA-256 hash of everything a
+ * result depends on (the workload, or the generator seed and parameters that produce it, the
+ * algorithm and its parameters), so a hit is the result the simulation would compute.
+ *
+ * An in-memory LRU of recently used results, held as their (sparse) payloads and bounded in
+ * bytes, sits in front of an append-only store file:
+ *   header   MAGIC, VERSION
+ *   records  key (32 bytes), payload length (int), payload (see write)
+ * Opening the store scans it once to index the record offsets; a torn last record (a run
+ * killed while appending) is cut off. Thread-safe within one process; concurrent processes
+ * must use different store files.
+ *
+ * Results only stay valid as long as the simulation code behind them: bump CODE_VERSION
+ * whenever a change to a scheduler changes its results, which starts a fresh store.
+ */
+public class ResultCache implements Closeable {
+  public static final String DEFAULT_FILE = "simulation_cache.bin";
+  public static final long DEFAULT_MEMORY_BYTES = 64L << 20;
+  // Version of the simulation semantics the stored results were computed with
+  public static final int CODE_VERSION = 2;
+
+  private static final int MAGIC = 0x534D5243; // "SMRC"
+  private static final int HEADER_BYTES = 8;
+  private static final int KEY_BYTES = 32;
+  // Heap taken by an in-memory entry besides its payload (key string, array header, map entry)
+  private static final int ENTRY_OVERHEAD = 160;
+
+  private final FileChannel channel;
+  private final Map<String, Long> offsets = new HashMap<>(); // payload offset by key
+  private final LinkedHashMap<String, byte[]> recent = new LinkedHashMap<>(16, 0.75f, true); // payloads
+  private final long memoryBytes;
+  private long recentBytes = 0;
+  private long end;
+  private long memoryHits = 0;
+  private long diskHits = 0;
+  private long misses = 0;
+
+  public ResultCache(Path file) throws IOException {
+    this(file, DEFAULT_MEMORY_BYTES);
+  }
+
+  /**
+   * Opens (or creates) the store.
+   * @param memoryBytes heap the results kept in memory may take (approximately), least
+   *                    recently used ones are evicted first
+   */
+  public ResultCache(Path file, long memoryBytes) throws IOException {
+    this.memoryBytes = memoryBytes;
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    if (!index()) {
+      // New, foreign or older version: start over
+      channel.truncate(0);
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(CODE_VERSION).flip();
+      while (header.hasRemaining())
+        channel.write(header, HEADER_BYTES - header.remaining());
+      end = HEADER_BYTES;
+    }
+  }
+
+  // Reads the record offsets; false when the file is not a store of this version
+  private boolean index() throws IOException {
+    long size = channel.size();
+    if (size < HEADER_BYTES)
+      return false;
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    readFully(header, 0);
+    if (header.getInt(0) != MAGIC || header.getInt(4) != CODE_VERSION)
+      return false;
+
+    long position = HEADER_BYTES;
+    ByteBuffer recordHeader = ByteBuffer.allocate(KEY_BYTES + 4);
+    while (position + recordHeader.capacity() <= size) {
+      recordHeader.clear();
+      readFully(recordHeader, position);
+      int length = recordHeader.getInt(KEY_BYTES);
+      long payload = position + recordHeader.capacity();
+      if (length < 0 || payload + length > size)
+        break; // torn record
+      offsets.put(hex(recordHeader.array(), KEY_BYTES), payload);
+      position = payload + length;
+    }
+    if (position < size)
+      channel.truncate(position);
+    end = position;
+    return true;
+  }
+
+  /**
+   * Hash of the given parts (in order), as the hex string the cache uses as key.
+   */
+  public static String key(String... parts) {
+    MessageDigest digest = sha256();
+    for (String part : parts) {
+      digest.update(part.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0); // separator: ("ab", "c") and ("a", "bc") differ
+    }
+    return hex(digest.digest(), KEY_BYTES);
+  }
+
+  /**
+   * Hash of a workload's jobs (arrival, burst, priority), for workloads that were not
+   * generated from a known seed.
+   */
+  public static String workloadKey(Workload workload) {
+    MessageDigest digest = sha256();
+    ByteBuffer job = ByteBuffer.allocate(12);
+    for (int j = 0; j < workload.size(); j++) {
+      job.clear();
+      job.putInt(workload.getArrivalTime(j)).putInt(workload.getBurstTime(j)).putInt(workload.getPriority(j));
+      digest.update(job.array());
+    }
+    return "content:" + hex(digest.digest(), KEY_BYTES);
+  }
+
+  /**
+   * The cached result for the key, or null. Each call returns a fresh copy.
+   */
+  public synchronized Scheduler.SimulationResult get(String key) throws IOException {
+    byte[] payload = recent.get(key);
+    if (payload != null) {
+      memoryHits++;
+      return read(ByteBuffer.wrap(payload));
+    }
+    Long offset = offsets.get(key);
+    if (offset == null) {
+      misses++;
+      return null;
+    }
+    ByteBuffer length = ByteBuffer.allocate(4);
+    readFully(length, offset - 4);
+    payload = new byte[length.getInt(0)];
+    readFully(ByteBuffer.wrap(payload), offset);
+    remember(key, payload);
+    diskHits++;
+    return read(ByteBuffer.wrap(payload));
+  }
+
+  /**
+   * Stores a result (a copy of it); a key already stored keeps its first result.
+   */
+  public synchronized void put(String key, Scheduler.SimulationResult result) throws IOException {
+    if (offsets.containsKey(key))
+      return;
+    int cores = result.coreUtilization == null ? 0 : result.coreUtilization.length;
+    int histograms = histogramBytes(result.waitingTimeHistogram) + histogramBytes(result.turnAroundTimeHistogram)
+        + histogramBytes(result.responseTimeHistogram);
+    ByteBuffer buffer = ByteBuffer.allocate(KEY_BYTES + 4 + 7 * 8 + 4 + cores * 16 + histograms);
+    buffer.put(unhex(key)).putInt(buffer.capacity() - KEY_BYTES - 4);
+    write(buffer, result);
+    buffer.flip();
+    long position = end;
+    while (buffer.hasRemaining())
+      position += channel.write(buffer, position);
+    offsets.put(key, end + KEY_BYTES + 4);
+    end = position;
+    remember(key, Arrays.copyOfRange(buffer.array(), KEY_BYTES + 4, buffer.capacity()));
+  }
+
+  // Adds a payload to the LRU, then evicts the least recently used ones beyond memoryBytes
+  private void remember(String key, byte[] payload) {
+    recent.put(key, payload);
+    recentBytes += ENTRY_OVERHEAD + payload.length;
+    Iterator<byte[]> eldest = recent.values().iterator();
+    while (recentBytes > memoryBytes && eldest.hasNext()) {
+      recentBytes -= ENTRY_OVERHEAD + eldest.next().length;
+      eldest.remove();
+    }
+  }
+
+  public synchronized long getMemoryHits() {
+    return memoryHits;
+  }
+
+  public synchronized long getDiskHits() {
+    return diskHits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /** Heap taken by the results kept in memory (approximately) */
+  public synchronized long getMemoryBytes() {
+    return recentBytes;
+  }
+
+  /** Results in the store */
+  public synchronized int size() {
+    return offsets.size();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    channel.close();
+  }
+
+  // Payload: the 7 scalar metrics, the core count (-1: single core), the per-core values and
+  // the waiting, turnaround and response time histograms
+  private static void write(ByteBuffer out, Scheduler.SimulationResult result) {
+    out.putDouble(result.avgWaitingTime).putDouble(result.avgTurnAroundTime).putDouble(result.cpuUtilization)
+        .putDouble(result.throughput).putDouble(result.p99WaitingTime).putDouble(result.contextSwitches)
+        .putDouble(result.loadImbalance);
+    if (result.coreUtilization == null) {
+      out.putInt(-1);
+    } else {
+      out.putInt(result.coreUtilization.length);
+      for (int core = 0; core < result.coreUtilization.length; core++)
+        out.putDouble(result.coreUtilization[core]).putDouble(result.coreThroughput[core]);
+    }
+    writeHistogram(out, result.waitingTimeHistogram);
+    writeHistogram(out, result.turnAroundTimeHistogram);
+    writeHistogram(out, result.responseTimeHistogram);
+  }
+
+  // Histogram: non-empty bucket count (-1: none), totals, then (bucket, count) pairs
+  private static int histogramBytes(LatencyHistogram histogram) {
+    return histogram == null ? 4 : 4 + 4 * 8 + histogram.usedBuckets() * 12;
+  }
+
+  private static void writeHistogram(ByteBuffer out, LatencyHistogram histogram) {
+    if (histogram == null) {
+      out.putInt(-1);
+      return;
+    }
+    out.putInt(histogram.usedBuckets());
+    out.putLong(histogram.getCount()).putLong(histogram.getSum()).putLong(histogram.getMin()).putLong(histogram.getMax());
+    histogram.forEachBucket((bucket, count) -> out.putInt(bucket).putLong(count));
+  }
+
+  private static LatencyHistogram readHistogram(ByteBuffer in) {
+    int buckets = in.getInt();
+    if (buckets < 0)
+      return null;
+    long count = in.getLong();
+    long sum = in.getLong();
+    long min = in.getLong();
+    long max = in.getLong();
+    LatencyHistogram histogram = LatencyHistogram.sized(max);
+    for (int i = 0; i < buckets; i++)
+      histogram.addBucket(in.getInt(), in.getLong());
+    histogram.setTotals(count, sum, min, max);
+    return histogram;
+  }
+
+  private static Scheduler.SimulationResult read(ByteBuffer in) {
+    Scheduler.SimulationResult result = new Scheduler.SimulationResult();
+    result.avgWaitingTime = in.getDouble();
+    result.avgTurnAroundTime = in.getDouble();
+    result.cpuUtilization = in.getDouble();
+    result.throughput = in.getDouble();
+    result.p99WaitingTime = in.getDouble();
+    result.contextSwitches = in.getDouble();
+    result.loadImbalance = in.getDouble();
+    int cores = in.getInt();
+    if (cores >= 0) {
+      result.coreUtilization = new double[cores];
+      result.coreThroughput = new double[cores];
+      for (int core = 0; core < cores; core++) {
+        result.coreUtilization[core] = in.getDouble();
+        result.coreThroughput[core] = in.getDouble();
+      }
+    }
+    result.waitingTimeHistogram = readHistogram(in);
+    result.turnAroundTimeHistogram = readHistogram(in);
+    result.responseTimeHistogram = readHistogram(in);
+    return result;
+  }
+
+  private void readFully(ByteBuffer target, long position) throws IOException {
+    while (target.hasRemaining()) {
+      int read = channel.read(target, position);
+      if (read < 0)
+        throw new IOException("Unexpected end of result cache");
+      position += read;
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static String hex(byte[] bytes, int length) {
+    StringBuilder hex = new StringBuilder(2 * length);
+    for (int i = 0; i < length; i++)
+      hex.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16)).append(Character.forDigit(bytes[i] & 0xF, 16));
+    return hex.toString();
+  }
+
+  private static byte[] unhex(String hex) {
+    byte[] bytes = new byte[KEY_BYTES];
+    for (int i = 0; i < KEY_BYTES; i++)
+      bytes[i] = (byte) Integer.parseInt(hex, 2 * i, 2 * i + 2, 16);
+    return bytes;
+  }
+}
@@ -0,0 +1,17 @@
+package process.scheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives result rows (replication, algorithm, metric, value) as each replication finishes,
+ * so a long campaign keeps everything up to its last completed replication.
+ */
+public interface ResultSink extends Closeable {
+  void accept(int replication, String algorithm, String metric, double value) throws IOException;
+
+  /**
+   * Called once all rows of a replication were accepted: a safe point to flush them.
+   */
+  void endReplication(int replication) throws IOException;
+}
@@ -11,86 +11,101 @@ public class RoundRobin extends Scheduler {
     this.timeQuantum = timeQuantum;
   }
 
+  public RoundRobin(Workload workload, int timeQuantum, int contextSwitchTime) {
+    super(workload, contextSwitchTime);
+    this.timeQuantum = timeQuantum;
+  }
+
   // preemptive schedule
   public LinkedList<String> schedule() {
     // Reset all metrics
     clearMetrics();
-    
-    var processesCopy = new LinkedList<PCB>();
-    for (PCB process : getProcesses())
-      processesCopy.add(process.clone());
 
-    if (processesCopy.size() == 0) {
+    var workload = getWorkload();
+    if (workload.size() == 0) {
       getScheduleTable().addLast("---- Empty Process Block ----");
       return getScheduleTable();
     }
 
-    // Sort the processes based on their arrival time
-    processesCopy.sort((p1, p2) -> p1.getArrivalTime() - p2.getArrivalTime());
+    // The processes sorted based on their arrival time
+    int[] arrivalOrder = workload.arrivalOrder();
+    int next = 0;
+
+    // Remaining burst time of every job, the workload itself is never modified
+    int[] remainingTime = new int[workload.size()];
+    for (int job = 0; job < remainingTime.length; job++)
+      remainingTime[job] = workload.getBurstTime(job);
 
-    var readyQueue = new LinkedList<PCB>();
-    readyQueue.add(processesCopy.removeFirst());
+    var readyQueue = new JobQueue(16);
+    readyQueue.add(arrivalOrder[next++]);
 
     int timer = 0;
-    String previousPID = "";
+    int previousJob = -1;
 
     while (!readyQueue.isEmpty()) {
-      var currentProcess = readyQueue.removeFirst();
+      var currentJob = readyQueue.poll();
+      var finished = false;
 
-      if (currentProcess.getArrivalTime() > timer) {
-        getScheduleTable().addLast("[" + timer + " <- -- -> " + (currentProcess.getArrivalTime()) + "]");
-        timer = currentProcess.getArrivalTime();
+      if (workload.getArrivalTime(currentJob) > timer) {
+        trace(timer, workload.getArrivalTime(currentJob), EventLog.IDLE);
+        timer = workload.getArrivalTime(currentJob);
       } // The process hasn't arrived yet
 
-      if (!currentProcess.getPID().equals(previousPID) && !currentProcess.getPID().isEmpty()) {
-        timer += getContextSwitchTime();
+      if (currentJob != previousJob) {
+        sample(timer, readyQueue.size() + 1, TimeSeriesRecorder.SWITCHING); // the job switched to is still ready
+        timer += switchContext();
+      }
+      previousJob = currentJob;
+      start(currentJob, timer);
+      sample(timer, readyQueue.size(), TimeSeriesRecorder.RUNNING);
+
+      // Fast-forward: while this job is the only one ready it gets quantum after quantum
+      // with no switch in between, so skip straight to the last quantum before it
+      // completes or the next job arrives
+      if (readyQueue.isEmpty() && remainingTime[currentJob] > timeQuantum) {
+        long slicesToFinish = (remainingTime[currentJob] + (long) timeQuantum - 1) / timeQuantum;
+        long slicesToArrival = Long.MAX_VALUE;
+        if (next < arrivalOrder.length)
+          slicesToArrival = Math.max(1, (workload.getArrivalTime(arrivalOrder[next]) - (long) timer + timeQuantum - 1) / timeQuantum);
+        int slices = (int) (Math.min(slicesToFinish, slicesToArrival) - 1);
+        if (slices > 0) {
+          if (getTraceMode() != TraceMode.NONE) {
+            for (int slice = 0; slice < slices; slice++)
+              trace(timer + slice * timeQuantum, timer + (slice + 1) * timeQuantum, currentJob);
+          }
+          remainingTime[currentJob] -= slices * timeQuantum;
+          timer += slices * timeQuantum;
+        }
       }
-      previousPID = currentProcess.getPID();
-
 
-      if (currentProcess.getBurstTime() <= timeQuantum) {
-        getScheduleTable().addLast(
-            "[" + timer + " <- " + currentProcess.getPID() + " -> " + (timer + currentProcess.getBurstTime()) + "]");
+      if (remainingTime[currentJob] <= timeQuantum) {
+        trace(timer, timer + remainingTime[currentJob], currentJob);
 
-        timer += currentProcess.getBurstTime();
-        getCompletionTime().put(currentProcess.getPID(), timer);
-        currentProcess = null; // Done
+        timer += remainingTime[currentJob];
+        remainingTime[currentJob] = 0;
+        complete(currentJob, timer);
+        finished = true; // Done
       } else {
-        getScheduleTable().addLast(
-            "[" + timer + " <- " + currentProcess.getPID() + " -> " + (timer + timeQuantum) + "]");
-        currentProcess.setBurstTime(currentProcess.getBurstTime() - timeQuantum);
+        trace(timer, timer + timeQuantum, currentJob);
+        remainingTime[currentJob] -= timeQuantum;
 
         timer += timeQuantum;
-        getCompletionTime().put(currentProcess.getPID(), timer);
       }
 
-      while (!processesCopy.isEmpty() && processesCopy.getFirst().getArrivalTime() <= timer)
-        readyQueue.addLast(processesCopy.removeFirst());
-      if (currentProcess != null)
-        readyQueue.addLast(currentProcess);
-
-      if (!processesCopy.isEmpty() && readyQueue.isEmpty())
-        readyQueue.add(processesCopy.removeFirst());
-    }
-
-    int totalWaitingTime = 0, totalTurnAroundTime = 0;
-    for (PCB process : getProcesses()) {
-      int completionT = getCompletionTime().get(process.getPID());
-      int originalBurstT = process.getBurstTime();
-
-      int turnaroundT = completionT - process.getArrivalTime();
-      int waitingT = turnaroundT - originalBurstT;
+      while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer) {
+        sample(workload.getArrivalTime(arrivalOrder[next]), readyQueue.size() + 1, TimeSeriesRecorder.RUNNING);
+        readyQueue.add(arrivalOrder[next++]);
+      }
+      if (!finished)
+        readyQueue.add(currentJob);
+      sample(timer, readyQueue.size(), TimeSeriesRecorder.IDLE);
 
-      getTurnAroundTime().put(process.getPID(), turnaroundT);
-      totalTurnAroundTime += turnaroundT;
-      getWaitingTime().put(process.getPID(), waitingT);
-      totalWaitingTime += waitingT;
+      if (next < arrivalOrder.length && readyQueue.isEmpty())
+        readyQueue.add(arrivalOrder[next++]);
     }
 
-    setAverageTurnAroundTime((double) totalTurnAroundTime / getProcesses().size());
-    setAverageWaitingTime((double) totalWaitingTime / getProcesses().size());
-    calculateExtendedMetrics();
+    finishMetrics();
     
-    return getScheduleTable();
+    return traceResult();
   }
 }
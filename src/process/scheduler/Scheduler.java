@@ -1,40 +1,93 @@
 package process.scheduler;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.LinkedList;
-import java.util.PriorityQueue;
 
 public class Scheduler {
   private List<PCB> processes;
+  private Workload workload;
+  // Per job results, indexed by job ID; the maps below are only built when asked for
+  private int[] jobCompletionTime;
+  private int[] jobTurnAroundTime;
+  private int[] jobWaitingTime;
+  private int[] jobResponseTime; // -1 until the job first gets the CPU
+  // Latency distributions of the last run; handed to its SimulationResult, so a new run
+  // records into fresh ones
+  private LatencyHistogram waitingTimeHistogram = new LatencyHistogram();
+  private LatencyHistogram turnAroundTimeHistogram = new LatencyHistogram();
+  private LatencyHistogram responseTimeHistogram = new LatencyHistogram();
+  private boolean histogramsCollected = false;
+  private boolean scheduled = false;
+  private boolean metricMapsStale = false;
   private Map<String, Integer> turnAroundTime;
   private Map<String, Integer> waitingTime;
   private Map<String, Integer> completionTime;
   private LinkedList<String> scheduleTable;
+  private TraceMode traceMode = TraceMode.TABLE;
+  private EventLog eventLog = new EventLog();
+  private int renderedEvents = 0;
+  private TimeSeriesRecorder timeSeries; // null: not sampled
+  private String timeSeriesLabel;
   private double averageTurnAroundTime;
   private double averageWaitingTime;
+  private double p99WaitingTime;
   private double cpuUtilization;
   private double throughput;
   private int contextSwitchTime = 0;
+  private int contextSwitches = 0;
 
 
+  /**
+   * What a run records besides the metrics.
+   * TABLE:  the text schedule table, as returned by schedule() (default)
+   * EVENTS: only the compact event log, rendered to text when getScheduleTable() is called
+   * NONE:   nothing, metrics only
+   */
+  public enum TraceMode {
+    TABLE, EVENTS, NONE
+  }
+
   public static class SimulationResult {
     public double avgWaitingTime;
     public double avgTurnAroundTime;
     public double cpuUtilization;
     public double throughput;
+    public double p99WaitingTime;
+    public double contextSwitches;
+    // Multi-core runs only: busiest core's busy time over the mean minus 1, utilization (%) and
+    // throughput per core
+    public double loadImbalance;
+    public double[] coreUtilization;
+    public double[] coreThroughput;
+    // Per job latency distributions (tail percentiles), null when the run did not record them
+    public LatencyHistogram waitingTimeHistogram;
+    public LatencyHistogram turnAroundTimeHistogram;
+    public LatencyHistogram responseTimeHistogram;
   }
 
   public Scheduler(List<PCB> processes, int contextSwitchTime) {
+    this(Workload.of(processes), contextSwitchTime);
     this.processes = processes;
+  }
+
+  public Scheduler(Workload workload, int contextSwitchTime) {
+    this.workload = workload;
+    this.jobCompletionTime = new int[workload.size()];
+    this.jobTurnAroundTime = new int[workload.size()];
+    this.jobWaitingTime = new int[workload.size()];
+    this.jobResponseTime = new int[workload.size()];
+    Arrays.fill(jobResponseTime, -1);
     this.turnAroundTime = new HashMap<>();
     this.completionTime = new HashMap<>();
     this.waitingTime = new HashMap<>();
     this.scheduleTable = new LinkedList<>();
     this.averageTurnAroundTime = 0D;
     this.averageWaitingTime = 0D;
+    this.p99WaitingTime = 0D;
     this.cpuUtilization = 0D;
     this.throughput = 0D;
 
@@ -45,15 +98,76 @@ public class Scheduler {
     return this.contextSwitchTime;
   }
 
+  /**
+   * Number of context switches of the last run (each one cost contextSwitchTime).
+   */
+  public int getContextSwitches() {
+    return this.contextSwitches;
+  }
+
+  /**
+   * Counts a context switch.
+   * @return the time it takes, contextSwitchTime
+   */
+  protected int switchContext() {
+    contextSwitches++;
+    return contextSwitchTime;
+  }
+
   public List<PCB> getProcesses() {
+    if (processes == null)
+      processes = workload.toPCBs();
     return processes;
   }
 
   public void setProcesses(List<PCB> processes) {
     this.processes = processes;
+    this.workload = Workload.of(processes);
+    this.jobCompletionTime = new int[workload.size()];
+    this.jobTurnAroundTime = new int[workload.size()];
+    this.jobWaitingTime = new int[workload.size()];
+    this.jobResponseTime = new int[workload.size()];
+    Arrays.fill(jobResponseTime, -1);
+  }
+
+  public Workload getWorkload() {
+    return workload;
+  }
+
+  /** Completion time of every job, indexed by job ID */
+  public int[] getJobCompletionTimes() {
+    return jobCompletionTime;
+  }
+
+  /** Turnaround time of every job, indexed by job ID */
+  public int[] getJobTurnAroundTimes() {
+    return jobTurnAroundTime;
+  }
+
+  /** Waiting time of every job, indexed by job ID */
+  public int[] getJobWaitingTimes() {
+    return jobWaitingTime;
+  }
+
+  /** Response time (first run minus arrival) of every job, indexed by job ID */
+  public int[] getJobResponseTimes() {
+    return jobResponseTime;
+  }
+
+  public LatencyHistogram getWaitingTimeHistogram() {
+    return waitingTimeHistogram;
+  }
+
+  public LatencyHistogram getTurnAroundTimeHistogram() {
+    return turnAroundTimeHistogram;
+  }
+
+  public LatencyHistogram getResponseTimeHistogram() {
+    return responseTimeHistogram;
   }
 
   public Map<String, Integer> getTurnAroundTime() {
+    materializeMetricMaps();
     return turnAroundTime;
   }
 
@@ -62,6 +176,7 @@ public class Scheduler {
   }
 
   public Map<String, Integer> getWaitingTime() {
+    materializeMetricMaps();
     return waitingTime;
   }
 
@@ -70,6 +185,7 @@ public class Scheduler {
   }
 
   public Map<String, Integer> getCompletionTime() {
+    materializeMetricMaps();
     return completionTime;
   }
 
@@ -78,12 +194,46 @@ public class Scheduler {
   }
 
   public LinkedList<String> getScheduleTable() {
+    if (eventLog != null && renderedEvents < eventLog.size()) {
+      eventLog.render(workload, renderedEvents, scheduleTable);
+      renderedEvents = eventLog.size();
+    }
     return this.scheduleTable;
   }
 
   public void setScheduleTable(LinkedList<String> scheduleTable) {
     this.scheduleTable = scheduleTable;
   }
+
+  public TraceMode getTraceMode() {
+    return traceMode;
+  }
+
+  public void setTraceMode(TraceMode traceMode) {
+    this.traceMode = traceMode;
+    this.eventLog = traceMode == TraceMode.NONE ? null : new EventLog();
+    this.renderedEvents = 0;
+  }
+
+  /**
+   * Samples ready queue length, CPU state and context switch overhead during the runs, each
+   * run as a series with the given label; null turns sampling off. Only schedulers that
+   * report their state through sample() produce samples: the non-preemptive ones run by
+   * scheduleJobs (Priority, SJF), Shortest-Remaining-Time-First and RoundRobin.
+   */
+  public void setTimeSeries(TimeSeriesRecorder timeSeries, String label) {
+    this.timeSeries = timeSeries;
+    this.timeSeriesLabel = label;
+  }
+
+  public TimeSeriesRecorder getTimeSeries() {
+    return timeSeries;
+  }
+
+  /** The compact trace of the last run, null in TraceMode.NONE */
+  public EventLog getEventLog() {
+    return eventLog;
+  }
   
   public double getAverageTurnAroundTime() {
     return averageTurnAroundTime;
@@ -150,102 +300,192 @@ public class Scheduler {
    * Calculate Extended Metrics: CPU Utilization and Throughput
    */
   public void calculateExtendedMetrics() {
-    if (processes.isEmpty() || completionTime.isEmpty())
+    if (workload.size() == 0 || !scheduled)
       return;
 
     // 1. Find the simulation "Makespan" (End Time - Start Time)
     // Start time is assumed to be the arrival time of the first process (0)
     // End time is the maximum completion time
-    int minArrival = processes.stream()
-        .mapToInt(PCB::getArrivalTime)
-        .min()
-        .orElse(0);
-    int maxCompletion = completionTime.values().stream()
-        .mapToInt(Integer::intValue)
-        .max()
-        .orElse(0);
+    int minArrival = workload.getMinArrivalTime();
+    int maxCompletion = 0;
+    for (int completion : jobCompletionTime)
+      maxCompletion = Math.max(maxCompletion, completion);
     int totlaSimulationTime = maxCompletion - minArrival;
 
     if (totlaSimulationTime == 0)
       return;
 
     // 2. Calculate CPU Busy Time (Sum of all Burst Times)
-    int cpuBusyTime = processes.stream()
-        .mapToInt(PCB::getBurstTime)
-        .sum();
+    long cpuBusyTime = workload.getTotalBurstTime();
       
-    // 3. Calculate CPU Utilization (%)
-    this.cpuUtilization = ((double) cpuBusyTime / totlaSimulationTime) * 100.0;
+    // 3. Calculate CPU Utilization (%), averaged over the cores
+    this.cpuUtilization = ((double) cpuBusyTime / totlaSimulationTime) * 100.0 / getCoreCount();
 
     // 4. Calculate Throughput (Processes per Time Unit(miliseconds))
-    this.throughput = (double) processes.size() / totlaSimulationTime;
+    this.throughput = (double) workload.size() / totlaSimulationTime;
   }
-  
+
+  /**
+   * Number of CPUs the schedule runs on (1 unless a subclass simulates several).
+   */
+  protected int getCoreCount() {
+    return 1;
+  }
+
+  /**
+   * Records that a job gets the CPU at timer (after the context switch). Schedulers that
+   * run a job in several pieces call it at every dispatch, only the first one counts.
+   */
+  protected void start(int job, int timer) {
+    if (jobResponseTime[job] < 0) {
+      jobResponseTime[job] = timer - workload.getArrivalTime(job);
+      responseTimeHistogram.record(jobResponseTime[job]);
+    }
+  }
+
+  /**
+   * Records the completion of a job and derives its turnaround and waiting time. A job that
+   * never went through start() ran in one piece, so its response time is its waiting time.
+   */
+  protected void complete(int job, int timer) {
+    jobCompletionTime[job] = timer;
+    jobTurnAroundTime[job] = timer - workload.getArrivalTime(job);
+    jobWaitingTime[job] = jobTurnAroundTime[job] - workload.getBurstTime(job);
+    turnAroundTimeHistogram.record(jobTurnAroundTime[job]);
+    waitingTimeHistogram.record(jobWaitingTime[job]);
+    if (jobResponseTime[job] < 0) {
+      jobResponseTime[job] = jobWaitingTime[job];
+      responseTimeHistogram.record(jobResponseTime[job]);
+    }
+  }
+
+  /**
+   * Records that the CPU ran {@code job} (or was idle, EventLog.IDLE) from start to end.
+   */
+  protected void trace(int start, int end, int job) {
+    if (eventLog != null)
+      eventLog.add(start, end, job);
+  }
+
+  /**
+   * Reports the scheduler's state from time on to the time series, if one is recorded:
+   * queueLength jobs ready (not running; a job being switched to still counts) and the CPU in
+   * TimeSeriesRecorder.IDLE, RUNNING or SWITCHING.
+   */
+  protected void sample(int time, int queueLength, int cpuState) {
+    if (timeSeries != null)
+      timeSeries.update(time, queueLength, cpuState, (long) contextSwitches * contextSwitchTime);
+  }
+
+  /**
+   * The value a schedule() method returns: the rendered table in TraceMode.TABLE.
+   */
+  protected LinkedList<String> traceResult() {
+    return traceMode == TraceMode.TABLE ? getScheduleTable() : scheduleTable;
+  }
+
+  /**
+   * Averages the per job results and calculates the extended metrics, once every job completed.
+   */
+  protected void finishMetrics() {
+    long totTAT = 0;
+    long totWT = 0;
+    for (int job = 0; job < workload.size(); job++) {
+      totTAT += jobTurnAroundTime[job];
+      totWT += jobWaitingTime[job];
+    }
+    this.scheduled = true;
+    this.metricMapsStale = true;
+    if (timeSeries != null)
+      timeSeries.end();
+    this.averageTurnAroundTime = (double) totTAT / workload.size();
+    this.averageWaitingTime = (double) totWT / workload.size();
+    this.p99WaitingTime = getWaitingTimePercentile(99);
+    this.calculateExtendedMetrics();
+  }
+
+  /**
+   * Waiting time percentile over all jobs (nearest rank), e.g. 99 for the tail that
+   * starvation shows up in; 0 before a run. Exact: the waiting time histogram tells the
+   * bucket of the rank, and only the waiting times in that bucket are selected among.
+   */
+  public int getWaitingTimePercentile(double percentile) {
+    if (!scheduled || workload.size() == 0)
+      return 0;
+    int rank = (int) Math.ceil(percentile / 100 * workload.size());
+    return waitingTimeHistogram.valueAtRank(Math.min(workload.size(), Math.max(1, rank)), jobWaitingTime,
+        workload.size());
+  }
+
   /**
    * @param listComparator Comparator to sort the proccess list
    * @param pqComparator   the priority queue sorting comparator
    */
 
   public LinkedList<String> schedule(Comparator<PCB> listComparator, Comparator<PCB> pqComparator) {
+    PCB[] jobs = getProcesses().toArray(new PCB[0]);
+    return scheduleJobs((j1, j2) -> listComparator.compare(jobs[j1], jobs[j2]),
+        (j1, j2) -> pqComparator.compare(jobs[j1], jobs[j2]));
+  }
+
+  /**
+   * Non-preemptive scheduling over job IDs.
+   * 
+   * @param listOrder  order in which the jobs are admitted (arrival time first)
+   * @param queueOrder the ready queue ordering
+   */
+  public LinkedList<String> scheduleJobs(JobComparator listOrder, JobComparator queueOrder) {
     // Reset previous metrics
     clearMetrics();
-  
-    var processesCopy = new LinkedList<PCB>();
-    for (PCB process : processes)
-      processesCopy.add(process.clone()); // Deep copying
 
-    if (processesCopy.size() == 0) {
+    if (workload.size() == 0) {
       scheduleTable.addLast("---- Empty Process Block ----");
       return scheduleTable;
     }
 
-    processesCopy.sort(listComparator);
+    int[] arrivalOrder = workload.sortedIds(listOrder);
+    int next = 0;
 
-    var ppq = new PriorityQueue<PCB>(pqComparator);
-    ppq.add(processesCopy.removeFirst());
+    var ppq = new JobHeap(queueOrder, workload.size());
+    ppq.add(arrivalOrder[next++]);
     var timer = 0;
-    var totTAT = 0;
-    var totWT = 0;
-    var lastExecutedPID = "";
+    var lastExecuted = -1;
 
     while (!ppq.isEmpty()) {
-      var currentProcess = ppq.poll();
+      var currentJob = ppq.poll();
 
-      if (currentProcess.getArrivalTime() > timer) {
-        scheduleTable.addLast("[" + timer + " <- -- -> " + (currentProcess.getArrivalTime()) + "]");
-        timer = currentProcess.getArrivalTime();
+      if (workload.getArrivalTime(currentJob) > timer) {
+        trace(timer, workload.getArrivalTime(currentJob), EventLog.IDLE);
+        timer = workload.getArrivalTime(currentJob);
       } // the process not arrived yet
 
-      scheduleTable.addLast(
-          "[" + timer + " <- " + currentProcess.getPID() + " -> " + (timer + currentProcess.getBurstTime()) + "]");
-      timer += currentProcess.getBurstTime();
-      completionTime.put(currentProcess.getPID(), timer);
-      turnAroundTime.put(currentProcess.getPID(), timer - currentProcess.getArrivalTime());
-      waitingTime.put(currentProcess.getPID(),
-          turnAroundTime.get(currentProcess.getPID()) - currentProcess.getBurstTime());
+      trace(timer, timer + workload.getBurstTime(currentJob), currentJob);
+      sample(timer, ppq.size(), TimeSeriesRecorder.RUNNING);
+      timer += workload.getBurstTime(currentJob);
+      complete(currentJob, timer);
 
-      totTAT += turnAroundTime.get(currentProcess.getPID());
-      totWT += waitingTime.get(currentProcess.getPID());
-
-      while (!processesCopy.isEmpty() && processesCopy.getFirst().getArrivalTime() <= timer)
-        ppq.add(processesCopy.removeFirst());
+      while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer) {
+        sample(workload.getArrivalTime(arrivalOrder[next]), ppq.size() + 1, TimeSeriesRecorder.RUNNING);
+        ppq.add(arrivalOrder[next++]);
+      }
+      sample(timer, ppq.size(), TimeSeriesRecorder.IDLE);
 
       // Context Switching Time
-      if (getContextSwitchTime() > 0 && !ppq.isEmpty() && !currentProcess.getPID().equals(lastExecutedPID)) 
-        timer += getContextSwitchTime();
-      lastExecutedPID = currentProcess.getPID();
+      if (!ppq.isEmpty() && currentJob != lastExecuted) {
+        sample(timer, ppq.size(), TimeSeriesRecorder.SWITCHING);
+        timer += switchContext();
+      }
+      lastExecuted = currentJob;
 
       // If the priority queue is empty but there are still processes left to schedule,
       // advance the timer to the arrival time of the next process and add it to the queue
-      if (ppq.isEmpty() && !processesCopy.isEmpty())
-        ppq.add(processesCopy.removeFirst());
+      if (ppq.isEmpty() && next < arrivalOrder.length)
+        ppq.add(arrivalOrder[next++]);
     }
 
-    this.averageTurnAroundTime = (double) totTAT / processes.size();
-    this.averageWaitingTime = (double) totWT / processes.size();
-    this.calculateExtendedMetrics();
+    finishMetrics();
 
-    return this.scheduleTable;
+    return traceResult();
   }
   
   public SimulationResult CollectMetrics() {
@@ -254,6 +494,12 @@ public class Scheduler {
     result.avgTurnAroundTime = this.averageTurnAroundTime;
     result.cpuUtilization = this.cpuUtilization;
     result.throughput = this.throughput;
+    result.p99WaitingTime = this.p99WaitingTime;
+    result.contextSwitches = this.contextSwitches;
+    result.waitingTimeHistogram = this.waitingTimeHistogram;
+    result.turnAroundTimeHistogram = this.turnAroundTimeHistogram;
+    result.responseTimeHistogram = this.responseTimeHistogram;
+    this.histogramsCollected = true;
     return result;
   }
 
@@ -262,11 +508,47 @@ public class Scheduler {
     this.completionTime.clear();
     this.waitingTime.clear();
     this.scheduleTable.clear();
+    if (eventLog != null)
+      eventLog.clear();
+    this.renderedEvents = 0;
+    if (timeSeries != null)
+      timeSeries.begin(timeSeriesLabel);
+    Arrays.fill(jobCompletionTime, 0);
+    Arrays.fill(jobTurnAroundTime, 0);
+    Arrays.fill(jobWaitingTime, 0);
+    Arrays.fill(jobResponseTime, -1);
+    if (histogramsCollected) {
+      this.waitingTimeHistogram = new LatencyHistogram();
+      this.turnAroundTimeHistogram = new LatencyHistogram();
+      this.responseTimeHistogram = new LatencyHistogram();
+      this.histogramsCollected = false;
+    } else {
+      this.waitingTimeHistogram.clear();
+      this.turnAroundTimeHistogram.clear();
+      this.responseTimeHistogram.clear();
+    }
+    this.scheduled = false;
+    this.metricMapsStale = false;
+    this.contextSwitches = 0;
 
     this.averageTurnAroundTime = 0D;
     this.averageWaitingTime = 0D;
+    this.p99WaitingTime = 0D;
     this.cpuUtilization = 0D;
     this.throughput = 0D;
   }
 
+  // Builds the PID keyed maps from the per job arrays, the first time they are asked for
+  private void materializeMetricMaps() {
+    if (!metricMapsStale)
+      return;
+    metricMapsStale = false;
+    for (int job = 0; job < workload.size(); job++) {
+      String pID = workload.getPID(job);
+      completionTime.put(pID, jobCompletionTime[job]);
+      turnAroundTime.put(pID, jobTurnAroundTime[job]);
+      waitingTime.put(pID, jobWaitingTime[job]);
+    }
+  }
+
 }
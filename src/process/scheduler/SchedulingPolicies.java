@@ -0,0 +1,180 @@
+package process.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The built-in algorithms as SchedulingPolicy implementations, and the discovery of the
+ * others. Every simulation runs with TraceMode.NONE: metrics only, nobody reads the trace.
+ */
+public final class SchedulingPolicies {
+  private SchedulingPolicies() {
+  }
+
+  private static final List<SchedulingPolicy> BUILT_IN = List.of(
+      new BuiltIn("FCFS", StreamingScheduler.Policy.FCFS, false, (workload, parameters, timeSeries) -> {
+        FirstComeFirstServed fcfs = new FirstComeFirstServed(workload, parameters.contextSwitchTime);
+        fcfs.setTraceMode(Scheduler.TraceMode.NONE);
+        fcfs.schedule();
+        return fcfs.CollectMetrics();
+      }, null),
+      new BuiltIn("Priority-NP", StreamingScheduler.Policy.PRIORITY, true, (workload, parameters, timeSeries) -> {
+        PriorityScheduling priority = new PriorityScheduling(workload, parameters.contextSwitchTime);
+        priority.setTraceMode(Scheduler.TraceMode.NONE);
+        priority.setTimeSeries(timeSeries, "Priority-NP");
+        priority.non_preemptive_schedule();
+        return priority.CollectMetrics();
+      }, null),
+      new BuiltIn("Priority-P", null, false, (workload, parameters, timeSeries) -> {
+        PriorityScheduling priority = new PriorityScheduling(workload, parameters.contextSwitchTime);
+        priority.setTraceMode(Scheduler.TraceMode.NONE);
+        priority.preemptive_schedule();
+        return priority.CollectMetrics();
+      }, null),
+      new BuiltIn("Priority-P-Aging", null, false, (workload, parameters, timeSeries) -> {
+        PriorityScheduling priority = new PriorityScheduling(workload, parameters.contextSwitchTime);
+        priority.setTraceMode(Scheduler.TraceMode.NONE);
+        priority.setAging(parameters.agingInterval, parameters.agingStep);
+        priority.preemptive_schedule();
+        return priority.CollectMetrics();
+      }, parameters -> "aging=" + parameters.agingInterval + "/" + parameters.agingStep),
+      new BuiltIn("SJF-NP", StreamingScheduler.Policy.SJF, true, (workload, parameters, timeSeries) -> {
+        ShortestJobFirst sjf = new ShortestJobFirst(workload, parameters.contextSwitchTime);
+        sjf.setTraceMode(Scheduler.TraceMode.NONE);
+        sjf.setTimeSeries(timeSeries, "SJF-NP");
+        sjf.non_preemptive_schedule();
+        return sjf.CollectMetrics();
+      }, null),
+      // Shortest-Remaining-Time-First
+      new BuiltIn("SJF-P", null, true, (workload, parameters, timeSeries) -> {
+        ShortestJobFirst srtf = new ShortestJobFirst(workload, parameters.contextSwitchTime);
+        srtf.setTraceMode(Scheduler.TraceMode.NONE);
+        srtf.setTimeSeries(timeSeries, "SJF-P");
+        srtf.preemptive_schedule();
+        return srtf.CollectMetrics();
+      }, null),
+      new BuiltIn("RoundRobin", StreamingScheduler.Policy.ROUND_ROBIN, true, (workload, parameters, timeSeries) -> {
+        RoundRobin rr = new RoundRobin(workload, parameters.timeQuantum, parameters.contextSwitchTime);
+        rr.setTraceMode(Scheduler.TraceMode.NONE);
+        rr.setTimeSeries(timeSeries, "RoundRobin");
+        rr.schedule();
+        return rr.CollectMetrics();
+      }, parameters -> "tq=" + parameters.timeQuantum),
+      new BuiltIn("MLFQ", null, false, (workload, parameters, timeSeries) -> {
+        MultiLevelFeedbackQueue mlfq = new MultiLevelFeedbackQueue(workload, mlfqQuanta(parameters),
+            parameters.mlfqBoostInterval, parameters.contextSwitchTime);
+        mlfq.setTraceMode(Scheduler.TraceMode.NONE);
+        mlfq.schedule();
+        return mlfq.CollectMetrics();
+      }, parameters -> "quanta=" + Arrays.toString(mlfqQuanta(parameters)) + ",boost="
+          + parameters.mlfqBoostInterval),
+      new BuiltIn("CFS", null, false, (workload, parameters, timeSeries) -> {
+        FairShareScheduler cfs = new FairShareScheduler(workload, parameters.cfsTargetLatency,
+            parameters.cfsMinGranularity, parameters.contextSwitchTime);
+        cfs.setTraceMode(Scheduler.TraceMode.NONE);
+        cfs.schedule();
+        return cfs.CollectMetrics();
+      }, parameters -> "latency=" + parameters.cfsTargetLatency + ",granularity=" + parameters.cfsMinGranularity));
+
+  /** FCFS, Priority-NP, Priority-P, Priority-P-Aging, SJF-NP, SJF-P, RoundRobin, MLFQ, CFS */
+  public static List<SchedulingPolicy> builtIn() {
+    return BUILT_IN;
+  }
+
+  /**
+   * The built-in policies, then the ones the ServiceLoader finds on the class path (in its
+   * order); a policy whose name is taken is left out. The class path is scanned once, on
+   * first use, and every call returns that list.
+   */
+  public static List<SchedulingPolicy> discover() {
+    return Discovered.POLICIES;
+  }
+
+  // Holder: the scan runs when discover() is first called, not when the built-ins load
+  private static final class Discovered {
+    static final List<SchedulingPolicy> POLICIES = scan();
+
+    private static List<SchedulingPolicy> scan() {
+      List<SchedulingPolicy> policies = new ArrayList<>(BUILT_IN);
+      Set<String> names = new HashSet<>();
+      for (SchedulingPolicy policy : BUILT_IN)
+        names.add(policy.getName());
+      for (SchedulingPolicy policy : ServiceLoader.load(SchedulingPolicy.class))
+        if (names.add(policy.getName()))
+          policies.add(policy);
+      return List.copyOf(policies);
+    }
+  }
+
+  /** The policy with the name, among the discovered ones */
+  public static SchedulingPolicy byName(String name) {
+    for (SchedulingPolicy policy : discover())
+      if (policy.getName().equals(name))
+        return policy;
+    throw new IllegalArgumentException("Unknown algorithm " + name);
+  }
+
+  private static int[] mlfqQuanta(ExperimentManager.Parameters parameters) {
+    return parameters.mlfqQuanta != null ? parameters.mlfqQuanta
+        : new int[] { parameters.timeQuantum, 2 * parameters.timeQuantum, 4 * parameters.timeQuantum };
+  }
+
+  @FunctionalInterface
+  private interface Simulation {
+    Scheduler.SimulationResult run(Workload workload, ExperimentManager.Parameters parameters,
+        TimeSeriesRecorder timeSeries);
+  }
+
+  private static final class BuiltIn implements SchedulingPolicy {
+    private final String name;
+    private final StreamingScheduler.Policy queuePolicy;
+    private final boolean timeSeries;
+    private final Simulation simulation;
+    private final Function<ExperimentManager.Parameters, String> parameterKey; // null: none
+
+    BuiltIn(String name, StreamingScheduler.Policy queuePolicy, boolean timeSeries, Simulation simulation,
+        Function<ExperimentManager.Parameters, String> parameterKey) {
+      this.name = name;
+      this.queuePolicy = queuePolicy;
+      this.timeSeries = timeSeries;
+      this.simulation = simulation;
+      this.parameterKey = parameterKey;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public Scheduler.SimulationResult simulate(Workload workload, ExperimentManager.Parameters parameters,
+        TimeSeriesRecorder timeSeries) {
+      return simulation.run(workload, parameters, timeSeries);
+    }
+
+    @Override
+    public String parameterKey(ExperimentManager.Parameters parameters) {
+      return parameterKey == null ? "" : parameterKey.apply(parameters);
+    }
+
+    @Override
+    public StreamingScheduler.Policy getQueuePolicy() {
+      return queuePolicy;
+    }
+
+    @Override
+    public boolean supportsTimeSeries() {
+      return timeSeries;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+}
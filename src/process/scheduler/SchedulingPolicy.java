@@ -0,0 +1,44 @@
+package process.scheduler;
+
+/**
+ * A scheduling algorithm as ExperimentManager runs it: a name for the reports and one
+ * simulation of a workload. The built-in ones are in SchedulingPolicies; others are found
+ * through java.util.ServiceLoader (list them in META-INF/services/process.scheduler.SchedulingPolicy).
+ *
+ * A policy is stateless: the same instance simulates the replications of a study, several at
+ * a time and on the same workload, which it must not modify (the workload's arrival order is
+ * computed before it is shared).
+ */
+public interface SchedulingPolicy {
+  /** Name in the reports and result files, unique among the policies of a study */
+  String getName();
+
+  /**
+   * Runs the policy on a workload of a single core study.
+   * @param timeSeries records the run, null: not recorded (only asked when supportsTimeSeries())
+   */
+  Scheduler.SimulationResult simulate(Workload workload, ExperimentManager.Parameters parameters,
+      TimeSeriesRecorder timeSeries);
+
+  /**
+   * Everything besides the workload, the context switch time and the core setup that the
+   * result depends on, as "name=value" pairs separated by commas; part of the result cache
+   * keys. Empty when nothing else matters.
+   */
+  default String parameterKey(ExperimentManager.Parameters parameters) {
+    return "";
+  }
+
+  /**
+   * The same algorithm as StreamingScheduler and MultiCoreScheduler run it, null when they
+   * do not; streaming and multi-core studies only run the policies that have one.
+   */
+  default StreamingScheduler.Policy getQueuePolicy() {
+    return null;
+  }
+
+  /** Whether simulate() records into a TimeSeriesRecorder */
+  default boolean supportsTimeSeries() {
+    return false;
+  }
+}
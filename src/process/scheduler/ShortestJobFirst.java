@@ -1,6 +1,5 @@
 package process.scheduler;
 
-import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -10,21 +9,127 @@ public class ShortestJobFirst extends Scheduler {
     super(processes, contextSwitchingTime);
   }
 
+  public ShortestJobFirst(Workload workload, int contextSwitchingTime) {
+    super(workload, contextSwitchingTime);
+  }
+
   public LinkedList<String> non_preemptive_schedule() {
-    Comparator<PCB> sortComparator = new Comparator<PCB>() {
-      @Override
-      public int compare(PCB p1, PCB p2) {
-        // If two process arrives at the same time, use their burst time as a sorting option
-        if (p1.getArrivalTime() - p2.getArrivalTime() == 0)
-          return p1.getBurstTime() - p2.getBurstTime();
-        return p1.getArrivalTime() - p2.getArrivalTime();
-      }
+    var workload = getWorkload();
+    JobComparator sortComparator = (j1, j2) -> {
+      // If two process arrives at the same time, use their burst time as a sorting option
+      if (workload.getArrivalTime(j1) == workload.getArrivalTime(j2))
+        return Integer.compare(workload.getBurstTime(j1), workload.getBurstTime(j2));
+      return Integer.compare(workload.getArrivalTime(j1), workload.getArrivalTime(j2));
     };
     
-    return schedule(sortComparator, (p1, p2) -> p1.getBurstTime() - p2.getBurstTime());
+    // Ties by arrival time, then job ID (as in MultiCoreScheduler)
+    return scheduleJobs(sortComparator, (j1, j2) -> {
+      if (workload.getBurstTime(j1) != workload.getBurstTime(j2))
+        return Integer.compare(workload.getBurstTime(j1), workload.getBurstTime(j2));
+      if (workload.getArrivalTime(j1) != workload.getArrivalTime(j2))
+        return Integer.compare(workload.getArrivalTime(j1), workload.getArrivalTime(j2));
+      return Integer.compare(j1, j2);
+    });
   }
 
-  public void preemptive_schedule() {
-    // To be implemented
+  /**
+   * Shortest-Remaining-Time-First.
+   * 
+   * Event driven: preemption is only checked when a job arrives or completes, and the
+   * ready jobs sit in a heap keyed by remaining time, so the cost is O(n log n) in the
+   * number of jobs whatever their burst times. Every switch to another job while jobs
+   * are waiting (including every preemption) costs contextSwitchTime.
+   */
+  public LinkedList<String> preemptive_schedule() {
+    clearMetrics();
+
+    var workload = getWorkload();
+    if (workload.size() == 0) {
+      getScheduleTable().addLast("---- Empty Process Block ----");
+      return getScheduleTable();
+    }
+
+    int[] arrivalOrder = workload.arrivalOrder();
+    int next = 0;
+    int[] remainingTime = new int[workload.size()];
+    for (int job = 0; job < remainingTime.length; job++)
+      remainingTime[job] = workload.getBurstTime(job);
+
+    // Shortest remaining time first, ties by arrival order
+    var readyQueue = new JobHeap((j1, j2) -> {
+      if (remainingTime[j1] != remainingTime[j2])
+        return Integer.compare(remainingTime[j1], remainingTime[j2]);
+      if (workload.getArrivalTime(j1) != workload.getArrivalTime(j2))
+        return Integer.compare(workload.getArrivalTime(j1), workload.getArrivalTime(j2));
+      return Integer.compare(j1, j2);
+    }, 16);
+
+    int timer = 0;
+    int runningJob = -1;
+    int runStart = 0;
+    boolean switchPending = false;
+
+    while (true) {
+      if (runningJob == -1) {
+        if (readyQueue.isEmpty()) {
+          if (next == arrivalOrder.length)
+            break; // every job completed
+          // CPU idle until the next arrival
+          int arrival = workload.getArrivalTime(arrivalOrder[next]);
+          if (arrival > timer) {
+            trace(timer, arrival, EventLog.IDLE);
+            timer = arrival;
+          }
+        }
+
+        // Context Switching Time, jobs arriving meanwhile compete for the CPU too
+        if (switchPending) {
+          sample(timer, readyQueue.size(), TimeSeriesRecorder.SWITCHING);
+          timer += switchContext();
+        }
+        switchPending = false;
+        while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer)
+          readyQueue.add(arrivalOrder[next++]);
+
+        runningJob = readyQueue.poll();
+        runStart = timer;
+        start(runningJob, timer);
+        sample(timer, readyQueue.size(), TimeSeriesRecorder.RUNNING);
+      }
+
+      // Next event: the running job completes, or a job arrives first
+      int completion = timer + remainingTime[runningJob];
+      if (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) < completion) {
+        int arrival = workload.getArrivalTime(arrivalOrder[next]);
+        remainingTime[runningJob] -= arrival - timer;
+        timer = arrival;
+        while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer)
+          readyQueue.add(arrivalOrder[next++]);
+
+        // Preempt only for a strictly shorter job
+        if (remainingTime[readyQueue.peek()] < remainingTime[runningJob]) {
+          trace(runStart, timer, runningJob);
+          readyQueue.add(runningJob);
+          runningJob = -1;
+          switchPending = true;
+        }
+        sample(timer, readyQueue.size(), runningJob == -1 ? TimeSeriesRecorder.IDLE : TimeSeriesRecorder.RUNNING);
+      } else {
+        timer = completion;
+        remainingTime[runningJob] = 0;
+        trace(runStart, timer, runningJob);
+        complete(runningJob, timer);
+        runningJob = -1;
+
+        while (next < arrivalOrder.length && workload.getArrivalTime(arrivalOrder[next]) <= timer)
+          readyQueue.add(arrivalOrder[next++]);
+        switchPending = !readyQueue.isEmpty();
+        sample(timer, readyQueue.size(), TimeSeriesRecorder.IDLE);
+      }
+    }
+
+    finishMetrics();
+
+    return traceResult();
   }
 }
@@ -0,0 +1,94 @@
+package process.scheduler;
+
+/**
+ * Discrete-event engine: a clock and a PendingEventSet, events handed to an EventHandler in
+ * (time, type, scheduling order) order. Event types are small ints chosen by the model; at
+ * equal times the lower type is handled first.
+ *
+ * The engine knows nothing about jobs or CPUs, so single CPU policies (EventDrivenScheduler)
+ * and other models can share it and swap the pending-event set (PendingEventSet.Kind).
+ */
+public class SimulationEngine {
+  @FunctionalInterface
+  public interface EventHandler {
+    void handle(int type, int job);
+  }
+
+  private final PendingEventSet events;
+  private long now = 0L;
+  private long processedEvents = 0L;
+  private long elapsedNanos = 0L;
+  private boolean stopped = false;
+
+  public SimulationEngine(PendingEventSet.Kind kind) {
+    this.events = PendingEventSet.create(kind);
+  }
+
+  /** Current simulation time: the time of the event being handled */
+  public long now() {
+    return now;
+  }
+
+  public boolean hasPendingEvents() {
+    return !events.isEmpty();
+  }
+
+  public PendingEventSet getPendingEvents() {
+    return events;
+  }
+
+  /**
+   * Schedules an event, at the current time or later.
+   * @return a handle to cancel it with, valid until the event is handled
+   */
+  public int schedule(long time, int type, int job) {
+    if (time < now)
+      throw new IllegalArgumentException("Event at " + time + " is in the past, now is " + now);
+    return events.schedule(time, type, job);
+  }
+
+  public void cancel(int handle) {
+    events.cancel(handle);
+  }
+
+  /**
+   * Handles events until none are left or the handler calls stop(); the handler may schedule
+   * and cancel events.
+   */
+  public void run(EventHandler handler) {
+    long start = System.nanoTime();
+    stopped = false;
+    while (!stopped && !events.isEmpty()) {
+      int handle = events.poll();
+      now = events.getTime(handle);
+      int type = events.getType(handle);
+      int job = events.getJob(handle);
+      events.release(handle);
+      handler.handle(type, job);
+      processedEvents++;
+    }
+    elapsedNanos += System.nanoTime() - start;
+  }
+
+  /**
+   * Ends run() after the event being handled; the pending events stay for the next run().
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  /** Back to time 0 with no events; the counters keep running */
+  public void reset() {
+    events.clear();
+    now = 0L;
+  }
+
+  public long getProcessedEvents() {
+    return processedEvents;
+  }
+
+  /** Events handled per second of wall-clock time spent in run() */
+  public double getEventsPerSecond() {
+    return elapsedNanos == 0L ? 0.0 : processedEvents * 1e9 / elapsedNanos;
+  }
+}
@@ -0,0 +1,312 @@
+package process.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Runs a scheduling policy over an {@link ArrivalStream} in constant memory.
+ *
+ * Jobs are pulled from the stream only once the simulated clock reaches their arrival,
+ * and their metrics are accumulated as they complete. Only jobs that have arrived but not
+ * completed are held, in recycled slots, so peak memory follows the ready queue size and
+ * not the workload size. The decisions match the batch schedulers job for job, ties between
+ * equal keys included.
+ */
+public class StreamingScheduler {
+  public enum Policy {
+    FCFS, SJF, PRIORITY, ROUND_ROBIN
+  }
+
+  private final Policy policy;
+  private final int timeQuantum;
+  private final int contextSwitchTime;
+
+  // --- Slots of the jobs that have arrived but not completed ---
+  private int[] jobID = new int[64];
+  private long[] arrivalTime = new long[64];
+  private int[] burstTime = new int[64];
+  private int[] priority = new int[64];
+  private int[] remainingTime = new int[64];
+  private int[] freeSlots = new int[64];
+  private int freeCount = 0;
+  private int usedSlots = 0; // high-water mark, recycled slots sit in freeSlots
+
+  // --- Admission: the jobs sharing the next arrival time, in policy order ---
+  private ArrivalStream stream;
+  private boolean streamHasJob;
+  private int[] group = new int[16];
+  private int groupHead = 0;
+  private int groupSize = 0;
+  private JobComparator groupOrder;
+
+  // --- Running metrics ---
+  private long completedJobs;
+  private long totalTurnAroundTime;
+  private long totalWaitingTime;
+  private long cpuBusyTime;
+  private long minArrivalTime;
+  private long maxCompletionTime;
+  // Fixed size, so the latency tails fit in constant memory too; fresh ones every run
+  private LatencyHistogram waitingTimeHistogram;
+  private LatencyHistogram turnAroundTimeHistogram;
+  private LatencyHistogram responseTimeHistogram;
+
+  /**
+   * @param policy            the scheduling policy
+   * @param timeQuantum       time quantum, only used by ROUND_ROBIN
+   * @param contextSwitchTime context switch overhead
+   */
+  public StreamingScheduler(Policy policy, int timeQuantum, int contextSwitchTime) {
+    this.policy = policy;
+    this.timeQuantum = timeQuantum;
+    this.contextSwitchTime = contextSwitchTime;
+  }
+
+  /**
+   * Simulates every job of the stream.
+   */
+  public Scheduler.SimulationResult run(ArrivalStream arrivals) {
+    reset(arrivals);
+    if (hasNextArrival()) {
+      minArrivalTime = nextArrivalTime();
+      switch (policy) {
+        case FCFS:
+          runFirstComeFirstServed();
+          break;
+        case SJF:
+          runNonPreemptive((s1, s2) -> burstTime[s1] != burstTime[s2] ? Integer.compare(burstTime[s1], burstTime[s2])
+              : compareArrival(s1, s2));
+          break;
+        case PRIORITY:
+          runNonPreemptive((s1, s2) -> priority[s1] != priority[s2] ? Integer.compare(priority[s1], priority[s2])
+              : compareArrival(s1, s2));
+          break;
+        case ROUND_ROBIN:
+          runRoundRobin();
+          break;
+      }
+    }
+    return collectMetrics();
+  }
+
+  /** Most jobs held at once during the last run (arrived, not yet completed) */
+  public int getPeakResidentJobs() {
+    return usedSlots;
+  }
+
+  private void runFirstComeFirstServed() {
+    long timer = 0;
+    while (hasNextArrival()) {
+      int current = admitNext();
+      if (arrivalTime[current] > timer)
+        timer = arrivalTime[current];
+
+      timer += burstTime[current];
+      complete(current, timer);
+
+      // Context Switching Time
+      if (contextSwitchTime > 0 && hasNextArrival())
+        timer += contextSwitchTime;
+    }
+  }
+
+  // Ties between equal keys: arrival time, then job ID, as in ShortestJobFirst and PriorityScheduling
+  private int compareArrival(int s1, int s2) {
+    if (arrivalTime[s1] != arrivalTime[s2])
+      return Long.compare(arrivalTime[s1], arrivalTime[s2]);
+    return Integer.compare(jobID[s1], jobID[s2]);
+  }
+
+  // Mirrors Scheduler.scheduleJobs: admission order is arrival time, then the queue order
+  private void runNonPreemptive(JobComparator queueOrder) {
+    groupOrder = queueOrder;
+    var ppq = new JobHeap(queueOrder, 64);
+    ppq.add(admitNext());
+    long timer = 0;
+    int lastExecuted = -1;
+
+    while (!ppq.isEmpty()) {
+      int current = ppq.poll();
+      if (arrivalTime[current] > timer)
+        timer = arrivalTime[current];
+
+      timer += burstTime[current];
+      int currentJob = jobID[current];
+      complete(current, timer);
+
+      while (hasNextArrival() && nextArrivalTime() <= timer)
+        ppq.add(admitNext());
+
+      // Context Switching Time
+      if (contextSwitchTime > 0 && !ppq.isEmpty() && currentJob != lastExecuted)
+        timer += contextSwitchTime;
+      lastExecuted = currentJob;
+
+      if (ppq.isEmpty() && hasNextArrival())
+        ppq.add(admitNext());
+    }
+  }
+
+  // Mirrors RoundRobin.schedule
+  private void runRoundRobin() {
+    var readyQueue = new JobQueue(64);
+    readyQueue.add(admitNext());
+    long timer = 0;
+    int previousJob = -1;
+
+    while (!readyQueue.isEmpty()) {
+      int current = readyQueue.poll();
+      boolean finished = false;
+      if (arrivalTime[current] > timer)
+        timer = arrivalTime[current];
+
+      if (jobID[current] != previousJob)
+        timer += contextSwitchTime;
+      previousJob = jobID[current];
+      if (remainingTime[current] == burstTime[current]) // first time on the CPU
+        responseTimeHistogram.record(timer - arrivalTime[current]);
+
+      // Fast-forward the quanta it runs alone, as in RoundRobin.schedule
+      if (readyQueue.isEmpty() && remainingTime[current] > timeQuantum) {
+        long slicesToFinish = (remainingTime[current] + (long) timeQuantum - 1) / timeQuantum;
+        long slicesToArrival = Long.MAX_VALUE;
+        if (hasNextArrival())
+          slicesToArrival = Math.max(1, (nextArrivalTime() - timer + timeQuantum - 1) / timeQuantum);
+        int slices = (int) (Math.min(slicesToFinish, slicesToArrival) - 1);
+        if (slices > 0) {
+          remainingTime[current] -= slices * timeQuantum;
+          timer += (long) slices * timeQuantum;
+        }
+      }
+
+      if (remainingTime[current] <= timeQuantum) {
+        timer += remainingTime[current];
+        complete(current, timer);
+        finished = true;
+      } else {
+        remainingTime[current] -= timeQuantum;
+        timer += timeQuantum;
+      }
+
+      while (hasNextArrival() && nextArrivalTime() <= timer)
+        readyQueue.add(admitNext());
+      if (!finished)
+        readyQueue.add(current);
+
+      if (hasNextArrival() && readyQueue.isEmpty())
+        readyQueue.add(admitNext());
+    }
+  }
+
+  private void complete(int slot, long timer) {
+    long turnAroundTime = timer - arrivalTime[slot];
+    long waitingTime = turnAroundTime - burstTime[slot];
+    completedJobs++;
+    totalTurnAroundTime += turnAroundTime;
+    totalWaitingTime += waitingTime;
+    turnAroundTimeHistogram.record(turnAroundTime);
+    waitingTimeHistogram.record(waitingTime);
+    if (policy != Policy.ROUND_ROBIN) // ran in one piece
+      responseTimeHistogram.record(waitingTime);
+    cpuBusyTime += burstTime[slot];
+    maxCompletionTime = Math.max(maxCompletionTime, timer);
+    freeSlot(slot);
+  }
+
+  private Scheduler.SimulationResult collectMetrics() {
+    Scheduler.SimulationResult result = new Scheduler.SimulationResult();
+    // From the histogram, the waiting times are not kept: exact below 256, within 0.8% above
+    result.p99WaitingTime = waitingTimeHistogram.getValueAtPercentile(99);
+    result.waitingTimeHistogram = waitingTimeHistogram;
+    result.turnAroundTimeHistogram = turnAroundTimeHistogram;
+    result.responseTimeHistogram = responseTimeHistogram;
+    if (completedJobs == 0)
+      return result;
+    result.avgTurnAroundTime = (double) totalTurnAroundTime / completedJobs;
+    result.avgWaitingTime = (double) totalWaitingTime / completedJobs;
+    long makespan = maxCompletionTime - minArrivalTime;
+    if (makespan != 0) {
+      result.cpuUtilization = ((double) cpuBusyTime / makespan) * 100.0;
+      result.throughput = (double) completedJobs / makespan;
+    }
+    return result;
+  }
+
+  private void reset(ArrivalStream arrivals) {
+    stream = arrivals;
+    streamHasJob = arrivals.advance();
+    groupHead = groupSize = 0;
+    groupOrder = (s1, s2) -> 0;
+    freeCount = usedSlots = 0;
+    completedJobs = totalTurnAroundTime = totalWaitingTime = cpuBusyTime = 0;
+    minArrivalTime = maxCompletionTime = 0;
+    waitingTimeHistogram = new LatencyHistogram();
+    turnAroundTimeHistogram = new LatencyHistogram();
+    responseTimeHistogram = new LatencyHistogram();
+  }
+
+  // --- Admission ---
+
+  private boolean hasNextArrival() {
+    return groupHead < groupSize || streamHasJob;
+  }
+
+  private long nextArrivalTime() {
+    return groupHead < groupSize ? arrivalTime[group[groupHead]] : stream.getArrivalTime();
+  }
+
+  /**
+   * Admits the next job: the batch schedulers sort the whole workload by arrival time and
+   * then by the queue order, so jobs arriving together are pulled in as a group and sorted.
+   */
+  private int admitNext() {
+    if (groupHead == groupSize)
+      pullGroup();
+    return group[groupHead++];
+  }
+
+  private void pullGroup() {
+    groupHead = groupSize = 0;
+    long groupArrival = stream.getArrivalTime();
+    while (streamHasJob && stream.getArrivalTime() == groupArrival) {
+      int slot = allocateSlot();
+      jobID[slot] = stream.getJobID();
+      arrivalTime[slot] = stream.getArrivalTime();
+      burstTime[slot] = stream.getBurstTime();
+      priority[slot] = stream.getPriority();
+      remainingTime[slot] = stream.getBurstTime();
+
+      // Stable insertion sort, groups are a handful of jobs
+      if (groupSize == group.length)
+        group = Arrays.copyOf(group, groupSize << 1);
+      int i = groupSize++;
+      while (i > 0 && groupOrder.compare(group[i - 1], slot) > 0) {
+        group[i] = group[i - 1];
+        i--;
+      }
+      group[i] = slot;
+
+      streamHasJob = stream.advance();
+    }
+  }
+
+  // --- Slot recycling ---
+
+  private int allocateSlot() {
+    if (freeCount > 0)
+      return freeSlots[--freeCount];
+    if (usedSlots == jobID.length) {
+      int capacity = jobID.length << 1;
+      jobID = Arrays.copyOf(jobID, capacity);
+      arrivalTime = Arrays.copyOf(arrivalTime, capacity);
+      burstTime = Arrays.copyOf(burstTime, capacity);
+      priority = Arrays.copyOf(priority, capacity);
+      remainingTime = Arrays.copyOf(remainingTime, capacity);
+      freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+    return usedSlots++;
+  }
+
+  private void freeSlot(int slot) {
+    freeSlots[freeCount++] = slot;
+  }
+}
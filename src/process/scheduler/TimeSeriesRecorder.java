@@ -0,0 +1,223 @@
+package process.scheduler;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Samples the state of a running scheduler every `interval` units of simulated time: the
+ * ready queue length, what the CPU does (IDLE, RUNNING, SWITCHING) and the context switch
+ * overhead paid so far. A scheduler reports every change of state through update(); sample k
+ * is the state in effect at time k * interval, after the changes at that time.
+ *
+ * Samples go to primitive ring buffers holding the latest `capacity` of them. With a file,
+ * every `capacity` samples are appended to it as one block (big endian):
+ *
+ *   header         MAGIC (int), VERSION (int)
+ *   'S' block      new series: interval (long), label (modified UTF-8)
+ *   'D' block      samples: count (int), then the columns
+ *                  queueLength int[count], cpuState byte[count], switchOverhead long[count]
+ *
+ * The samples of a series are consecutive from time 0, so their times are implicit. A
+ * scheduler without a recorder pays one null check per state change. Not thread-safe: one
+ * recorder serves one scheduler run at a time.
+ */
+public class TimeSeriesRecorder implements Closeable {
+  public static final int MAGIC = 0x534D5453; // "SMTS"
+  public static final int VERSION = 1;
+  public static final String DEFAULT_FILE = "simulation_timeseries.smt";
+  public static final int DEFAULT_CAPACITY = 4096;
+
+  // CPU states
+  public static final int IDLE = 0;
+  public static final int RUNNING = 1;
+  public static final int SWITCHING = 2;
+
+  private final long interval;
+  private final DataOutputStream out; // null: in memory only
+
+  // Ring buffers of the latest samples
+  private final int[] queueLength;
+  private final byte[] cpuState;
+  private final long[] switchOverhead;
+  private int head = 0;     // oldest retained sample
+  private int retained = 0;
+  private int unwritten = 0; // newest samples not in the file yet
+
+  // Current series
+  private long samples = 0;
+  private long nextSampleTime = 0;
+  private long lastUpdateTime = 0;
+  private int currentQueueLength = 0;
+  private int currentState = IDLE;
+  private long currentSwitchOverhead = 0;
+
+  /**
+   * In memory: keeps the latest `capacity` samples of the current series.
+   */
+  public TimeSeriesRecorder(long interval, int capacity) {
+    this(interval, capacity, null);
+  }
+
+  /**
+   * Streams every series to a file (created or truncated).
+   */
+  public TimeSeriesRecorder(long interval, int capacity, Path file) {
+    if (interval < 1 || capacity < 1)
+      throw new IllegalArgumentException("Interval and capacity must be positive");
+    this.interval = interval;
+    this.queueLength = new int[capacity];
+    this.cpuState = new byte[capacity];
+    this.switchOverhead = new long[capacity];
+    try {
+      if (file != null) {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+      } else {
+        this.out = null;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error opening time series file " + file, e);
+    }
+  }
+
+  public long getInterval() {
+    return interval;
+  }
+
+  /**
+   * Starts a new series at time 0, CPU idle and queue empty; the previous one is flushed.
+   */
+  public void begin(String label) {
+    flush();
+    head = retained = 0;
+    samples = nextSampleTime = lastUpdateTime = 0;
+    currentQueueLength = 0;
+    currentState = IDLE;
+    currentSwitchOverhead = 0;
+    if (out != null) {
+      try {
+        out.writeByte('S');
+        out.writeLong(interval);
+        out.writeUTF(label);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Error writing time series", e);
+      }
+    }
+  }
+
+  /**
+   * The state from time on. A time before the previous update's counts as the previous one.
+   */
+  public void update(long time, int queueLength, int cpuState, long switchOverhead) {
+    while (nextSampleTime < time)
+      sample();
+    lastUpdateTime = Math.max(lastUpdateTime, time);
+    currentQueueLength = queueLength;
+    currentState = cpuState;
+    currentSwitchOverhead = switchOverhead;
+  }
+
+  /**
+   * Ends the series at the last update: samples up to it, then writes what is unwritten.
+   */
+  public void end() {
+    while (nextSampleTime <= lastUpdateTime)
+      sample();
+    flush();
+  }
+
+  private void sample() {
+    int capacity = queueLength.length;
+    int slot = head + retained;
+    if (slot >= capacity)
+      slot -= capacity;
+    if (retained == capacity) {
+      if (unwritten == capacity)
+        flush();
+      head = head + 1 == capacity ? 0 : head + 1;
+    } else {
+      retained++;
+    }
+    queueLength[slot] = currentQueueLength;
+    cpuState[slot] = (byte) currentState;
+    switchOverhead[slot] = currentSwitchOverhead;
+    if (out != null)
+      unwritten++;
+    samples++;
+    nextSampleTime += interval;
+  }
+
+  // Writes the unwritten samples as one 'D' block
+  private void flush() {
+    if (out == null || unwritten == 0)
+      return;
+    int capacity = queueLength.length;
+    int first = head + retained - unwritten;
+    if (first >= capacity)
+      first -= capacity;
+    try {
+      out.writeByte('D');
+      out.writeInt(unwritten);
+      for (int i = 0, slot = first; i < unwritten; i++, slot = slot + 1 == capacity ? 0 : slot + 1)
+        out.writeInt(queueLength[slot]);
+      for (int i = 0, slot = first; i < unwritten; i++, slot = slot + 1 == capacity ? 0 : slot + 1)
+        out.writeByte(cpuState[slot]);
+      for (int i = 0, slot = first; i < unwritten; i++, slot = slot + 1 == capacity ? 0 : slot + 1)
+        out.writeLong(switchOverhead[slot]);
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error writing time series", e);
+    }
+    unwritten = 0;
+  }
+
+  // --- Latest samples of the current series, oldest first ---
+
+  /** Samples taken in the current series */
+  public long getSampleCount() {
+    return samples;
+  }
+
+  /** Samples still in the ring buffers, at most capacity */
+  public int getRetainedCount() {
+    return retained;
+  }
+
+  /** Time of retained sample i */
+  public long getSampleTime(int i) {
+    return (samples - retained + i) * interval;
+  }
+
+  public int getQueueLength(int i) {
+    return queueLength[slot(i)];
+  }
+
+  public int getCpuState(int i) {
+    return cpuState[slot(i)];
+  }
+
+  public long getSwitchOverhead(int i) {
+    return switchOverhead[slot(i)];
+  }
+
+  private int slot(int i) {
+    if (i < 0 || i >= retained)
+      throw new IndexOutOfBoundsException("Sample " + i + " of " + retained);
+    int slot = head + i;
+    return slot >= queueLength.length ? slot - queueLength.length : slot;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (out != null) {
+      flush();
+      out.close();
+    }
+  }
+}
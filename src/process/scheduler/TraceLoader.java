@@ -0,0 +1,431 @@
+package process.scheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads job traces (arrival, burst, priority per job) into a Workload, straight from a
+ * memory mapping of the file into the primitive columns.
+ *
+ * CSV traces: one job per line, comma separated integers. A first line containing letters
+ * is a header naming the columns (ArrivalTime, BurstTime, Priority, or Arrival, Burst, ...;
+ * other columns, e.g. a job ID, are skipped); without one the first three columns are
+ * arrival, burst and priority. Missing priorities are 0; lines of nothing but blanks and
+ * quotes are ignored.
+ *
+ * Binary traces (see writeBinary, recognized by their MAGIC):
+ *   header   MAGIC, VERSION, job count (int)
+ *   records  arrivalTime, burstTime, priority (3 ints, big endian)
+ * validated like CSV jobs (arrival time >= 0, burst time >= 1).
+ *
+ * The file is split into chunks of CHUNK_BYTES (at line boundaries), parsed in parallel:
+ * a first pass counts the jobs of every chunk, so the second one writes each chunk's jobs
+ * into its own range of the final arrays; fields are parsed from the mapped bytes, no String
+ * per line or field is created.
+ */
+public class TraceLoader {
+  private static final int MAGIC = 0x534D5452; // "SMTR"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 12;
+  private static final int RECORD_BYTES = 12;
+  private static final int CHUNK_BYTES = 64 << 20;
+  private static final int MAX_HEADER_BYTES = 64 * 1024;
+
+  // Column names (lower case) recognized in a CSV header
+  private static final List<String> ARRIVAL_NAMES = List.of("arrivaltime", "arrival_time", "arrival", "submittime",
+      "submit_time", "submit");
+  private static final List<String> BURST_NAMES = List.of("bursttime", "burst_time", "burst", "runtime", "run_time",
+      "servicetime", "service_time");
+  private static final List<String> PRIORITY_NAMES = List.of("priority", "prio");
+
+  private TraceLoader() {
+  }
+
+  public static Workload load(Path file) throws IOException {
+    return load(file, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Loads a CSV or binary trace.
+   * @param parallelism threads parsing chunks of the file
+   */
+  public static Workload load(Path file, int parallelism) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+      try {
+        if (isBinary(channel))
+          return loadBinary(channel, pool, file);
+        return loadCsv(channel, pool, file);
+      } finally {
+        pool.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Replays traces as the workloads of a study: replication i runs on
+   * traces[i % traces.length]. Each trace is loaded once, when first asked for, and kept.
+   */
+  public static WorkloadSource source(Path... traces) {
+    Workload[] loaded = new Workload[traces.length];
+    return replicationID -> {
+      int trace = replicationID % traces.length;
+      synchronized (loaded) {
+        if (loaded[trace] == null) {
+          try {
+            loaded[trace] = load(traces[trace]);
+          } catch (IOException e) {
+            throw new UncheckedIOException("Error loading trace " + traces[trace], e);
+          }
+          loaded[trace].arrivalOrder(); // computed before the workload is shared between threads
+        }
+        return loaded[trace];
+      }
+    };
+  }
+
+  /**
+   * Writes a workload as a binary trace, which loads without parsing.
+   */
+  public static void writeBinary(Workload workload, Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(workload.size());
+      for (int job = 0; job < workload.size(); job++) {
+        if (buffer.remaining() < RECORD_BYTES)
+          flush(channel, buffer);
+        buffer.putInt(workload.getArrivalTime(job)).putInt(workload.getBurstTime(job)).putInt(workload.getPriority(job));
+      }
+      flush(channel, buffer);
+    }
+  }
+
+  private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining())
+      channel.write(buffer);
+    buffer.clear();
+  }
+
+  // --- Binary traces ---
+
+  private static boolean isBinary(FileChannel channel) throws IOException {
+    if (channel.size() < HEADER_BYTES)
+      return false;
+    ByteBuffer magic = ByteBuffer.allocate(4);
+    readFully(channel, magic, 0);
+    return magic.getInt(0) == MAGIC;
+  }
+
+  private static Workload loadBinary(FileChannel channel, ForkJoinPool pool, Path file) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    readFully(channel, header, 0);
+    if (header.getInt(4) != VERSION)
+      throw new IOException(file + ": unsupported trace version " + header.getInt(4));
+    int n = header.getInt(8);
+    if (n < 0 || HEADER_BYTES + (long) n * RECORD_BYTES > channel.size())
+      throw new IOException(file + " is truncated: " + n + " jobs announced");
+
+    int[] arrivalTime = new int[n];
+    int[] burstTime = new int[n];
+    int[] priority = new int[n];
+    int jobsPerChunk = CHUNK_BYTES / RECORD_BYTES;
+    List<Future<?>> chunks = new ArrayList<>();
+    for (int first = 0; first < n; first += jobsPerChunk) {
+      int from = first;
+      int to = (int) Math.min(n, (long) first + jobsPerChunk);
+      chunks.add(pool.submit(() -> {
+        IntBuffer records = map(channel, HEADER_BYTES + (long) from * RECORD_BYTES, (long) (to - from) * RECORD_BYTES)
+            .asIntBuffer();
+        for (int job = from, i = 0; job < to; job++, i += 3) {
+          arrivalTime[job] = records.get(i);
+          burstTime[job] = records.get(i + 1);
+          priority[job] = records.get(i + 2);
+          if (arrivalTime[job] < 0 || burstTime[job] < 1)
+            throw new IllegalArgumentException(file + ": job " + job + " needs an arrival time >= 0 and a burst time >= 1: "
+                + arrivalTime[job] + "," + burstTime[job] + "," + priority[job]);
+        }
+        return null;
+      }));
+    }
+    join(chunks);
+    return new Workload(arrivalTime, burstTime, priority);
+  }
+
+  // --- CSV traces ---
+
+  private static Workload loadCsv(FileChannel channel, ForkJoinPool pool, Path file) throws IOException {
+    long size = channel.size();
+    Columns columns = new Columns();
+    long dataStart = columns.readHeader(channel, file);
+
+    // Chunk boundaries at line starts
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(dataStart);
+    for (long nominal = dataStart + CHUNK_BYTES; nominal < size; nominal += CHUNK_BYTES) {
+      long start = lineStart(channel, nominal);
+      if (start > bounds.get(bounds.size() - 1) && start < size)
+        bounds.add(start);
+    }
+    bounds.add(size);
+    int chunkCount = bounds.size() - 1;
+
+    // Pass 1: jobs per chunk
+    long[] counts = new long[chunkCount];
+    List<Future<?>> counting = new ArrayList<>();
+    for (int c = 0; c < chunkCount; c++) {
+      int chunk = c;
+      counting.add(pool.submit(() -> {
+        counts[chunk] = countRecords(map(channel, bounds.get(chunk), bounds.get(chunk + 1) - bounds.get(chunk)));
+        return null;
+      }));
+    }
+    join(counting);
+    long total = 0;
+    long[] firstJob = new long[chunkCount];
+    for (int c = 0; c < chunkCount; c++) {
+      firstJob[c] = total;
+      total += counts[c];
+    }
+    if (total > Integer.MAX_VALUE - 8)
+      throw new IOException(file + ": " + total + " jobs do not fit in a workload");
+
+    // Pass 2: parse every chunk into its range of the columns
+    int n = (int) total;
+    int[] arrivalTime = new int[n];
+    int[] burstTime = new int[n];
+    int[] priority = new int[n];
+    List<Future<?>> parsing = new ArrayList<>();
+    for (int c = 0; c < chunkCount; c++) {
+      int chunk = c;
+      parsing.add(pool.submit(() -> {
+        parseRecords(map(channel, bounds.get(chunk), bounds.get(chunk + 1) - bounds.get(chunk)), columns,
+            (int) firstJob[chunk], arrivalTime, burstTime, priority, file);
+        return null;
+      }));
+    }
+    join(parsing);
+    return new Workload(arrivalTime, burstTime, priority);
+  }
+
+  /**
+   * Positions of the arrival, burst and priority fields in a line (-1: absent).
+   */
+  private static class Columns {
+    int arrival = 0;
+    int burst = 1;
+    int priority = 2;
+    int count = 3; // fields to look at per line
+
+    // Reads the header line, if any; returns where the jobs start
+    long readHeader(FileChannel channel, Path file) throws IOException {
+      ByteBuffer first = ByteBuffer.allocate((int) Math.min(channel.size(), MAX_HEADER_BYTES));
+      readFully(channel, first, 0);
+      int end = 0;
+      while (end < first.limit() && first.get(end) != '\n')
+        end++;
+      String line = new String(first.array(), 0, end, StandardCharsets.UTF_8);
+      if (!line.chars().anyMatch(Character::isLetter))
+        return 0; // no header
+
+      arrival = burst = priority = -1;
+      String[] names = line.split(",", -1);
+      for (int i = 0; i < names.length; i++) {
+        String name = names[i].replace("\uFEFF", "").replace("\"", "").trim().toLowerCase(Locale.ROOT);
+        if (arrival < 0 && ARRIVAL_NAMES.contains(name))
+          arrival = i;
+        else if (burst < 0 && BURST_NAMES.contains(name))
+          burst = i;
+        else if (priority < 0 && PRIORITY_NAMES.contains(name))
+          priority = i;
+      }
+      if (arrival < 0 || burst < 0)
+        throw new IOException(file + ": header has no arrival or burst time column: " + line.trim());
+      count = Math.max(arrival, Math.max(burst, priority)) + 1;
+      return end < first.limit() ? end + 1 : channel.size();
+    }
+  }
+
+  // Jobs in a chunk: its lines with content, as parseRecords sees them
+  private static long countRecords(MappedByteBuffer chunk) {
+    long records = 0;
+    boolean content = false;
+    for (int i = 0, limit = chunk.limit(); i < limit; i++) {
+      byte b = chunk.get(i);
+      if (b == '\n') {
+        if (content)
+          records++;
+        content = false;
+      } else if (!content && isContent(b)) {
+        content = true;
+      }
+    }
+    return content ? records + 1 : records;
+  }
+
+  /**
+   * Parses the jobs of a chunk in one pass over its bytes: digits accumulate into the current
+   * field, a comma ends the field and a line feed the line. Blanks and quotes are skipped;
+   * anything else only matters (as an error) in the arrival, burst and priority fields.
+   */
+  private static void parseRecords(MappedByteBuffer chunk, Columns columns, int job, int[] arrivalTime,
+      int[] burstTime, int[] priority, Path file) {
+    int limit = chunk.limit();
+    int lineStart = 0;
+    int field = 0;
+    boolean content = false;
+    long value = 0;
+    boolean digits = false;
+    boolean negative = false;
+    boolean invalid = false;
+    boolean arrival = false;
+    boolean burst = false;
+    int prio = 0;
+    for (int i = 0; i <= limit; i++) {
+      byte b = i < limit ? chunk.get(i) : (byte) '\n'; // the last line may have no line feed
+      if (b >= '0' && b <= '9') {
+        value = value * 10 + (b - '0');
+        if (value > Integer.MAX_VALUE)
+          invalid = true;
+        digits = content = true;
+      } else if (b == ',' || b == '\n') {
+        if (b == ',')
+          content = true;
+        // End of the field; nothing to check on a line blank so far
+        boolean required = field == columns.arrival || field == columns.burst;
+        if (content && (required || (field == columns.priority && (digits || invalid)))) {
+          if (invalid || !digits)
+            throw new IllegalArgumentException(file + ": job " + job + " has an invalid or missing "
+                + (field == columns.arrival ? "arrival time" : field == columns.burst ? "burst time" : "priority") + ": "
+                + line(chunk, lineStart, i));
+          int v = (int) (negative ? -value : value);
+          if (field == columns.arrival) {
+            arrivalTime[job] = v;
+            arrival = true;
+          } else if (field == columns.burst) {
+            burstTime[job] = v;
+            burst = true;
+          } else {
+            prio = v;
+          }
+        }
+        field++;
+        value = 0;
+        digits = negative = invalid = false;
+        if (b == '\n') {
+          // End of the line
+          if (content) {
+            if (!arrival || !burst)
+              throw new IllegalArgumentException(file + ": job " + job + " has too few fields: " + line(chunk, lineStart, i));
+            if (arrivalTime[job] < 0 || burstTime[job] < 1)
+              throw new IllegalArgumentException(file + ": job " + job
+                  + " needs an arrival time >= 0 and a burst time >= 1: " + line(chunk, lineStart, i));
+            priority[job++] = prio;
+          }
+          lineStart = i + 1;
+          field = 0;
+          content = arrival = burst = false;
+          prio = 0;
+        }
+      } else if (isContent(b)) {
+        content = true;
+        if (b == '-' && !digits && !negative)
+          negative = true;
+        else if (b != '+' || digits)
+          invalid = true;
+      }
+    }
+  }
+
+  private static String line(MappedByteBuffer chunk, int from, int to) {
+    return StandardCharsets.UTF_8.decode(chunk.duplicate().position(from).limit(Math.min(to, chunk.limit()))).toString().trim();
+  }
+
+  // Anything but blanks and quotes makes a line a job (line feeds end it)
+  private static boolean isContent(byte b) {
+    return b != ' ' && b != '\t' && b != '\r' && b != '"';
+  }
+
+  // First line start at or after position
+  private static long lineStart(FileChannel channel, long position) throws IOException {
+    ByteBuffer window = ByteBuffer.allocate(64 * 1024);
+    long at = position - 1;
+    while (at < channel.size()) {
+      window.clear();
+      int read = channel.read(window, at);
+      if (read <= 0)
+        break;
+      for (int i = 0; i < read; i++)
+        if (window.get(i) == '\n')
+          return at + i + 1;
+      at += read;
+    }
+    return channel.size();
+  }
+
+  private static MappedByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+    if (length > Integer.MAX_VALUE)
+      throw new IOException("Trace line longer than " + Integer.MAX_VALUE + " bytes");
+    return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+    while (target.hasRemaining()) {
+      int read = channel.read(target, position);
+      if (read < 0)
+        throw new IOException("Unexpected end of trace");
+      position += read;
+    }
+  }
+
+  private static void join(List<Future<?>> tasks) throws IOException {
+    try {
+      for (Future<?> task : tasks)
+        task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Trace loading interrupted", e);
+    } catch (ExecutionException e) {
+      // The fork-join pool hands back a copy of the task's exception, wrapping the original
+      Throwable cause = e.getCause();
+      if (cause.getCause() != null && cause.getCause().getClass() == cause.getClass())
+        cause = cause.getCause();
+      if (cause instanceof IOException)
+        throw (IOException) cause;
+      if (cause instanceof RuntimeException)
+        throw (RuntimeException) cause;
+      throw new IOException(cause);
+    }
+  }
+
+  /**
+   * Loads a trace and prints its size and load time, optionally converting it to a binary trace:
+   * java process.scheduler.TraceLoader trace.csv [trace.bin]
+   */
+  public static void main(String[] args) throws IOException {
+    long start = System.nanoTime();
+    Workload workload = load(Paths.get(args[0]));
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("%,d jobs loaded in %.3f s (%,.0f jobs/s), total burst %,d ms%n", workload.size(), seconds,
+        workload.size() / seconds, workload.getTotalBurstTime());
+    if (args.length > 1) {
+      writeBinary(workload, Paths.get(args[1]));
+      System.out.println("Binary trace written to " + args[1] + ".");
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package process.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Workload : a compact, read-only set of jobs.
+ *
+ * Jobs are identified by dense IDs 0..size()-1 and stored as parallel int arrays
+ * (struct of arrays), so schedulers can run over it without a PCB per job.
+ * {@link #of(List)} and {@link #toPCBs()} adapt it to and from the PCB API.
+ */
+public class Workload {
+  private final int[] arrivalTime;
+  private final int[] burstTime;
+  private final int[] priority;
+  private final String[] pIDs; // null: generated IDs "P1", "P2", ...
+  private final long totalBurstTime;
+  private final int minArrivalTime;
+  private volatile int[] arrivalOrder;
+
+  /**
+   * @param arrivalTime arrival time of every job, indexed by job ID
+   * @param burstTime   cpu time every job requires, indexed by job ID
+   * @param priority    priority of every job, indexed by job ID
+   */
+  public Workload(int[] arrivalTime, int[] burstTime, int[] priority) {
+    this(null, arrivalTime, burstTime, priority);
+  }
+
+  /**
+   * @param pIDs        process IDs, indexed by job ID (null for "P" + (jobID + 1))
+   * @param arrivalTime arrival time of every job, indexed by job ID
+   * @param burstTime   cpu time every job requires, indexed by job ID
+   * @param priority    priority of every job, indexed by job ID
+   */
+  public Workload(String[] pIDs, int[] arrivalTime, int[] burstTime, int[] priority) {
+    if (arrivalTime.length != burstTime.length || arrivalTime.length != priority.length
+        || (pIDs != null && pIDs.length != arrivalTime.length))
+      throw new IllegalArgumentException("Workload columns must have the same length");
+    this.pIDs = pIDs;
+    this.arrivalTime = arrivalTime;
+    this.burstTime = burstTime;
+    this.priority = priority;
+
+    long busy = 0;
+    int minArrival = arrivalTime.length == 0 ? 0 : Integer.MAX_VALUE;
+    for (int job = 0; job < arrivalTime.length; job++) {
+      busy += burstTime[job];
+      minArrival = Math.min(minArrival, arrivalTime[job]);
+    }
+    this.totalBurstTime = busy;
+    this.minArrivalTime = minArrival;
+  }
+
+  public static Workload of(List<PCB> processes) {
+    int n = processes.size();
+    String[] pIDs = new String[n];
+    int[] arrival = new int[n];
+    int[] burst = new int[n];
+    int[] priority = new int[n];
+    int job = 0;
+    for (PCB process : processes) {
+      pIDs[job] = process.getPID();
+      arrival[job] = process.getArrivalTime();
+      burst[job] = process.getBurstTime();
+      priority[job] = process.getPriority();
+      job++;
+    }
+    return new Workload(pIDs, arrival, burst, priority);
+  }
+
+  public int size() {
+    return arrivalTime.length;
+  }
+
+  public int getArrivalTime(int job) {
+    return arrivalTime[job];
+  }
+
+  public int getBurstTime(int job) {
+    return burstTime[job];
+  }
+
+  public int getPriority(int job) {
+    return priority[job];
+  }
+
+  public String getPID(int job) {
+    return pIDs == null ? "P" + (job + 1) : pIDs[job];
+  }
+
+  public long getTotalBurstTime() {
+    return totalBurstTime;
+  }
+
+  public int getMinArrivalTime() {
+    return minArrivalTime;
+  }
+
+  public PCB toPCB(int job) {
+    return new PCB(getPID(job), burstTime[job], arrivalTime[job], priority[job]);
+  }
+
+  public List<PCB> toPCBs() {
+    List<PCB> processes = new ArrayList<>(size());
+    for (int job = 0; job < size(); job++)
+      processes.add(toPCB(job));
+    return processes;
+  }
+
+  /**
+   * Walks the jobs in arrival order.
+   */
+  public ArrivalStream stream() {
+    int[] order = arrivalOrder();
+    return new ArrivalStream() {
+      private int next = 0;
+      private int job = -1;
+
+      public boolean advance() {
+        if (next == order.length)
+          return false;
+        job = order[next++];
+        return true;
+      }
+
+      public int getJobID() {
+        return job;
+      }
+
+      public long getArrivalTime() {
+        return arrivalTime[job];
+      }
+
+      public int getBurstTime() {
+        return burstTime[job];
+      }
+
+      public int getPriority() {
+        return priority[job];
+      }
+    };
+  }
+
+  /**
+   * Job IDs ordered by arrival time (ties keep job ID order). Computed once and shared,
+   * callers must not modify the returned array.
+   */
+  public int[] arrivalOrder() {
+    int[] order = arrivalOrder;
+    if (order == null)
+      arrivalOrder = order = sortedIds((j1, j2) -> Integer.compare(arrivalTime[j1], arrivalTime[j2]));
+    return order;
+  }
+
+  /**
+   * Stable sort of the job IDs: jobs that compare equal keep job ID order,
+   * like List.sort does for PCBs.
+   */
+  public int[] sortedIds(JobComparator comparator) {
+    int n = size();
+    int[] ids = new int[n];
+    boolean sorted = true;
+    for (int job = 0; job < n; job++) {
+      ids[job] = job;
+      if (job > 0 && sorted && comparator.compare(job - 1, job) > 0)
+        sorted = false;
+    }
+    if (!sorted)
+      mergeSort(ids, new int[n], comparator);
+    return ids;
+  }
+
+  // Bottom-up merge sort, ping-ponging between the two buffers
+  private static void mergeSort(int[] ids, int[] buffer, JobComparator comparator) {
+    int n = ids.length;
+    int[] src = ids, dst = buffer;
+    for (int width = 1; width < n; width <<= 1) {
+      for (int lo = 0; lo < n; lo += width << 1) {
+        int mid = Math.min(lo + width, n), hi = Math.min(lo + (width << 1), n);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi)
+          dst[k++] = comparator.compare(src[i], src[j]) <= 0 ? src[i++] : src[j++];
+        while (i < mid)
+          dst[k++] = src[i++];
+        while (j < hi)
+          dst[k++] = src[j++];
+      }
+      int[] swap = src;
+      src = dst;
+      dst = swap;
+    }
+    if (src != ids)
+      System.arraycopy(src, 0, ids, 0, n);
+  }
+}
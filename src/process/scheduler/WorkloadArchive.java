@@ -0,0 +1,181 @@
+package process.scheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary workload archive: every generated workload, written once and replayable
+ * without regenerating or parsing it.
+ *
+ * Layout (big endian):
+ *   header   MAGIC, VERSION
+ *   records  per replication, one fixed-width record per job: arrivalTime, burstTime, priority (3 ints)
+ *   index    per replication: replicationID (int), offset of its first record (long), job count (int)
+ *   footer   offset of the index (long), index entries (int), MAGIC
+ *
+ * Replications may be appended in any order (e.g. by parallel workers); the index finds them.
+ */
+public class WorkloadArchive {
+  public static final String DEFAULT_FILE = "generated_workloads.bin";
+
+  private static final int MAGIC = 0x534D5741; // "SMWA"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 8;
+  private static final int RECORD_BYTES = 12;
+  private static final int INDEX_ENTRY_BYTES = 16;
+  private static final int FOOTER_BYTES = 16;
+
+  /**
+   * Appends workloads through one reusable buffer; thread-safe.
+   */
+  public static class Writer implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private long position = 0;
+    private int entries = 0;
+    private int[] replicationIDs = new int[16];
+    private long[] offsets = new long[16];
+    private int[] jobCounts = new int[16];
+
+    public Writer(Path file) throws IOException {
+      this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+      buffer.putInt(MAGIC).putInt(VERSION);
+    }
+
+    public synchronized void append(int replicationID, Workload workload) throws IOException {
+      if (entries == replicationIDs.length) {
+        replicationIDs = Arrays.copyOf(replicationIDs, entries << 1);
+        offsets = Arrays.copyOf(offsets, entries << 1);
+        jobCounts = Arrays.copyOf(jobCounts, entries << 1);
+      }
+      replicationIDs[entries] = replicationID;
+      offsets[entries] = position + buffer.position();
+      jobCounts[entries] = workload.size();
+      entries++;
+
+      for (int job = 0; job < workload.size(); job++) {
+        if (buffer.remaining() < RECORD_BYTES)
+          flush();
+        buffer.putInt(workload.getArrivalTime(job))
+            .putInt(workload.getBurstTime(job))
+            .putInt(workload.getPriority(job));
+      }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+      try {
+        long indexOffset = position + buffer.position();
+        for (int entry = 0; entry < entries; entry++) {
+          if (buffer.remaining() < INDEX_ENTRY_BYTES)
+            flush();
+          buffer.putInt(replicationIDs[entry]).putLong(offsets[entry]).putInt(jobCounts[entry]);
+        }
+        if (buffer.remaining() < FOOTER_BYTES)
+          flush();
+        buffer.putLong(indexOffset).putInt(entries).putInt(MAGIC);
+        flush();
+      } finally {
+        channel.close();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining())
+        position += channel.write(buffer);
+      buffer.clear();
+    }
+  }
+
+  /**
+   * Replays archived workloads straight from a memory mapping of the archive.
+   */
+  public static class Reader implements WorkloadSource, Closeable {
+    private final FileChannel channel;
+    private final long[] offsets; // by replication ID, -1 when absent
+    private final int[] jobCounts;
+
+    public Reader(Path file) throws IOException {
+      this.channel = FileChannel.open(file, StandardOpenOption.READ);
+      long size = channel.size();
+      if (size < HEADER_BYTES + FOOTER_BYTES)
+        throw new IOException(file + " is not a workload archive");
+
+      ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, size - FOOTER_BYTES, FOOTER_BYTES);
+      long indexOffset = footer.getLong();
+      int entries = footer.getInt();
+      if (footer.getInt() != MAGIC)
+        throw new IOException(file + " is not a complete workload archive");
+
+      ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, (long) entries * INDEX_ENTRY_BYTES);
+      int maxID = -1;
+      for (int entry = 0; entry < entries; entry++)
+        maxID = Math.max(maxID, index.getInt(entry * INDEX_ENTRY_BYTES));
+      this.offsets = new long[maxID + 1];
+      this.jobCounts = new int[maxID + 1];
+      Arrays.fill(offsets, -1);
+      for (int entry = 0; entry < entries; entry++) {
+        int replicationID = index.getInt();
+        offsets[replicationID] = index.getLong();
+        jobCounts[replicationID] = index.getInt();
+      }
+    }
+
+    /** Number of replication IDs covered (IDs 0..getReplications()-1) */
+    public int getReplications() {
+      return offsets.length;
+    }
+
+    @Override
+    public Workload getWorkload(int replicationID) {
+      if (replicationID < 0 || replicationID >= offsets.length || offsets[replicationID] < 0)
+        throw new IllegalArgumentException("Replication " + replicationID + " is not in the archive");
+      int n = jobCounts[replicationID];
+      try {
+        IntBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, offsets[replicationID],
+            (long) n * RECORD_BYTES).asIntBuffer();
+        int[] arrivalTime = new int[n];
+        int[] burstTime = new int[n];
+        int[] priority = new int[n];
+        for (int job = 0; job < n; job++) {
+          arrivalTime[job] = records.get();
+          burstTime[job] = records.get();
+          priority[job] = records.get();
+        }
+        return new Workload(arrivalTime, burstTime, priority);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /**
+   * Prints one archived replication as CSV, for auditing:
+   * java process.scheduler.WorkloadArchive generated_workloads.bin 3
+   */
+  public static void main(String[] args) throws IOException {
+    try (Reader reader = new Reader(Paths.get(args.length > 0 ? args[0] : DEFAULT_FILE))) {
+      int replicationID = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+      Workload workload = reader.getWorkload(replicationID);
+      System.out.println("ReplicationID,JobID,ArrivalTime,BurstTime,Priority");
+      for (int job = 0; job < workload.size(); job++)
+        System.out.println(replicationID + "," + workload.getPID(job) + "," + workload.getArrivalTime(job) + ","
+            + workload.getBurstTime(job) + "," + workload.getPriority(job));
+    }
+  }
+}
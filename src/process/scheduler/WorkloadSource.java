@@ -0,0 +1,9 @@
+package process.scheduler;
+
+/**
+ * Supplies the workload of a replication, as an alternative to generating it.
+ */
+@FunctionalInterface
+public interface WorkloadSource {
+  Workload getWorkload(int replicationID);
+}
@@ -0,0 +1,38 @@
+package process.scheduler.vector;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import process.scheduler.FcfsBatch;
+
+/**
+ * FcfsBatch's scan with the incubating Vector API: one lane of the batch per vector lane,
+ * as many lanes at a time as the preferred species holds. Compile and run with
+ * --add-modules jdk.incubator.vector; FcfsBatch loads it by name and falls back to its
+ * scalar loop without it.
+ */
+public final class VectorFcfsKernel implements FcfsBatch.Kernel {
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  @Override
+  public int scan(int[] arrival, int[] burst, int jobs, int lanes, int contextSwitchTime, int[] waitingTime,
+      int[] lastCompletion) {
+    int width = SPECIES.length();
+    IntVector switchTime = IntVector.broadcast(SPECIES, contextSwitchTime);
+    int lane = 0;
+    for (; lane + width <= lanes; lane += width) {
+      IntVector free = IntVector.zero(SPECIES);
+      IntVector completion = free;
+      for (int i = 0, at = lane; i < jobs; i++, at += lanes) {
+        IntVector a = IntVector.fromArray(SPECIES, arrival, at);
+        IntVector start = free.max(a);
+        start.sub(a).intoArray(waitingTime, at);
+        completion = start.add(IntVector.fromArray(SPECIES, burst, at));
+        free = completion.add(switchTime);
+      }
+      if (jobs > 0)
+        completion.intoArray(lastCompletion, lane);
+    }
+    return lane;
+  }
+}
@@ -0,0 +1,167 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * EventDrivenScheduler with the built-in EventPolicies against the single-core schedulers of
+ * the same policies, on both pending-event sets, and OnlineScheduler against it; then the two
+ * pending-event sets against each other.
+ */
+class EventDrivenSchedulerTest {
+  private static final double[] MEAN_INTER_ARRIVALS = { 2.0, 5.0, 10.0 };
+
+  @Test
+  void fcfsMatchesFirstComeFirstServed() {
+    forEachCase(EventPolicies::fcfs, (workload, cs) -> {
+      FirstComeFirstServed fcfs = new FirstComeFirstServed(workload, cs);
+      fcfs.schedule();
+      return fcfs;
+    });
+  }
+
+  @Test
+  void sjfMatchesShortestJobFirst() {
+    forEachCase(EventPolicies::sjf, (workload, cs) -> {
+      ShortestJobFirst sjf = new ShortestJobFirst(workload, cs);
+      sjf.non_preemptive_schedule();
+      return sjf;
+    });
+  }
+
+  @Test
+  void srtfMatchesPreemptiveShortestJobFirst() {
+    forEachCase(EventPolicies::srtf, (workload, cs) -> {
+      ShortestJobFirst srtf = new ShortestJobFirst(workload, cs);
+      srtf.preemptive_schedule();
+      return srtf;
+    });
+  }
+
+  @Test
+  void priorityMatchesPriorityScheduling() {
+    forEachCase(() -> EventPolicies.priority(false), (workload, cs) -> {
+      PriorityScheduling priority = new PriorityScheduling(workload, cs);
+      priority.non_preemptive_schedule();
+      return priority;
+    });
+  }
+
+  @Test
+  void preemptivePriorityMatchesPriorityScheduling() {
+    forEachCase(() -> EventPolicies.priority(true), (workload, cs) -> {
+      PriorityScheduling priority = new PriorityScheduling(workload, cs);
+      priority.preemptive_schedule();
+      return priority;
+    });
+  }
+
+  @Test
+  void roundRobinMatchesRoundRobin() {
+    forEachCase(() -> EventPolicies.roundRobin(Workloads.TIME_QUANTUM), (workload, cs) -> {
+      RoundRobin rr = new RoundRobin(workload, Workloads.TIME_QUANTUM, cs);
+      rr.schedule();
+      return rr;
+    });
+  }
+
+  @Test
+  void onlineSchedulerMatchesEventDrivenScheduler() {
+    List<Supplier<EventPolicy>> policies = List.of(EventPolicies::fcfs, EventPolicies::sjf, EventPolicies::srtf,
+        () -> EventPolicies.priority(false), () -> EventPolicies.priority(true),
+        () -> EventPolicies.roundRobin(Workloads.TIME_QUANTUM));
+    for (int seed = 0; seed < 10; seed++) {
+      Workload workload = new JobGenerator(seed).generate(300, 5.0, 8.0, 2.0, 10, 0);
+      for (Supplier<EventPolicy> policy : policies)
+        for (int cs = 0; cs <= 2; cs++) {
+          var batch = new EventDrivenScheduler(workload, policy.get(), PendingEventSet.Kind.HEAP, cs);
+          batch.setTraceMode(Scheduler.TraceMode.NONE);
+          batch.schedule();
+
+          var online = new OnlineScheduler(policy.get(), cs);
+          for (int job : workload.arrivalOrder())
+            online.submit(workload.getArrivalTime(job), workload.getBurstTime(job), workload.getPriority(job));
+          online.drain();
+
+          String where = "seed " + seed + " cs " + cs;
+          assertEquals(workload.size(), online.getCompletedJobs(), where);
+          assertEquals(batch.getAverageWaitingTime(), online.getAverageWaitingTime(), 1e-9, where);
+          assertEquals(batch.getAverageTurnAroundTime(), online.getAverageTurnAroundTime(), 1e-9, where);
+          assertEquals(batch.CollectMetrics().contextSwitches, online.getContextSwitches(), where);
+        }
+    }
+  }
+
+  @Test
+  void calendarAndHeapPollInTheSameOrder() {
+    Random random = new Random(7);
+    for (int mix = 0; mix < 50; mix++) {
+      // Narrow time ranges give many ties on time (and type), wide ones spread the calendar
+      long range = mix % 2 == 0 ? 20 : 1_000_000;
+      PendingEventSet calendar = PendingEventSet.create(PendingEventSet.Kind.CALENDAR);
+      PendingEventSet heap = PendingEventSet.create(PendingEventSet.Kind.HEAP);
+      List<int[]> pending = new ArrayList<>(); // handles in calendar and heap
+      long now = 0;
+      int id = 0;
+      for (int step = 0; step < 5_000; step++) {
+        int action = random.nextInt(10);
+        if (action < 5 || pending.isEmpty()) {
+          long time = now + (long) (random.nextDouble() * range);
+          int type = random.nextInt(3);
+          pending.add(new int[] { calendar.schedule(time, type, id), heap.schedule(time, type, id) });
+          id++;
+        } else if (action < 6) {
+          int[] handles = pending.remove(random.nextInt(pending.size()));
+          calendar.cancel(handles[0]);
+          heap.cancel(handles[1]);
+        } else {
+          int c = calendar.poll(), h = heap.poll();
+          String where = "mix " + mix + " step " + step;
+          assertEquals(heap.getTime(h), calendar.getTime(c), where);
+          assertEquals(heap.getType(h), calendar.getType(c), where);
+          assertEquals(heap.getJob(h), calendar.getJob(c), where);
+          now = heap.getTime(h);
+          int job = heap.getJob(h);
+          pending.removeIf(handles -> calendar.getJob(handles[0]) == job);
+          calendar.release(c);
+          heap.release(h);
+        }
+      }
+      while (!heap.isEmpty()) {
+        int c = calendar.poll(), h = heap.poll();
+        assertEquals(heap.getJob(h), calendar.getJob(c), "mix " + mix + " drain");
+        calendar.release(c);
+        heap.release(h);
+      }
+      assertEquals(0, calendar.size());
+    }
+  }
+
+  @FunctionalInterface
+  private interface SingleCore {
+    Scheduler run(Workload workload, int contextSwitchTime);
+  }
+
+  private static void forEachCase(Supplier<EventPolicy> policy, SingleCore singleCore) {
+    for (double meanInterArrival : MEAN_INTER_ARRIVALS)
+      for (int seed = 0; seed < 20; seed++) {
+        Workload workload = new JobGenerator(seed).generate(300, meanInterArrival, 8.0, 2.0, 10, 0);
+        for (int cs = 0; cs <= 2; cs++) {
+          Scheduler expected = singleCore.run(workload, cs);
+          for (PendingEventSet.Kind kind : PendingEventSet.Kind.values()) {
+            var scheduler = new EventDrivenScheduler(workload, policy.get(), kind, cs);
+            scheduler.setTraceMode(Scheduler.TraceMode.NONE);
+            scheduler.schedule();
+            String where = kind + " seed " + seed + " iat " + meanInterArrival + " cs " + cs;
+            MultiCoreSchedulerTest.assertSameResults(expected, scheduler, where);
+          }
+        }
+      }
+  }
+}
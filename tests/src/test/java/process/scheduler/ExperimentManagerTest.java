@@ -0,0 +1,104 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ExperimentManager.Parameters and the comparative study.
+ */
+class ExperimentManagerTest {
+  @Test
+  void parametersCopyCarriesEveryField() throws IllegalAccessException {
+    var parameters = new ExperimentManager.Parameters(7, 3.5, 9.0, 1.5, 4, 6, 2, 11);
+    parameters.seed = 42L;
+    parameters.parallelism = 3;
+    parameters.streaming = true;
+    parameters.workloadArchive = "archive.smw";
+    parameters.resultsFile = "results.csv";
+    parameters.columnarResultsFile = "results.smc";
+    parameters.targetRelativePrecision = 0.05;
+    parameters.maxReplications = 77;
+    parameters.antithetic = true;
+    parameters.controlVariates = true;
+    parameters.agingInterval = 13;
+    parameters.agingStep = 2;
+    parameters.mlfqQuanta = new int[] { 1, 2, 4, 8 };
+    parameters.mlfqBoostInterval = 55;
+    parameters.cfsTargetLatency = 30;
+    parameters.cfsMinGranularity = 5;
+    parameters.cores = 4;
+    parameters.queueMode = MultiCoreScheduler.QueueMode.PER_CORE;
+    parameters.resultCache = "cache.smr";
+    parameters.timeSeriesFile = "series.smt";
+    parameters.timeSeriesInterval = 20;
+    parameters.printReport = false;
+
+    var copy = new ExperimentManager.Parameters(parameters);
+    for (Field field : ExperimentManager.Parameters.class.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers()))
+        continue;
+      if (field.getType() == int[].class) {
+        assertArrayEquals((int[]) field.get(parameters), (int[]) field.get(copy), field.getName());
+        assertNotSame(field.get(parameters), field.get(copy), field.getName());
+      } else {
+        assertEquals(field.get(parameters), field.get(copy), field.getName());
+      }
+    }
+  }
+
+  @Test
+  void antitheticReplicationsComeInPairs() {
+    var parameters = new ExperimentManager.Parameters(50, 4.0, 8.0, 2.0, 10, 5, 1, 5);
+    parameters.seed = 3L;
+    parameters.resultsFile = null;
+    parameters.printReport = false;
+    parameters.antithetic = true;
+    assertThrows(IllegalArgumentException.class, () -> new ExperimentManager(parameters).runComparativeStudy());
+
+    parameters.replications = 4;
+    parameters.targetRelativePrecision = 0.01;
+    parameters.maxReplications = 9;
+    assertThrows(IllegalArgumentException.class, () -> new ExperimentManager(parameters).runComparativeStudy());
+
+    parameters.targetRelativePrecision = 0;
+    var manager = new ExperimentManager(parameters);
+    manager.runComparativeStudy();
+    assertEquals(4, manager.getCompletedReplications());
+    assertEquals(2, manager.getReducedStatistics("FCFS", "AvgWaitingTime").getCount());
+  }
+
+  @Test
+  void parallelStudyMatchesSequentialStudy() {
+    ExperimentManager[] managers = new ExperimentManager[2];
+    int[] parallelism = { 1, 4 };
+    for (int i = 0; i < managers.length; i++) {
+      var parameters = new ExperimentManager.Parameters(80, 4.0, 8.0, 2.0, 10, 5, 1, 12);
+      parameters.seed = 11L;
+      parameters.resultsFile = null;
+      parameters.printReport = false;
+      parameters.parallelism = parallelism[i];
+      managers[i] = new ExperimentManager(parameters);
+      managers[i].runComparativeStudy();
+    }
+
+    ExperimentManager sequential = managers[0], parallel = managers[1];
+    assertEquals(sequential.getAlgorithmNames(), parallel.getAlgorithmNames());
+    assertEquals(sequential.getMetricNames(), parallel.getMetricNames());
+    for (String algorithm : sequential.getAlgorithmNames())
+      for (String metric : sequential.getMetricNames()) {
+        OnlineStatistics expected = sequential.getStatistics(algorithm, metric);
+        OnlineStatistics actual = parallel.getStatistics(algorithm, metric);
+        String where = algorithm + " " + metric;
+        assertEquals(12, actual.getCount(), where);
+        assertEquals(expected.getMean(), actual.getMean(), where);
+        assertEquals(expected.getVariance(), actual.getVariance(), where);
+      }
+  }
+}
@@ -0,0 +1,55 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * FairShareScheduler: CPU shares in the ratio of the weights, the slice arguments, and the
+ * period stretched by minGranularity.
+ */
+class FairShareSchedulerTest {
+  @Test
+  void sharesTheCpuByWeight() {
+    // Always ready from time 0 until the first completes: A (priority 1, weight 1024) finishes
+    // its burst while B (priority 2, weight 820) gets the rest of the CPU
+    int burst = 100_000;
+    Workload workload = new Workload(new int[] { 0, 0 }, new int[] { burst, burst }, new int[] { 1, 2 });
+    var cfs = new FairShareScheduler(workload, 20, 1, 0);
+    cfs.setTraceMode(Scheduler.TraceMode.NONE);
+    cfs.schedule();
+
+    int first = cfs.getJobCompletionTimes()[0];
+    assertTrue(first < cfs.getJobCompletionTimes()[1]);
+    double ratio = (double) burst / (first - burst);
+    assertEquals(1024.0 / 820.0, ratio, 0.01 * 1024.0 / 820.0);
+  }
+
+  @Test
+  void checksTheSlices() {
+    Workload workload = new Workload(new int[] { 0 }, new int[] { 5 }, new int[] { 1 });
+    assertThrows(IllegalArgumentException.class, () -> new FairShareScheduler(workload, 10, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> new FairShareScheduler(workload, 3, 4, 0));
+    assertEquals(4, new FairShareScheduler(workload, 4, 4, 0).getMinGranularity());
+  }
+
+  // A (weight 1024) and B, C (weight 335 each) are ready at 0, A runs first for its share of
+  // the period: 10 * 1024 / 1694 = 6 units. With minGranularity 4, three jobs stretch the
+  // period to 12, so A runs 12 * 1024 / 1694 = 7 units, and B runs minGranularity, 4 units
+  // instead of 3, before C.
+  @Test
+  void minGranularityStretchesThePeriod() {
+    Workload workload = new Workload(new int[] { 0, 0, 0 }, new int[] { 50, 50, 50 }, new int[] { 1, 6, 6 });
+
+    var cfs = new FairShareScheduler(workload, 10, 3, 0);
+    cfs.schedule();
+    assertArrayEquals(new int[] { 0, 6, 9 }, cfs.getJobResponseTimes());
+
+    cfs = new FairShareScheduler(workload, 10, 4, 0);
+    cfs.schedule();
+    assertArrayEquals(new int[] { 0, 7, 11 }, cfs.getJobResponseTimes());
+  }
+}
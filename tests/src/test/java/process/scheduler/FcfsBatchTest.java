@@ -0,0 +1,113 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * FcfsBatch against FirstComeFirstServed, field by field, on the scalar and the vector scan;
+ * and a sweep, whose FCFS runs through it, against standalone studies.
+ */
+class FcfsBatchTest {
+  private static final double[] MEAN_INTER_ARRIVALS = { 1.0, 4.0, 12.0 };
+
+  @Test
+  void scalarScanMatchesFirstComeFirstServed() {
+    forEachCase(false);
+  }
+
+  @Test
+  void vectorScanMatchesFirstComeFirstServed() {
+    assumeTrue(FcfsBatch.isVectorAvailable(), "jdk.incubator.vector is not present");
+    forEachCase(true);
+  }
+
+  @Test
+  void evaluateMatchesFirstComeFirstServed() {
+    List<Workload> workloads = new ArrayList<>();
+    for (int seed = 0; seed < 40; seed++) // sizes change along the list, batches split there
+      workloads.add(new JobGenerator(seed).generate(seed < 25 ? 200 : 1 + seed, 3.0, 8.0, 2.0, 10, 0));
+    for (int cs = 0; cs <= 3; cs++) {
+      Scheduler.SimulationResult[] results = FcfsBatch.evaluate(workloads, cs);
+      for (int r = 0; r < workloads.size(); r++)
+        assertSameResult(firstComeFirstServed(workloads.get(r), cs), results[r], "replication " + r + " cs " + cs);
+    }
+  }
+
+  @Test
+  void sweepPointsMatchStandaloneStudies() throws IOException {
+    var base = new ExperimentManager.Parameters(150, 3.0, 8.0, 2.0, 10, 5, 0, 6);
+    base.seed = 11L;
+    base.resultsFile = null;
+    base.printReport = false;
+    var sweep = new ParameterSweep(base);
+    sweep.timeQuanta = new int[] { 2, 5 };
+    sweep.contextSwitchTimes = new int[] { 0, 2 };
+    sweep.resultsFile = null;
+    for (ParameterSweep.Point point : sweep.run()) {
+      var parameters = new ExperimentManager.Parameters(base);
+      parameters.timeQuantum = point.timeQuantum;
+      parameters.contextSwitchTime = point.contextSwitchTime;
+      var standalone = new ExperimentManager(parameters);
+      standalone.runComparativeStudy();
+      for (String metric : standalone.getMetricNames())
+        assertEquals(standalone.getStatistics("FCFS", metric).getMean(),
+            point.getManager().getStatistics("FCFS", metric).getMean(), point + " " + metric);
+    }
+  }
+
+  private static void forEachCase(boolean vectorized) {
+    for (double meanInterArrival : MEAN_INTER_ARRIVALS)
+      for (int lanes : new int[] { 1, 7, 16, 19 }) {
+        int jobs = 300;
+        var batch = new FcfsBatch(lanes, jobs);
+        batch.setVectorized(vectorized);
+        Workload[] workloads = new Workload[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+          workloads[lane] = new JobGenerator(31L * lanes + lane).generate(jobs, meanInterArrival, 8.0, 2.0, 10, 0);
+          batch.load(lane, workloads[lane]);
+        }
+        for (int cs = 0; cs <= 3; cs++) {
+          Scheduler.SimulationResult[] results = batch.evaluate(cs);
+          for (int lane = 0; lane < lanes; lane++)
+            assertSameResult(firstComeFirstServed(workloads[lane], cs), results[lane],
+                "iat " + meanInterArrival + " lanes " + lanes + " lane " + lane + " cs " + cs);
+        }
+      }
+  }
+
+  private static Scheduler.SimulationResult firstComeFirstServed(Workload workload, int contextSwitchTime) {
+    var fcfs = new FirstComeFirstServed(workload, contextSwitchTime);
+    fcfs.setTraceMode(Scheduler.TraceMode.NONE);
+    fcfs.schedule();
+    return fcfs.CollectMetrics();
+  }
+
+  private static void assertSameResult(Scheduler.SimulationResult expected, Scheduler.SimulationResult actual,
+      String where) {
+    assertEquals(expected.avgWaitingTime, actual.avgWaitingTime, where);
+    assertEquals(expected.avgTurnAroundTime, actual.avgTurnAroundTime, where);
+    assertEquals(expected.cpuUtilization, actual.cpuUtilization, where);
+    assertEquals(expected.throughput, actual.throughput, where);
+    assertEquals(expected.p99WaitingTime, actual.p99WaitingTime, where);
+    assertEquals(expected.contextSwitches, actual.contextSwitches, where);
+    assertEquals(expected.loadImbalance, actual.loadImbalance, where);
+    assertSameHistogram(expected.waitingTimeHistogram, actual.waitingTimeHistogram, where + " waiting");
+    assertSameHistogram(expected.turnAroundTimeHistogram, actual.turnAroundTimeHistogram, where + " turnaround");
+    assertSameHistogram(expected.responseTimeHistogram, actual.responseTimeHistogram, where + " response");
+  }
+
+  private static void assertSameHistogram(LatencyHistogram expected, LatencyHistogram actual, String where) {
+    assertEquals(expected.getCount(), actual.getCount(), where);
+    assertEquals(expected.getMean(), actual.getMean(), where);
+    assertEquals(expected.getMin(), actual.getMin(), where);
+    assertEquals(expected.getMax(), actual.getMax(), where);
+    for (long rank = 1; rank <= expected.getCount(); rank++)
+      assertEquals(expected.valueAtRank(rank), actual.valueAtRank(rank), where + " rank " + rank);
+  }
+}
@@ -0,0 +1,100 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * JobGenerator: the closed-form expectations the control variates rely on against large-sample
+ * means, and antithetic workloads against their twins.
+ */
+class JobGeneratorTest {
+  private static final int JOBS = 400_000;
+
+  @Test
+  void expectedInterArrivalTimeMatchesSampleMean() {
+    for (double meanInterArrival : new double[] { 0.5, 4.0, 12.0 })
+      for (boolean antithetic : new boolean[] { false, true }) {
+        Workload workload = generate(7, antithetic, meanInterArrival, 8.0, 2.0);
+        OnlineStatistics interArrivals = new OnlineStatistics();
+        for (int job = 0; job < JOBS; job++)
+          interArrivals.add(workload.getArrivalTime(job) - (job == 0 ? 0 : workload.getArrivalTime(job - 1)));
+        assertMean(JobGenerator.expectedInterArrivalTime(meanInterArrival), interArrivals,
+            "iat " + meanInterArrival + (antithetic ? " antithetic" : ""));
+      }
+  }
+
+  @Test
+  void expectedBurstTimeMatchesSampleMean() {
+    // Rounded down and clamped to 1: the expectation is below meanBurst, far below for small ones
+    double[][] cases = { { 8.0, 2.0 }, { 1.5, 2.0 }, { 0.3, 0.5 }, { 20.0, 6.0 }, { 5.0, 0.0 } };
+    for (double[] burst : cases)
+      for (boolean antithetic : new boolean[] { false, true }) {
+        Workload workload = generate(13, antithetic, 4.0, burst[0], burst[1]);
+        OnlineStatistics bursts = new OnlineStatistics();
+        for (int job = 0; job < JOBS; job++)
+          bursts.add(workload.getBurstTime(job));
+        assertMean(JobGenerator.expectedBurstTime(burst[0], burst[1]), bursts,
+            "burst " + burst[0] + " sd " + burst[1] + (antithetic ? " antithetic" : ""));
+      }
+  }
+
+  @Test
+  void antitheticWorkloadMirrorsItsTwin() {
+    int maxPriority = 10;
+    Workload workload = new JobGenerator(21).generate(JOBS, 4.0, 8.0, 2.0, maxPriority, 0);
+    var mirrored = new JobGenerator(21);
+    mirrored.setAntithetic(true);
+    Workload twin = mirrored.generate(JOBS, 4.0, 8.0, 2.0, maxPriority, 1);
+
+    double[] interArrivals = new double[JOBS], twinInterArrivals = new double[JOBS];
+    double[] bursts = new double[JOBS], twinBursts = new double[JOBS];
+    for (int job = 0; job < JOBS; job++) {
+      assertEquals(maxPriority + 1, workload.getPriority(job) + twin.getPriority(job), "job " + job);
+      // floor(8 + x) + floor(8 - x) is 15 or 16, unless one side is clamped to 1
+      int burstSum = workload.getBurstTime(job) + twin.getBurstTime(job);
+      if (workload.getBurstTime(job) > 1 && twin.getBurstTime(job) > 1)
+        assertTrue(burstSum == 15 || burstSum == 16, "job " + job + ": " + burstSum);
+      interArrivals[job] = workload.getArrivalTime(job) - (job == 0 ? 0 : workload.getArrivalTime(job - 1));
+      twinInterArrivals[job] = twin.getArrivalTime(job) - (job == 0 ? 0 : twin.getArrivalTime(job - 1));
+      bursts[job] = workload.getBurstTime(job);
+      twinBursts[job] = twin.getBurstTime(job);
+    }
+    // -ln(1 - u) against -ln(u): 1 - pi^2/6 = -0.64 before rounding down
+    double interArrivalCorrelation = correlation(interArrivals, twinInterArrivals);
+    assertTrue(interArrivalCorrelation < -0.55, "inter-arrival correlation " + interArrivalCorrelation);
+    double burstCorrelation = correlation(bursts, twinBursts);
+    assertTrue(burstCorrelation < -0.9, "burst correlation " + burstCorrelation);
+  }
+
+  private static Workload generate(long seed, boolean antithetic, double meanInterArrival, double meanBurst,
+      double burstStdDev) {
+    var generator = new JobGenerator(seed);
+    generator.setAntithetic(antithetic);
+    return generator.generate(JOBS, meanInterArrival, meanBurst, burstStdDev, 10, 0);
+  }
+
+  // Within 5 standard errors of the sample mean
+  private static void assertMean(double expected, OnlineStatistics sample, String where) {
+    double tolerance = 5 * Math.sqrt(sample.getVariance() / sample.getCount()) + 1e-12;
+    assertEquals(expected, sample.getMean(), tolerance, where);
+  }
+
+  private static double correlation(double[] x, double[] y) {
+    double meanX = 0, meanY = 0;
+    for (int i = 0; i < x.length; i++) {
+      meanX += x[i];
+      meanY += y[i];
+    }
+    meanX /= x.length;
+    meanY /= y.length;
+    double covariance = 0, varianceX = 0, varianceY = 0;
+    for (int i = 0; i < x.length; i++) {
+      covariance += (x[i] - meanX) * (y[i] - meanY);
+      varianceX += (x[i] - meanX) * (x[i] - meanX);
+      varianceY += (y[i] - meanY) * (y[i] - meanY);
+    }
+    return covariance / Math.sqrt(varianceX * varianceY);
+  }
+}
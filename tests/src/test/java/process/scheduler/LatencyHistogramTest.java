@@ -0,0 +1,76 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exact ranks through the histogram, and the p99 waiting times taken from it.
+ */
+class LatencyHistogramTest {
+  @Test
+  void valueAtRankIsTheSortedValue() {
+    Random random = new Random(3);
+    for (int round = 0; round < 200; round++) {
+      int length = 1 + random.nextInt(2_000);
+      int bound = round % 2 == 0 ? 300 : 1_000_000;
+      int[] values = new int[length];
+      for (int i = 0; i < length; i++)
+        values[i] = random.nextInt(bound);
+      int[] before = values.clone();
+      var histogram = new LatencyHistogram();
+      histogram.recordAll(values, length);
+
+      int[] sorted = values.clone();
+      Arrays.sort(sorted);
+      for (int rank : new int[] { 1, (length + 1) / 2, (int) Math.ceil(0.99 * length), length })
+        assertEquals(sorted[rank - 1], histogram.valueAtRank(rank, values, length), "round " + round + " rank " + rank);
+      assertArrayEquals(before, values, "values reordered");
+    }
+  }
+
+  @Test
+  void copyKeepsTheCounts() {
+    var histogram = new LatencyHistogram();
+    for (long value = 0; value < 100_000; value += 37)
+      histogram.record(value);
+    var copy = histogram.copy();
+    assertEquals(histogram.summary(), copy.summary());
+    assertEquals(histogram.getMean(), copy.getMean());
+    copy.record(Integer.MAX_VALUE); // grows as usual
+    assertEquals(Integer.MAX_VALUE, copy.getMax());
+    assertEquals(histogram.getCount() + 1, copy.getCount());
+  }
+
+  @Test
+  void schedulerP99IsTheSortedWaitingTime() {
+    for (int seed = 0; seed < 10; seed++) {
+      Workload workload = new JobGenerator(seed).generate(2_000, 4.0, 8.0, 2.0, 10, 0);
+      var rr = new RoundRobin(workload, Workloads.TIME_QUANTUM, 1);
+      rr.setTraceMode(Scheduler.TraceMode.NONE);
+      rr.schedule();
+      int[] sorted = rr.getJobWaitingTimes().clone();
+      Arrays.sort(sorted);
+      assertEquals(sorted[(int) Math.ceil(0.99 * sorted.length) - 1], rr.CollectMetrics().p99WaitingTime, "seed " + seed);
+    }
+  }
+
+  @Test
+  void streamingP99IsWithinTheHistogramPrecision() {
+    for (int seed = 0; seed < 10; seed++) {
+      Workload workload = new JobGenerator(seed).generate(2_000, 4.0, 8.0, 2.0, 10, 0);
+      var fcfs = new FirstComeFirstServed(workload, 1);
+      fcfs.setTraceMode(Scheduler.TraceMode.NONE);
+      fcfs.schedule();
+      double exact = fcfs.CollectMetrics().p99WaitingTime;
+      double streamed = new StreamingScheduler(StreamingScheduler.Policy.FCFS, Workloads.TIME_QUANTUM, 1)
+          .run(workload.stream()).p99WaitingTime;
+      assertTrue(streamed >= exact && streamed <= exact * 1.008 + 1e-9, "seed " + seed + ": " + streamed + " vs " + exact);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * One core of MultiCoreScheduler against the single-core schedulers of the same policies, in
+ * every queue mode: same per-job times, same metrics, context switches included.
+ */
+class MultiCoreSchedulerTest {
+  private static final double[] MEAN_INTER_ARRIVALS = { 2.0, 5.0, 10.0 };
+
+  @Test
+  void oneCoreMatchesFirstComeFirstServed() {
+    forEachCase((workload, cs) -> {
+      FirstComeFirstServed fcfs = new FirstComeFirstServed(workload, cs);
+      fcfs.schedule();
+      return fcfs;
+    }, StreamingScheduler.Policy.FCFS);
+  }
+
+  @Test
+  void oneCoreMatchesShortestJobFirst() {
+    forEachCase((workload, cs) -> {
+      ShortestJobFirst sjf = new ShortestJobFirst(workload, cs);
+      sjf.non_preemptive_schedule();
+      return sjf;
+    }, StreamingScheduler.Policy.SJF);
+  }
+
+  @Test
+  void oneCoreMatchesPriorityScheduling() {
+    forEachCase((workload, cs) -> {
+      PriorityScheduling priority = new PriorityScheduling(workload, cs);
+      priority.non_preemptive_schedule();
+      return priority;
+    }, StreamingScheduler.Policy.PRIORITY);
+  }
+
+  @Test
+  void oneCoreMatchesRoundRobin() {
+    forEachCase((workload, cs) -> {
+      RoundRobin rr = new RoundRobin(workload, Workloads.TIME_QUANTUM, cs);
+      rr.schedule();
+      return rr;
+    }, StreamingScheduler.Policy.ROUND_ROBIN);
+  }
+
+  @Test
+  void singleCoreUtilizationIsBusyTimeOverMakespan() {
+    for (int seed = 0; seed < 10; seed++) {
+      Workload workload = new JobGenerator(seed).generate(300, 5.0, 8.0, 2.0, 10, 0);
+      FirstComeFirstServed fcfs = new FirstComeFirstServed(workload, 1);
+      fcfs.schedule();
+      int lastCompletion = 0;
+      for (int completion : fcfs.getJobCompletionTimes())
+        lastCompletion = Math.max(lastCompletion, completion);
+      int makespan = lastCompletion - workload.getMinArrivalTime();
+      assertEquals((double) workload.getTotalBurstTime() / makespan * 100.0, fcfs.getCpuUtilization(), 1e-9);
+      assertEquals((double) workload.size() / makespan, fcfs.getThroughput(), 1e-12);
+
+      MultiCoreScheduler oneCore = new MultiCoreScheduler(workload, 1, MultiCoreScheduler.QueueMode.GLOBAL,
+          StreamingScheduler.Policy.FCFS, Workloads.TIME_QUANTUM, 1);
+      oneCore.schedule();
+      assertEquals(fcfs.getCpuUtilization(), oneCore.getCpuUtilization(), 1e-9);
+      assertEquals(fcfs.getCpuUtilization(), oneCore.getCoreUtilization(0), 1e-9);
+    }
+  }
+
+  @FunctionalInterface
+  private interface SingleCore {
+    Scheduler run(Workload workload, int contextSwitchTime);
+  }
+
+  private static void forEachCase(SingleCore singleCore, StreamingScheduler.Policy policy) {
+    for (double meanInterArrival : MEAN_INTER_ARRIVALS)
+      for (int seed = 0; seed < 20; seed++) {
+        Workload workload = new JobGenerator(seed).generate(300, meanInterArrival, 8.0, 2.0, 10, 0);
+        for (int cs = 0; cs <= 2; cs++) {
+          Scheduler expected = singleCore.run(workload, cs);
+          for (MultiCoreScheduler.QueueMode mode : MultiCoreScheduler.QueueMode.values()) {
+            MultiCoreScheduler oneCore = new MultiCoreScheduler(workload, 1, mode, policy, Workloads.TIME_QUANTUM, cs);
+            oneCore.setTraceMode(Scheduler.TraceMode.NONE);
+            oneCore.schedule();
+            String where = policy + " " + mode + " seed " + seed + " iat " + meanInterArrival + " cs " + cs;
+            assertSameResults(expected, oneCore, where);
+          }
+        }
+      }
+  }
+
+  static void assertSameResults(Scheduler expected, Scheduler actual, String where) {
+    assertArrayEquals(expected.getJobCompletionTimes(), actual.getJobCompletionTimes(), where);
+    assertArrayEquals(expected.getJobWaitingTimes(), actual.getJobWaitingTimes(), where);
+    assertArrayEquals(expected.getJobResponseTimes(), actual.getJobResponseTimes(), where);
+    Scheduler.SimulationResult e = expected.CollectMetrics(), a = actual.CollectMetrics();
+    assertEquals(e.avgWaitingTime, a.avgWaitingTime, where);
+    assertEquals(e.avgTurnAroundTime, a.avgTurnAroundTime, where);
+    assertEquals(e.cpuUtilization, a.cpuUtilization, where);
+    assertEquals(e.throughput, a.throughput, where);
+    assertEquals(e.p99WaitingTime, a.p99WaitingTime, where);
+    assertEquals(e.contextSwitches, a.contextSwitches, where);
+  }
+}
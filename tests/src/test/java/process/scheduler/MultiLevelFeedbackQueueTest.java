@@ -0,0 +1,70 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * MultiLevelFeedbackQueue with one level and no boost against RoundRobin, and small schedules
+ * worked out by hand: demotion, boosts and preemption by a job arriving at a higher level.
+ */
+class MultiLevelFeedbackQueueTest {
+  private static final double[] MEAN_INTER_ARRIVALS = { 2.0, 5.0, 10.0 };
+
+  @Test
+  void oneLevelWithoutBoostMatchesRoundRobin() {
+    for (double meanInterArrival : MEAN_INTER_ARRIVALS)
+      for (int seed = 0; seed < 5; seed++) {
+        Workload workload = new JobGenerator(seed).generate(300, meanInterArrival, 8.0, 4.0, 10, 0);
+        for (int quantum = 1; quantum <= 7; quantum++)
+          for (int cs = 0; cs <= 2; cs++) {
+            var rr = new RoundRobin(workload, quantum, cs);
+            rr.setTraceMode(Scheduler.TraceMode.NONE);
+            rr.schedule();
+            var mlfq = new MultiLevelFeedbackQueue(workload, new int[] { quantum }, 0, cs);
+            mlfq.setTraceMode(Scheduler.TraceMode.NONE);
+            mlfq.schedule();
+            MultiCoreSchedulerTest.assertSameResults(rr, mlfq,
+                "iat " + meanInterArrival + " seed " + seed + " quantum " + quantum + " cs " + cs);
+          }
+      }
+  }
+
+  // Quanta 2 and 4, context switch time 1:
+  //   0-1 switch, 1-3 A (demoted), 3-4 switch, 4-6 B (demoted), 6-7 switch, 7-9 C (demoted),
+  //   9-10 switch, 10-12 D.
+  // The boost at 10 puts A, B and C back on the top level: 12-13 switch, 13-15 A (demoted
+  //   again), 15-16 switch, 16-17 B, 17-18 switch, 18-20 C; the boost at 20 lifts A:
+  //   20-21 switch, 21-23 A (demoted), 23-25 A.
+  // Without it, A, B and C get the 4-unit quantum of level 1: 12-13 switch, 13-17 A,
+  //   17-18 switch, 18-19 B, 19-20 switch, 20-22 C, 22-23 switch, 23-25 A.
+  @Test
+  void demotesAndBoosts() {
+    Workload workload = new Workload(new int[] { 0, 1, 3, 9 }, new int[] { 8, 3, 4, 2 }, new int[] { 1, 1, 1, 1 });
+
+    var boosted = new MultiLevelFeedbackQueue(workload, new int[] { 2, 4 }, 10, 1);
+    boosted.schedule();
+    assertArrayEquals(new int[] { 25, 17, 20, 12 }, boosted.getJobCompletionTimes());
+    assertArrayEquals(new int[] { 1, 3, 4, 1 }, boosted.getJobResponseTimes());
+    assertEquals(8, boosted.getContextSwitches());
+
+    var unboosted = new MultiLevelFeedbackQueue(workload, new int[] { 2, 4 }, 0, 1);
+    unboosted.schedule();
+    assertArrayEquals(new int[] { 25, 19, 22, 12 }, unboosted.getJobCompletionTimes());
+    assertArrayEquals(new int[] { 1, 3, 4, 1 }, unboosted.getJobResponseTimes());
+    assertEquals(8, unboosted.getContextSwitches());
+  }
+
+  // Quanta 2 and 8, context switch time 1: 0-1 switch, 1-3 A on level 0, demoted, runs on at
+  // level 1 without a switch until B arrives at 5; 5-6 switch, 6-7 B; 7-8 switch, 8-14 A.
+  @Test
+  void arrivalPreemptsALowerLevel() {
+    Workload workload = new Workload(new int[] { 0, 5 }, new int[] { 10, 1 }, new int[] { 1, 1 });
+    var mlfq = new MultiLevelFeedbackQueue(workload, new int[] { 2, 8 }, 0, 1);
+    mlfq.schedule();
+    assertArrayEquals(new int[] { 14, 7 }, mlfq.getJobCompletionTimes());
+    assertArrayEquals(new int[] { 1, 1 }, mlfq.getJobResponseTimes());
+    assertEquals(3, mlfq.getContextSwitches());
+  }
+}
@@ -0,0 +1,226 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ResultCache: studies and sweeps served from it give the results they would simulate, the
+ * store survives a reopen, starts over for another code version, and cuts off a torn tail;
+ * the results in memory stay within their byte budget.
+ */
+class ResultCacheTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  void sweepRunTwiceOnOneCacheGivesTheSameResults() throws IOException {
+    Path cache = directory.resolve("cache.bin");
+    List<String> results = new ArrayList<>();
+    int[] stored = new int[2];
+    for (int run = 0; run < 3; run++) {
+      var base = parameters(5);
+      base.resultCache = run < 2 ? cache.toString() : null; // the third run simulates everything
+      var sweep = new ParameterSweep(base);
+      sweep.meanInterArrivals = new double[] { 3.0, 6.0 };
+      sweep.timeQuanta = new int[] { 2, 5 };
+      sweep.contextSwitchTimes = new int[] { 0, 1 };
+      Path file = directory.resolve("sweep" + run + ".csv");
+      sweep.resultsFile = file.toString();
+      sweep.run();
+      results.add(Files.readString(file));
+      if (run < 2)
+        try (var reopened = new ResultCache(cache)) {
+          stored[run] = reopened.size();
+        }
+    }
+    assertEquals(results.get(2), results.get(0));
+    assertEquals(results.get(2), results.get(1));
+    assertTrue(stored[0] > 0);
+    assertEquals(stored[0], stored[1], "the second run added results");
+  }
+
+  @Test
+  void reopenedStoreReturnsTheStoredResults() throws IOException {
+    Path file = directory.resolve("cache.bin");
+    Scheduler.SimulationResult result = simulate(1);
+    try (var cache = new ResultCache(file)) {
+      cache.put(ResultCache.key("fcfs", "1"), result);
+    }
+    try (var cache = new ResultCache(file)) {
+      assertEquals(1, cache.size());
+      assertSameResult(result, cache.get(ResultCache.key("fcfs", "1")));
+      assertSameResult(result, cache.get(ResultCache.key("fcfs", "1")));
+      assertNull(cache.get(ResultCache.key("fcfs", "2")));
+      assertEquals(1, cache.getDiskHits());
+      assertEquals(1, cache.getMemoryHits());
+      assertEquals(1, cache.getMisses());
+    }
+  }
+
+  @Test
+  void otherCodeVersionStartsOver() throws IOException {
+    Path file = directory.resolve("cache.bin");
+    try (var cache = new ResultCache(file)) {
+      cache.put(ResultCache.key("fcfs", "1"), simulate(1));
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(4).putInt(0, ResultCache.CODE_VERSION - 1), 4);
+    }
+    try (var cache = new ResultCache(file)) {
+      assertEquals(0, cache.size());
+      assertNull(cache.get(ResultCache.key("fcfs", "1")));
+    }
+    assertEquals(8, Files.size(file));
+  }
+
+  @Test
+  void parameterChangeSimulatesOnlyTheAffectedPolicies() throws IOException {
+    try (var cache = new ResultCache(directory.resolve("cache.bin"))) {
+      study(parameters(5), cache);
+      long simulated = cache.getMisses();
+      assertTrue(simulated > 0);
+
+      List<String> rows = study(parameters(5), cache);
+      assertEquals(simulated, cache.getMisses(), "same parameters simulated again");
+      assertEquals(study(parameters(5), null), rows);
+
+      // The quantum only enters the quantum-based policies' keys
+      rows = study(parameters(10), cache);
+      long resimulated = cache.getMisses() - simulated;
+      assertTrue(resimulated > 0 && resimulated < simulated, resimulated + " of " + simulated + " simulated again");
+      assertEquals(study(parameters(10), null), rows);
+    }
+  }
+
+  @Test
+  void truncatedTailIsCutOff() throws IOException {
+    Path file = directory.resolve("cache.bin");
+    try (var cache = new ResultCache(file)) {
+      for (int seed = 1; seed <= 3; seed++)
+        cache.put(ResultCache.key("fcfs", Integer.toString(seed)), simulate(seed));
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 5);
+    }
+    try (var cache = new ResultCache(file)) {
+      assertEquals(2, cache.size());
+      assertSameResult(simulate(2), cache.get(ResultCache.key("fcfs", "2")));
+      assertNull(cache.get(ResultCache.key("fcfs", "3")));
+      cache.put(ResultCache.key("fcfs", "3"), simulate(3));
+    }
+    try (var cache = new ResultCache(file)) {
+      assertEquals(3, cache.size());
+      assertSameResult(simulate(3), cache.get(ResultCache.key("fcfs", "3")));
+    }
+  }
+
+  @Test
+  void corruptTailIsCutOff() throws IOException {
+    Path file = directory.resolve("cache.bin");
+    try (var cache = new ResultCache(file)) {
+      cache.put(ResultCache.key("fcfs", "1"), simulate(1));
+    }
+    long size = Files.size(file);
+    for (int length : new int[] { -7, 1 << 20 }) {
+      // A record header whose payload length is impossible, followed by a few bytes
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        channel.write(ByteBuffer.allocate(32 + 4 + 16).putInt(32, length), size);
+      }
+      try (var cache = new ResultCache(file)) {
+        assertEquals(1, cache.size());
+        assertSameResult(simulate(1), cache.get(ResultCache.key("fcfs", "1")));
+      }
+      assertEquals(size, Files.size(file), "length " + length);
+    }
+  }
+
+  @Test
+  void memoryIsBoundedInBytes() throws IOException {
+    try (var cache = new ResultCache(directory.resolve("cache.bin"), 20_000)) {
+      for (int seed = 1; seed <= 40; seed++) {
+        cache.put(ResultCache.key("rr", Integer.toString(seed)), simulate(seed));
+        assertTrue(cache.getMemoryBytes() <= 20_000, cache.getMemoryBytes() + " bytes");
+      }
+      for (int seed = 1; seed <= 40; seed++)
+        assertSameResult(simulate(seed), cache.get(ResultCache.key("rr", Integer.toString(seed))));
+      assertTrue(cache.getDiskHits() > 0);
+      assertTrue(cache.getMemoryBytes() <= 20_000, cache.getMemoryBytes() + " bytes");
+    }
+  }
+
+  private static ExperimentManager.Parameters parameters(int timeQuantum) {
+    var parameters = new ExperimentManager.Parameters(50, 4.0, 8.0, 2.0, 10, timeQuantum, 1, 3);
+    parameters.seed = 1L;
+    parameters.resultsFile = null;
+    parameters.printReport = false;
+    return parameters;
+  }
+
+  // Result rows of a study, simulated or served from the cache
+  private static List<String> study(ExperimentManager.Parameters parameters, ResultCache cache) {
+    List<String> rows = new ArrayList<>();
+    var manager = new ExperimentManager(parameters);
+    if (cache != null)
+      manager.setResultCache(cache);
+    manager.setResultSink(new ResultSink() {
+      @Override
+      public void accept(int replication, String algorithm, String metric, double value) {
+        rows.add(replication + "," + algorithm + "," + metric + "," + value);
+      }
+
+      @Override
+      public void endReplication(int replication) {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    manager.runComparativeStudy();
+    return rows;
+  }
+
+  private static Scheduler.SimulationResult simulate(long seed) {
+    Workload workload = new JobGenerator(seed).generate(200, 5.0, 8.0, 2.0, 10, 0);
+    var rr = new RoundRobin(workload, Workloads.TIME_QUANTUM, 1);
+    rr.setTraceMode(Scheduler.TraceMode.NONE);
+    rr.schedule();
+    return rr.CollectMetrics();
+  }
+
+  private static void assertSameResult(Scheduler.SimulationResult expected, Scheduler.SimulationResult actual) {
+    assertNotNull(actual);
+    assertEquals(expected.avgWaitingTime, actual.avgWaitingTime);
+    assertEquals(expected.avgTurnAroundTime, actual.avgTurnAroundTime);
+    assertEquals(expected.cpuUtilization, actual.cpuUtilization);
+    assertEquals(expected.throughput, actual.throughput);
+    assertEquals(expected.p99WaitingTime, actual.p99WaitingTime);
+    assertEquals(expected.contextSwitches, actual.contextSwitches);
+    assertSameHistogram(expected.waitingTimeHistogram, actual.waitingTimeHistogram);
+    assertSameHistogram(expected.turnAroundTimeHistogram, actual.turnAroundTimeHistogram);
+    assertSameHistogram(expected.responseTimeHistogram, actual.responseTimeHistogram);
+  }
+
+  private static void assertSameHistogram(LatencyHistogram expected, LatencyHistogram actual) {
+    assertEquals(expected.getCount(), actual.getCount());
+    assertEquals(expected.getSum(), actual.getSum());
+    assertEquals(expected.getMin(), actual.getMin());
+    assertEquals(expected.getMax(), actual.getMax());
+    for (double percentile : new double[] { 50, 90, 99, 100 })
+      assertEquals(expected.getValueAtPercentile(percentile), actual.getValueAtPercentile(percentile));
+  }
+}
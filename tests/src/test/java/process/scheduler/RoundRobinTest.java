@@ -0,0 +1,136 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * RoundRobin and the streaming RoundRobin against a reference that runs every quantum one by
+ * one (no fast-forward), over quanta 1 to 7 and context switch times 0 to 2.
+ */
+class RoundRobinTest {
+  private static final double[] MEAN_INTER_ARRIVALS = { 2.0, 5.0, 10.0, 20.0 };
+
+  @Test
+  void matchesQuantumByQuantumReference() {
+    forEachCase((workload, quantum, cs, reference, where) -> {
+      var rr = new RoundRobin(workload, quantum, cs);
+      rr.setTraceMode(Scheduler.TraceMode.NONE);
+      rr.schedule();
+      assertArrayEquals(reference.completionTime, rr.getJobCompletionTimes(), where);
+      assertArrayEquals(reference.responseTime, rr.getJobResponseTimes(), where);
+      assertEquals(reference.contextSwitches, rr.getContextSwitches(), where);
+    });
+  }
+
+  @Test
+  void streamingMatchesQuantumByQuantumReference() {
+    forEachCase((workload, quantum, cs, reference, where) -> {
+      var streaming = new StreamingScheduler(StreamingScheduler.Policy.ROUND_ROBIN, quantum, cs);
+      Scheduler.SimulationResult result = streaming.run(workload.stream());
+      assertEquals(average(reference.waitingTime), result.avgWaitingTime, 1e-9, where);
+      assertEquals(average(reference.turnAroundTime), result.avgTurnAroundTime, 1e-9, where);
+      StreamingSchedulerTest.assertSameHistogram(histogram(reference.waitingTime), result.waitingTimeHistogram,
+          where + " waiting");
+      StreamingSchedulerTest.assertSameHistogram(histogram(reference.turnAroundTime), result.turnAroundTimeHistogram,
+          where + " turnaround");
+      StreamingSchedulerTest.assertSameHistogram(histogram(reference.responseTime), result.responseTimeHistogram,
+          where + " response");
+    });
+  }
+
+  @FunctionalInterface
+  private interface Check {
+    void run(Workload workload, int quantum, int contextSwitchTime, Reference reference, String where);
+  }
+
+  private static void forEachCase(Check check) {
+    for (double meanInterArrival : MEAN_INTER_ARRIVALS)
+      for (int seed = 0; seed < 5; seed++) {
+        // Sparse arrivals leave single jobs running alone, which RoundRobin fast-forwards
+        Workload workload = new JobGenerator(seed).generate(300, meanInterArrival, 8.0, 4.0, 10, 0);
+        for (int quantum = 1; quantum <= 7; quantum++)
+          for (int cs = 0; cs <= 2; cs++)
+            check.run(workload, quantum, cs, new Reference(workload, quantum, cs),
+                "iat " + meanInterArrival + " seed " + seed + " quantum " + quantum + " cs " + cs);
+      }
+  }
+
+  private static LatencyHistogram histogram(int[] values) {
+    var histogram = new LatencyHistogram();
+    for (int value : values)
+      histogram.record(value);
+    return histogram;
+  }
+
+  private static double average(int[] values) {
+    long sum = 0;
+    for (int value : values)
+      sum += value;
+    return (double) sum / values.length;
+  }
+
+  /**
+   * Round robin one quantum at a time: jobs arriving up to the end of a quantum queue up
+   * before the preempted job, and a switch is paid whenever the next job is another one.
+   */
+  private static final class Reference {
+    final int[] completionTime;
+    final int[] responseTime;
+    final int[] waitingTime;
+    final int[] turnAroundTime;
+    int contextSwitches = 0;
+
+    Reference(Workload workload, int quantum, int contextSwitchTime) {
+      int n = workload.size();
+      int[] order = workload.arrivalOrder();
+      int[] remaining = new int[n];
+      for (int job = 0; job < n; job++)
+        remaining[job] = workload.getBurstTime(job);
+      completionTime = new int[n];
+      responseTime = new int[n];
+      Arrays.fill(responseTime, -1);
+
+      ArrayDeque<Integer> ready = new ArrayDeque<>();
+      int next = 0, done = 0, time = 0, previous = -1;
+      while (done < n) {
+        if (ready.isEmpty())
+          time = Math.max(time, workload.getArrivalTime(order[next]));
+        while (next < n && workload.getArrivalTime(order[next]) <= time)
+          ready.add(order[next++]);
+
+        int job = ready.poll();
+        if (job != previous) {
+          time += contextSwitchTime;
+          contextSwitches++;
+        }
+        previous = job;
+        if (responseTime[job] < 0)
+          responseTime[job] = time - workload.getArrivalTime(job);
+
+        int slice = Math.min(quantum, remaining[job]);
+        time += slice;
+        remaining[job] -= slice;
+        while (next < n && workload.getArrivalTime(order[next]) <= time)
+          ready.add(order[next++]);
+        if (remaining[job] > 0) {
+          ready.add(job);
+        } else {
+          completionTime[job] = time;
+          done++;
+        }
+      }
+
+      turnAroundTime = new int[n];
+      waitingTime = new int[n];
+      for (int job = 0; job < n; job++) {
+        turnAroundTime[job] = completionTime[job] - workload.getArrivalTime(job);
+        waitingTime[job] = turnAroundTime[job] - workload.getBurstTime(job);
+      }
+    }
+  }
+}
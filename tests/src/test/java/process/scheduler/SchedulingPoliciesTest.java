@@ -0,0 +1,57 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Discovery of the policies listed in META-INF/services (see ServicePolicies), and a study
+ * running and reporting them next to the built-in ones.
+ */
+class SchedulingPoliciesTest {
+  @Test
+  void servicePoliciesFollowTheBuiltInOnes() {
+    List<SchedulingPolicy> policies = SchedulingPolicies.discover();
+    SchedulingPolicy last = policies.get(policies.size() - 1);
+    assertEquals(ServicePolicies.ReversedArrival.NAME, last.getName());
+    assertSame(last, SchedulingPolicies.byName(ServicePolicies.ReversedArrival.NAME));
+    assertEquals(1, policies.stream().filter(policy -> policy.getName().equals("FCFS")).count());
+    assertTrue(policies.stream().noneMatch(policy -> policy instanceof ServicePolicies.DuplicateName));
+  }
+
+  @Test
+  void discoveredOnce() {
+    assertSame(SchedulingPolicies.discover(), SchedulingPolicies.discover());
+    SchedulingPolicy policy = SchedulingPolicies.byName(ServicePolicies.ReversedArrival.NAME);
+    assertSame(policy, SchedulingPolicies.byName(ServicePolicies.ReversedArrival.NAME));
+  }
+
+  @Test
+  void studyReportsServicePolicies() {
+    var parameters = new ExperimentManager.Parameters(100, 4.0, 8.0, 2.0, 10, 5, 1, 4);
+    parameters.seed = 9L;
+    parameters.resultsFile = null;
+    var manager = new ExperimentManager(parameters);
+
+    PrintStream out = System.out;
+    var report = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(report, true, StandardCharsets.UTF_8));
+    try {
+      manager.runComparativeStudy();
+    } finally {
+      System.setOut(out);
+    }
+
+    String name = ServicePolicies.ReversedArrival.NAME;
+    assertTrue(manager.getAlgorithmNames().contains(name));
+    assertEquals(parameters.replications, manager.getStatistics(name, "AvgWaitingTime").getCount());
+    assertTrue(report.toString(StandardCharsets.UTF_8).contains(name), "not in the report");
+  }
+}
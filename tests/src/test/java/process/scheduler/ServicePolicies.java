@@ -0,0 +1,45 @@
+package process.scheduler;
+
+/**
+ * Policies listed in META-INF/services/process.scheduler.SchedulingPolicy of the tests, for
+ * SchedulingPoliciesTest.
+ */
+public final class ServicePolicies {
+  private ServicePolicies() {
+  }
+
+  /** Non-preemptive, latest arrival first */
+  public static final class ReversedArrival implements SchedulingPolicy {
+    public static final String NAME = "LCFS-Test";
+
+    @Override
+    public String getName() {
+      return NAME;
+    }
+
+    @Override
+    public Scheduler.SimulationResult simulate(Workload workload, ExperimentManager.Parameters parameters,
+        TimeSeriesRecorder timeSeries) {
+      var scheduler = new Scheduler(workload, parameters.contextSwitchTime) {
+      };
+      scheduler.setTraceMode(Scheduler.TraceMode.NONE);
+      scheduler.scheduleJobs((j1, j2) -> Integer.compare(workload.getArrivalTime(j1), workload.getArrivalTime(j2)),
+          (j1, j2) -> Integer.compare(workload.getArrivalTime(j2), workload.getArrivalTime(j1)));
+      return scheduler.CollectMetrics();
+    }
+  }
+
+  /** Takes a built-in policy's name, so discovery leaves it out */
+  public static final class DuplicateName implements SchedulingPolicy {
+    @Override
+    public String getName() {
+      return "FCFS";
+    }
+
+    @Override
+    public Scheduler.SimulationResult simulate(Workload workload, ExperimentManager.Parameters parameters,
+        TimeSeriesRecorder timeSeries) {
+      throw new IllegalStateException("Never run: its name is taken");
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * StreamingScheduler against the batch schedulers of the same policies, on generated workloads
+ * with ties in arrival time and in the queue keys: same metrics and latency distributions, the
+ * p99 waiting time within the histogram precision.
+ */
+class StreamingSchedulerTest {
+  private static final double[] MEAN_INTER_ARRIVALS = { 0.5, 2.0, 5.0, 10.0 };
+
+  @Test
+  void matchesFirstComeFirstServed() {
+    forEachCase((workload, cs) -> {
+      FirstComeFirstServed fcfs = new FirstComeFirstServed(workload, cs);
+      fcfs.schedule();
+      return fcfs;
+    }, StreamingScheduler.Policy.FCFS);
+  }
+
+  @Test
+  void matchesShortestJobFirst() {
+    forEachCase((workload, cs) -> {
+      ShortestJobFirst sjf = new ShortestJobFirst(workload, cs);
+      sjf.non_preemptive_schedule();
+      return sjf;
+    }, StreamingScheduler.Policy.SJF);
+  }
+
+  @Test
+  void matchesPriorityScheduling() {
+    forEachCase((workload, cs) -> {
+      PriorityScheduling priority = new PriorityScheduling(workload, cs);
+      priority.non_preemptive_schedule();
+      return priority;
+    }, StreamingScheduler.Policy.PRIORITY);
+  }
+
+  @Test
+  void matchesRoundRobin() {
+    forEachCase((workload, cs) -> {
+      RoundRobin rr = new RoundRobin(workload, Workloads.TIME_QUANTUM, cs);
+      rr.schedule();
+      return rr;
+    }, StreamingScheduler.Policy.ROUND_ROBIN);
+  }
+
+  @Test
+  void streamedGeneratorMatchesGeneratedWorkload() {
+    for (StreamingScheduler.Policy policy : StreamingScheduler.Policy.values()) {
+      Workload workload = new JobGenerator(3).generate(2_000, 2.0, 8.0, 2.0, 10, 0);
+      ArrivalStream arrivals = new JobGenerator(3).stream(2_000, 2.0, 8.0, 2.0, 10);
+      var scheduler = new StreamingScheduler(policy, Workloads.TIME_QUANTUM, 1);
+      assertSameResult(scheduler.run(workload.stream()), scheduler.run(arrivals), policy.toString());
+    }
+  }
+
+  private static void forEachCase(BiFunction<Workload, Integer, Scheduler> batch, StreamingScheduler.Policy policy) {
+    for (double meanInterArrival : MEAN_INTER_ARRIVALS)
+      for (int seed = 0; seed < 5; seed++) {
+        // Few distinct bursts and priorities, so equal keys are common
+        Workload workload = new JobGenerator(seed).generate(1_000, meanInterArrival, 6.0, 1.5, 4, 0);
+        for (int cs = 0; cs <= 2; cs++) {
+          Scheduler scheduler = batch.apply(workload, cs);
+          var streaming = new StreamingScheduler(policy, Workloads.TIME_QUANTUM, cs);
+          assertSameResult(scheduler.CollectMetrics(), streaming.run(workload.stream()),
+              policy + " iat " + meanInterArrival + " seed " + seed + " cs " + cs);
+        }
+      }
+  }
+
+  private static void assertSameResult(Scheduler.SimulationResult expected, Scheduler.SimulationResult actual,
+      String where) {
+    assertEquals(expected.avgWaitingTime, actual.avgWaitingTime, where);
+    assertEquals(expected.avgTurnAroundTime, actual.avgTurnAroundTime, where);
+    assertEquals(expected.cpuUtilization, actual.cpuUtilization, where);
+    assertEquals(expected.throughput, actual.throughput, where);
+    // Exact in the batch schedulers, the top of its histogram bucket in constant memory
+    assertEquals(expected.waitingTimeHistogram.getValueAtPercentile(99), actual.p99WaitingTime, where);
+    assertEquals(LatencyHistogram.lowestEquivalentValue((long) actual.p99WaitingTime),
+        LatencyHistogram.lowestEquivalentValue((long) expected.p99WaitingTime), where);
+    assertSameHistogram(expected.waitingTimeHistogram, actual.waitingTimeHistogram, where + " waiting");
+    assertSameHistogram(expected.turnAroundTimeHistogram, actual.turnAroundTimeHistogram, where + " turnaround");
+    assertSameHistogram(expected.responseTimeHistogram, actual.responseTimeHistogram, where + " response");
+  }
+
+  static void assertSameHistogram(LatencyHistogram expected, LatencyHistogram actual, String where) {
+    assertEquals(expected.getCount(), actual.getCount(), where);
+    assertEquals(expected.getSum(), actual.getSum(), where);
+    assertEquals(expected.getMin(), actual.getMin(), where);
+    assertEquals(expected.getMax(), actual.getMax(), where);
+    for (long rank = 1; rank <= expected.getCount(); rank++)
+      assertEquals(expected.valueAtRank(rank), actual.valueAtRank(rank), where + " rank " + rank);
+  }
+}
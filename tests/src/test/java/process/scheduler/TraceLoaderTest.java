@@ -0,0 +1,101 @@
+package process.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * TraceLoader: CSV quirks (quotes, blank lines, CRLF, headers), binary round trips, and the
+ * same validation for both formats.
+ */
+class TraceLoaderTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  void csvSkipsBlankAndQuoteOnlyLines() throws IOException {
+    Path file = directory.resolve("trace.csv");
+    Files.writeString(file, "\"JobID\",\"ArrivalTime\",\"BurstTime\",\"Priority\"\r\n"
+        + "\"a\",\"0\",\"5\",\"2\"\r\n"
+        + "\r\n"
+        + "\"\"\r\n"
+        + "  \t \r\n"
+        + "\"b\", 3 , 4 ,\"1\"\r\n"
+        + "\" \"\r\n"
+        + "c,7,1,\r\n"
+        + "\"");
+    for (int parallelism : new int[] { 1, 4 }) {
+      Workload workload = TraceLoader.load(file, parallelism);
+      assertEquals(3, workload.size());
+      assertArrayEquals(new int[] { 0, 3, 7 }, arrivals(workload));
+      assertArrayEquals(new int[] { 5, 4, 1 }, new int[] { workload.getBurstTime(0), workload.getBurstTime(1),
+          workload.getBurstTime(2) });
+      assertArrayEquals(new int[] { 2, 1, 0 }, new int[] { workload.getPriority(0), workload.getPriority(1),
+          workload.getPriority(2) });
+    }
+  }
+
+  @Test
+  void csvWithoutHeaderOrFinalLineFeed() throws IOException {
+    Path file = directory.resolve("trace.csv");
+    Files.writeString(file, "\n0,2,1\n\n1,3\r\n4,1,0");
+    Workload workload = TraceLoader.load(file);
+    assertArrayEquals(new int[] { 0, 1, 4 }, arrivals(workload));
+    assertEquals(0, workload.getPriority(1));
+  }
+
+  @Test
+  void csvRejectsInvalidJobsWithTheirIndex() throws IOException {
+    Path file = directory.resolve("trace.csv");
+    Files.writeString(file, "0,2,1\n\"\"\n3,0,1\n");
+    var error = assertThrows(IllegalArgumentException.class, () -> TraceLoader.load(file));
+    assertTrue(error.getMessage().contains("job 1"), error.getMessage());
+  }
+
+  @Test
+  void binaryRoundTrip() throws IOException {
+    Workload workload = new JobGenerator(5).generate(1_000, 4.0, 8.0, 2.0, 10, 0);
+    Path file = directory.resolve("trace.bin");
+    TraceLoader.writeBinary(workload, file);
+    Workload loaded = TraceLoader.load(file);
+    assertEquals(workload.size(), loaded.size());
+    for (int job = 0; job < workload.size(); job++) {
+      assertEquals(workload.getArrivalTime(job), loaded.getArrivalTime(job));
+      assertEquals(workload.getBurstTime(job), loaded.getBurstTime(job));
+      assertEquals(workload.getPriority(job), loaded.getPriority(job));
+    }
+  }
+
+  @Test
+  void binaryRejectsInvalidJobsWithTheirIndex() throws IOException {
+    int[][] invalid = { { -1, 5, 0 }, { 3, 0, 0 } };
+    for (int[] record : invalid) {
+      Path file = directory.resolve("trace.bin");
+      ByteBuffer bytes = ByteBuffer.allocate(12 + 3 * 12);
+      bytes.putInt(0x534D5452).putInt(1).putInt(3); // MAGIC, VERSION, jobs
+      bytes.putInt(0).putInt(4).putInt(1);
+      bytes.putInt(2).putInt(6).putInt(1);
+      bytes.putInt(record[0]).putInt(record[1]).putInt(record[2]);
+      Files.write(file, bytes.array());
+      var error = assertThrows(IllegalArgumentException.class, () -> TraceLoader.load(file));
+      assertTrue(error.getMessage().contains(file.toString()) && error.getMessage().contains("job 2"),
+          error.getMessage());
+    }
+  }
+
+  private static int[] arrivals(Workload workload) {
+    int[] arrivals = new int[workload.size()];
+    for (int job = 0; job < arrivals.length; job++)
+      arrivals[job] = workload.getArrivalTime(job);
+    return arrivals;
+  }
+}
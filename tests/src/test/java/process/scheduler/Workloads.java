@@ -0,0 +1,11 @@
+package process.scheduler;
+
+/**
+ * Shared constants of the tests.
+ */
+final class Workloads {
+  static final int TIME_QUANTUM = 5;
+
+  private Workloads() {
+  }
+}